@@ -54,8 +54,23 @@ const adminService = {
     },
 
     // Platform Monitoring
-    getAllOrders: async () => {
-        const response = await api.get('/api/admin/orders');
+    // The endpoint streams JSON lines; filters: outletId, status, paymentStatus, from, to, limit, newestFirst
+    getAllOrders: async (params = {}) => {
+        const response = await api.get('/api/admin/orders', {
+            params: { format: 'jsonl', ...params },
+            responseType: 'text'
+        });
+        return (response.data || '')
+            .split('\n')
+            .filter(line => line.trim())
+            .map(line => JSON.parse(line));
+    },
+
+    exportOrdersCsv: async (params = {}) => {
+        const response = await api.get('/api/admin/orders', {
+            params: { ...params, format: 'csv' },
+            responseType: 'blob'
+        });
         return response.data;
     },
 
@@ -46,14 +46,23 @@ const customerService = {
         return response.data;
     },
 
+    // operations: [{ type: 'ADD' | 'SET_QUANTITY' | 'REMOVE' | 'SET_INGREDIENTS', ... }], applied all or nothing.
+    // Resolves with { totalAmount, changedItems, removedItemIds }; merge it with CartContext.applyCartDelta
+    updateCart: async (operations) => {
+        const response = await api.post('/api/cart/batch', { operations });
+        return response.data;
+    },
+
     removeCartItem: async (cartItemId) => {
         const response = await api.delete(`/api/cart/item/${cartItemId}`);
         return response.data;
     },
 
     // Order
-    placeOrder: async (paymentMethod = 'UPI') => {
-        const response = await api.post('/api/order/place', { paymentMethod });
+    // Reusing the same idempotencyKey on retry returns the original order instead of a duplicate
+    placeOrder: async (paymentMethod = 'UPI', idempotencyKey) => {
+        const headers = idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {};
+        const response = await api.post('/api/order/place', { paymentMethod }, { headers });
         return response.data;
     },
 
@@ -62,6 +71,14 @@ const customerService = {
         return response.data;
     },
 
+    // Resolves with the updated order once its status moves past `version`, or null on timeout
+    pollOrder: async (token, version) => {
+        const response = await api.get(`/api/order/track/${token}/poll`, {
+            params: { version, timeoutSeconds: 30 }
+        });
+        return response.status === 204 ? null : response.data;
+    },
+
     getMyOrders: async () => {
         const response = await api.get('/api/customer/orders');
         return response.data;
@@ -62,6 +62,13 @@ const vendorService = {
     },
 
     // Orders
+    getDashboardSummary: async (outletId, days = 7) => {
+        const response = await api.get('/api/owner/dashboard/summary', {
+            params: { outletId, days }
+        });
+        return response.data;
+    },
+
     getOrders: async (outletId) => {
         const response = await api.get('/api/owner/orders', {
             params: { outletId }
@@ -69,6 +76,56 @@ const vendorService = {
         return response.data;
     },
 
+    // Live order deltas over SSE. EventSource cannot send the bearer token, so the
+    // stream is read with fetch; reconnects resume from the last event id.
+    streamOrders: (outletId, onEvent) => {
+        const controller = new AbortController();
+        let lastEventId = null;
+
+        const connect = async () => {
+            while (!controller.signal.aborted) {
+                try {
+                    const headers = { Authorization: `Bearer ${localStorage.getItem('token')}` };
+                    if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+                    const response = await fetch(`/api/owner/orders/stream?outletId=${outletId}`, {
+                        headers,
+                        signal: controller.signal
+                    });
+                    if (!response.ok) throw new Error(`Stream failed: ${response.status}`);
+
+                    const reader = response.body.getReader();
+                    const decoder = new TextDecoder();
+                    let buffer = '';
+                    for (;;) {
+                        const { done, value } = await reader.read();
+                        if (done) break;
+                        buffer += decoder.decode(value, { stream: true });
+                        let boundary;
+                        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                            const block = buffer.slice(0, boundary);
+                            buffer = buffer.slice(boundary + 2);
+                            let type = 'message';
+                            let data = '';
+                            block.split('\n').forEach(line => {
+                                if (line.startsWith('id:')) lastEventId = line.slice(3).trim();
+                                else if (line.startsWith('event:')) type = line.slice(6).trim();
+                                else if (line.startsWith('data:')) data += line.slice(5);
+                            });
+                            if (data) onEvent(type, JSON.parse(data));
+                        }
+                    }
+                } catch (err) {
+                    if (controller.signal.aborted) return;
+                    console.error('Order stream interrupted:', err);
+                }
+                await new Promise(resolve => setTimeout(resolve, 3000));
+            }
+        };
+
+        connect();
+        return () => controller.abort();
+    },
+
     updateOrderStatus: async (orderId, status) => {
         const response = await api.put(`/api/owner/orders/${orderId}/status`, { status });
         return response.data;
@@ -28,6 +28,28 @@ export const CartProvider = ({ children }) => {
         }
     };
 
+    // Merges a /api/cart/batch response into the cart without refetching it
+    const applyCartDelta = (delta) => {
+        setCart(prev => {
+            const removed = new Set(delta.removedItemIds);
+            const changed = new Map(delta.changedItems.map(item => [item.cartItemId, item]));
+            const items = (prev?.items || [])
+                .filter(item => !removed.has(item.cartItemId))
+                .map(item => {
+                    const updated = changed.get(item.cartItemId);
+                    changed.delete(item.cartItemId);
+                    return updated || item;
+                });
+            return {
+                ...prev,
+                cartId: delta.cartId,
+                outletId: delta.outletId,
+                totalAmount: delta.totalAmount,
+                items: [...items, ...changed.values()]
+            };
+        });
+    };
+
     useEffect(() => {
         fetchCart();
     }, [user]);
@@ -35,7 +57,7 @@ export const CartProvider = ({ children }) => {
     const cartCount = cart?.items?.reduce((sum, item) => sum + item.quantity, 0) || 0;
 
     return (
-        <CartContext.Provider value={{ cart, cartCount, fetchCart, loading }}>
+        <CartContext.Provider value={{ cart, cartCount, fetchCart, applyCartDelta, loading }}>
             {children}
         </CartContext.Provider>
     );
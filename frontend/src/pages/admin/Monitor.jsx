@@ -8,7 +8,7 @@ const Monitor = () => {
     useEffect(() => {
         const fetchOrders = async () => {
             try {
-                const data = await adminService.getAllOrders();
+                const data = await adminService.getAllOrders({ limit: 200, newestFirst: true });
                 setOrders(data);
             } catch (error) {
                 console.error('Error fetching orders:', error);
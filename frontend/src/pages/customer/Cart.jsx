@@ -7,9 +7,8 @@ import { motion, AnimatePresence } from 'framer-motion';
 
 const Cart = () => {
     const { user, openLoginModal } = useAuth();
-    const { cart, loading, fetchCart } = useCart();
+    const { cart, loading, fetchCart, applyCartDelta } = useCart();
     const [localItems, setLocalItems] = useState([]);
-    const [foodIdMap, setFoodIdMap] = useState({});
     const [processingId, setProcessingId] = useState(null);
     const navigate = useNavigate();
 
@@ -30,25 +29,6 @@ const Cart = () => {
         }
     }, [cart]);
 
-    // Fetch Menu to Map Food Names -> IDs (Frontend Workaround)
-    useEffect(() => {
-        const fetchFoodIds = async () => {
-            if (cart?.outletId && user) { // Only fetch if user logged in
-                try {
-                    const menu = await customerService.getMenu(cart.outletId);
-                    const map = {};
-                    menu.forEach(item => {
-                        map[item.foodName] = item.foodId;
-                    });
-                    setFoodIdMap(map);
-                } catch (err) {
-                    console.error("Failed to fetch menu for food IDs", err);
-                }
-            }
-        };
-        fetchFoodIds();
-    }, [cart?.outletId, user]);
-
     const calculateTotal = (items) => {
         return items.reduce((sum, item) => sum + item.totalPrice, 0);
     };
@@ -62,12 +42,6 @@ const Cart = () => {
             return;
         }
 
-        const foodId = foodIdMap[item.foodName];
-        if (!foodId) {
-            console.error("Food ID not found for", item.foodName);
-            return; // Cannot proceed without ID
-        }
-
         setProcessingId(item.cartItemId);
 
         // Optimistic Update
@@ -83,9 +57,10 @@ const Cart = () => {
         setLocalItems(newItems);
 
         try {
-            await customerService.addToCart(foodId, delta);
-            // Optionally sync with backend strictly
-            await fetchCart();
+            const cartDelta = await customerService.updateCart([
+                { type: 'SET_QUANTITY', cartItemId: item.cartItemId, quantity: item.quantity + delta }
+            ]);
+            applyCartDelta(cartDelta);
         } catch (error) {
             console.error('Error updating quantity:', error);
             // Revert on failure
@@ -98,8 +73,8 @@ const Cart = () => {
     const removeItem = async (itemId) => {
         setProcessingId(itemId);
         try {
-            await customerService.removeCartItem(itemId);
-            await fetchCart();
+            const cartDelta = await customerService.updateCart([{ type: 'REMOVE', cartItemId: itemId }]);
+            applyCartDelta(cartDelta);
         } catch (error) {
             console.error('Error removing item:', error);
         } finally {
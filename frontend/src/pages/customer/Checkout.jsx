@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import customerService from '../../api/customerService';
 import { motion, AnimatePresence } from 'framer-motion';
@@ -12,6 +12,8 @@ const Checkout = () => {
     const [paymentConfirmed, setPaymentConfirmed] = useState(false);
     const [orderSuccess, setOrderSuccess] = useState(false);
     const [orderToken, setOrderToken] = useState('');
+    // One key per checkout, so double taps and retries cannot create a second order
+    const idempotencyKey = useRef(crypto.randomUUID());
     const navigate = useNavigate();
 
     useEffect(() => {
@@ -33,11 +35,11 @@ const Checkout = () => {
     }, [navigate]);
 
     const handlePlaceOrder = async () => {
-        if (!paymentConfirmed) return;
+        if (!paymentConfirmed || placingOrder) return;
 
         setPlacingOrder(true);
         try {
-            const data = await customerService.placeOrder('UPI');
+            const data = await customerService.placeOrder('UPI', idempotencyKey.current);
             setOrderToken(data.tokenNumber);
             setOrderSuccess(true);
             await fetchCart(); // Refresh global cart state (which is now empty)
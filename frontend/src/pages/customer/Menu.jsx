@@ -16,7 +16,7 @@ const Menu = () => {
     const [showToast, setShowToast] = useState(false);
 
     const { user, openLoginModal } = useAuth();
-    const { fetchCart } = useCart();
+    const { applyCartDelta } = useCart();
     const navigate = useNavigate();
 
     useEffect(() => {
@@ -46,8 +46,8 @@ const Menu = () => {
         }
         setAddingToCart(foodItemId);
         try {
-            await customerService.addToCart(foodItemId, 1);
-            await fetchCart(); // Sync global state
+            const delta = await customerService.updateCart([{ type: 'ADD', foodId: foodItemId, quantity: 1 }]);
+            applyCartDelta(delta); // Sync global state
             setShowToast(true);
             setTimeout(() => setShowToast(false), 3000);
         } catch (error) {
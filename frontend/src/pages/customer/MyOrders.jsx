@@ -6,7 +6,7 @@ import { Link, useNavigate } from 'react-router-dom';
 import { useCart } from '../../context/CartContext';
 
 const MyOrders = () => {
-    const { fetchCart } = useCart();
+    const { applyCartDelta } = useCart();
     const [orders, setOrders] = useState([]);
     const [loading, setLoading] = useState(true);
     const [filter, setFilter] = useState('ALL'); // ALL, ACTIVE, COMPLETED
@@ -51,29 +51,25 @@ const MyOrders = () => {
                 foodIdMap[item.foodName] = item.foodId;
             });
 
-            // 4. Add items to cart
-            let addedCount = 0;
+            // 4. Add all items to cart in one request
+            const operations = [];
             let missingItems = 0;
 
             for (const item of order.items) {
                 const foodId = foodIdMap[item.foodName];
                 if (foodId) {
-                    try {
-                        await customerService.addToCart(foodId, item.quantity);
-                        addedCount++;
-                    } catch (e) {
-                        console.error("Failed to add item", item.foodName);
-                    }
+                    operations.push({ type: 'ADD', foodId, quantity: item.quantity });
                 } else {
                     missingItems++;
                 }
             }
 
-            if (addedCount > 0) {
+            if (operations.length > 0) {
+                const delta = await customerService.updateCart(operations);
+                applyCartDelta(delta);
                 if (missingItems > 0) {
                     alert(`${missingItems} items were unavailable and skipped.`);
                 }
-                await fetchCart();
                 navigate('/cart');
             } else {
                 alert("None of the items from this order are available.");
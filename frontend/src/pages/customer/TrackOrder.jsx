@@ -31,6 +31,27 @@ const TrackOrder = () => {
         }
     }, [location.state]);
 
+    // Wait for status changes with a long-poll instead of re-fetching the order
+    useEffect(() => {
+        if (!order || order.status === 'DELIVERED' || order.status === 'CANCELLED') return;
+        let cancelled = false;
+        const waitForChange = async () => {
+            try {
+                const updated = await customerService.pollOrder(order.tokenNumber, order.statusVersion);
+                if (cancelled) return;
+                if (updated) {
+                    setOrder(updated);
+                } else {
+                    waitForChange();
+                }
+            } catch (err) {
+                if (!cancelled) setTimeout(waitForChange, 5000);
+            }
+        };
+        waitForChange();
+        return () => { cancelled = true; };
+    }, [order?.tokenNumber, order?.statusVersion]);
+
     const handleSubmit = (e) => {
         e.preventDefault();
         fetchOrder(token);
@@ -114,6 +135,12 @@ const TrackOrder = () => {
                                         <div className="text-end">
                                             <span className="small opacity-75 text-uppercase fw-bold tracking-wider">Status</span>
                                             <h5 className="mb-0 fw-bold">{order.status}</h5>
+                                            {order.predictedReadyAt && order.status !== 'DELIVERED' && (
+                                                <span className="small opacity-75">
+                                                    {order.status === 'READY' ? 'Ready since' : 'Ready by'}{' '}
+                                                    {new Date(order.predictedReadyAt).toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' })}
+                                                </span>
+                                            )}
                                         </div>
                                     </div>
 
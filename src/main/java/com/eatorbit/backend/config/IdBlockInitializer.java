@@ -0,0 +1,53 @@
+package com.eatorbit.backend.config;
+
+import com.eatorbit.backend.model.IdBlocks;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves each id_blocks row past the highest id already in use before any request can allocate one.
+ * Covers tables that were filled under IDENTITY and ids carried into the archive tables, so the
+ * first pooled block never hands out an id that is already taken.
+ */
+@Component
+public class IdBlockInitializer implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdBlockInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        align(IdBlocks.ORDERS, "order_id", "order_table", "order_table_archive");
+        align(IdBlocks.ORDER_ITEMS, "order_item_id", "order_items", "order_items_archive");
+        align(IdBlocks.CART_ITEMS, "cart_item_id", "cart_items");
+    }
+
+    private void align(String entity, String idColumn, String... tables) {
+        long maxId = 0;
+        for (String table : tables) {
+            Long max = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+            maxId = Math.max(maxId, max == null ? 0 : max);
+        }
+
+        // The pooled optimizer hands out (value - allocation, value], so the stored value must clear maxId by a block
+        long floor = maxId + IdBlocks.ALLOCATION_SIZE + 1;
+        List<Long> current = jdbcTemplate.queryForList("select " + IdBlocks.VALUE_COLUMN + " from " + IdBlocks.TABLE
+                + " where " + IdBlocks.NAME_COLUMN + " = ?", Long.class, entity);
+        if (current.isEmpty()) {
+            jdbcTemplate.update("insert into " + IdBlocks.TABLE + " (" + IdBlocks.NAME_COLUMN + ", "
+                    + IdBlocks.VALUE_COLUMN + ") values (?, ?)", entity, floor);
+        } else if (current.get(0) == null || current.get(0) < floor) {
+            jdbcTemplate.update("update " + IdBlocks.TABLE + " set " + IdBlocks.VALUE_COLUMN + " = ? where "
+                    + IdBlocks.NAME_COLUMN + " = ?", floor, entity);
+        } else {
+            return;
+        }
+        System.out.println("Id block for " + entity + " starts after " + maxId);
+    }
+}
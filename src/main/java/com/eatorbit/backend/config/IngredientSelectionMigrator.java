@@ -0,0 +1,111 @@
+package com.eatorbit.backend.config;
+
+import com.eatorbit.backend.model.IngredientIdsConverter;
+import com.eatorbit.backend.service.IngredientCatalogService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-way move of ingredient selections from the old one-row-per-name tables (cart_item_ingredients,
+ * order_item_ingredients, order_item_ingredients_archive) into the packed ingredient_ids column of each line.
+ * Names are matched against the line's outlet catalogue; names that match no IngredientItem are dropped
+ * and counted. Runs at startup before the archive job can move lines, and is a no-op once the old
+ * tables are empty or gone.
+ */
+@Component
+public class IngredientSelectionMigrator implements SmartInitializingSingleton {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final IngredientCatalogService ingredientCatalog;
+    private final TransactionTemplate tx;
+
+    public IngredientSelectionMigrator(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+            IngredientCatalogService ingredientCatalog, PlatformTransactionManager txManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.ingredientCatalog = ingredientCatalog;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrate("cart_item_ingredients", "cart_items", "cart_item_id");
+        migrate("order_item_ingredients", "order_items", "order_item_id");
+        migrate("order_item_ingredients_archive", "order_items_archive", "order_item_id");
+    }
+
+    private void migrate(String legacyTable, String lineTable, String idColumn) {
+        String nextLines = "select distinct " + idColumn + " from " + legacyTable + " order by " + idColumn
+                + " limit " + CHUNK_SIZE;
+        List<Long> lineIds;
+        try {
+            lineIds = jdbcTemplate.queryForList(nextLines, Long.class);
+        } catch (DataAccessException e) {
+            // Fresh schema: the old table was never created
+            return;
+        }
+
+        int lines = 0;
+        int dropped = 0;
+        while (!lineIds.isEmpty()) {
+            List<Long> chunk = lineIds;
+            Integer droppedInChunk = tx.execute(status -> migrateChunk(legacyTable, lineTable, idColumn, chunk));
+            lines += chunk.size();
+            dropped += droppedInChunk == null ? 0 : droppedInChunk;
+            lineIds = jdbcTemplate.queryForList(nextLines, Long.class);
+        }
+        if (lines > 0) {
+            System.out.println("DEBUG: Moved ingredient selections of " + lines + " lines from " + legacyTable
+                    + " to " + lineTable + ".ingredient_ids");
+        }
+        if (dropped > 0) {
+            System.err.println("WARNING: " + dropped + " ingredient names in " + legacyTable
+                    + " matched no ingredient of their outlet and were dropped");
+        }
+    }
+
+    // Returns the number of names that could not be resolved
+    private int migrateChunk(String legacyTable, String lineTable, String idColumn, List<Long> lineIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", lineIds);
+        List<Object[]> rows = namedJdbcTemplate.query("select g." + idColumn + ", g.ingredient_name, f.outlet_id from "
+                        + legacyTable + " g join " + lineTable + " l on l." + idColumn + " = g." + idColumn
+                        + " join food_items f on f.food_id = l.food_id where g." + idColumn + " in (:ids)",
+                params, (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3)});
+
+        Map<Long, List<Long>> idsByLine = new LinkedHashMap<>();
+        int dropped = 0;
+        for (Object[] row : rows) {
+            Long ingredientId = ingredientCatalog.idOf((Long) row[2], (String) row[1]);
+            List<Long> ids = idsByLine.computeIfAbsent((Long) row[0], k -> new ArrayList<>());
+            if (ingredientId == null) {
+                dropped++;
+            } else if (ids.size() < IngredientCatalogService.MAX_SELECTED) {
+                ids.add(ingredientId);
+            }
+        }
+
+        List<Object[]> updates = new ArrayList<>(idsByLine.size());
+        for (Map.Entry<Long, List<Long>> line : idsByLine.entrySet()) {
+            long[] ids = line.getValue().stream().mapToLong(Long::longValue).toArray();
+            updates.add(new Object[]{IngredientIdsConverter.encode(ids), line.getKey()});
+        }
+        jdbcTemplate.batchUpdate("update " + lineTable + " set ingredient_ids = ? where " + idColumn + " = ?",
+                updates);
+        namedJdbcTemplate.update("delete from " + legacyTable + " where " + idColumn + " in (:ids)", params);
+        return dropped;
+    }
+}
@@ -1,6 +1,11 @@
 package com.eatorbit.backend.controller;
 
+import com.eatorbit.backend.dto.ArchiveStatsDto;
+import com.eatorbit.backend.dto.CartSweepStatsDto;
+import com.eatorbit.backend.dto.EtaAccuracyDto;
+import com.eatorbit.backend.dto.OrderExportFilter;
 import com.eatorbit.backend.dto.OutletDto;
+import com.eatorbit.backend.dto.PrepTimeStatsDto;
 import com.eatorbit.backend.exception.ApiException;
 import com.eatorbit.backend.exception.ResourceNotFoundException;
 import com.eatorbit.backend.model.Role;
@@ -8,12 +13,24 @@ import com.eatorbit.backend.model.Subscriber;
 import com.eatorbit.backend.model.User;
 import com.eatorbit.backend.repository.SubscriberRepository;
 import com.eatorbit.backend.repository.UserRepository;
+import com.eatorbit.backend.service.AuthService;
+import com.eatorbit.backend.service.CartSweepService;
+import com.eatorbit.backend.service.EtaService;
+import com.eatorbit.backend.service.OrderArchiveService;
+import com.eatorbit.backend.service.OrderExportService;
 import com.eatorbit.backend.service.OutletService;
+import com.eatorbit.backend.service.OutletStatsService;
+import com.eatorbit.backend.service.PrepTimeMetricsService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -22,18 +39,35 @@ public class AdminController {
     private final UserRepository userRepository;
     private final OutletService outletService;
     private final SubscriberRepository subscriberRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final OutletStatsService outletStatsService;
+    private final OrderExportService orderExportService;
+    private final PrepTimeMetricsService prepTimeMetricsService;
+    private final EtaService etaService;
+    private final CartSweepService cartSweepService;
+    private final AuthService authService;
 
     public AdminController(UserRepository userRepository, OutletService outletService,
-            SubscriberRepository subscriberRepository) {
+            SubscriberRepository subscriberRepository, OrderArchiveService orderArchiveService,
+            OutletStatsService outletStatsService, OrderExportService orderExportService,
+            PrepTimeMetricsService prepTimeMetricsService, EtaService etaService,
+            CartSweepService cartSweepService, AuthService authService) {
         this.userRepository = userRepository;
         this.outletService = outletService;
         this.subscriberRepository = subscriberRepository;
+        this.orderArchiveService = orderArchiveService;
+        this.outletStatsService = outletStatsService;
+        this.orderExportService = orderExportService;
+        this.prepTimeMetricsService = prepTimeMetricsService;
+        this.etaService = etaService;
+        this.cartSweepService = cartSweepService;
+        this.authService = authService;
     }
 
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+        return ResponseEntity.ok(userRepository.findAllWithCart());
     }
 
     @GetMapping("/pending-vendors")
@@ -106,7 +140,7 @@ public class AdminController {
     @DeleteMapping("/users/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        userRepository.deleteById(id);
+        authService.deleteUser(id);
         return ResponseEntity.ok().build();
     }
 
@@ -117,10 +151,60 @@ public class AdminController {
         return ResponseEntity.ok().build();
     }
 
+    // Streams every matching order as JSON lines (default) or CSV; see OrderExportFilter for the parameters
     @GetMapping("/orders")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Object>> getAllOrders() {
-        return ResponseEntity.ok(java.util.Collections.emptyList());
+    public ResponseEntity<StreamingResponseBody> getAllOrders(OrderExportFilter filter) {
+        StreamingResponseBody body = orderExportService.export(filter);
+        if (OrderExportService.FORMAT_CSV.equalsIgnoreCase(filter.getFormat())) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"")
+                    .body(body);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/orders/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ArchiveStatsDto> getArchiveStats() {
+        return ResponseEntity.ok(orderArchiveService.getStats());
+    }
+
+    @PostMapping("/orders/archive/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ArchiveStatsDto> runArchive() {
+        return ResponseEntity.ok(orderArchiveService.runNow());
+    }
+
+    @GetMapping("/carts/sweep")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CartSweepStatsDto> getCartSweepStats() {
+        return ResponseEntity.ok(cartSweepService.getStats());
+    }
+
+    @PostMapping("/carts/sweep/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CartSweepStatsDto> runCartSweep() {
+        return ResponseEntity.ok(cartSweepService.runNow());
+    }
+
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> rebuildOutletStats() {
+        return ResponseEntity.ok(Map.of("rows", outletStatsService.rebuild()));
+    }
+
+    @GetMapping("/metrics/prep-times")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PrepTimeStatsDto>> getPrepTimes(@RequestParam(defaultValue = "60") int windowMinutes) {
+        return ResponseEntity.ok(prepTimeMetricsService.getAllStats(windowMinutes));
+    }
+
+    @GetMapping("/metrics/eta-accuracy")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EtaAccuracyDto> getEtaAccuracy(@RequestParam(defaultValue = "60") int windowMinutes) {
+        return ResponseEntity.ok(etaService.getAccuracy(windowMinutes));
     }
 
     @GetMapping("/subscribers")
@@ -3,13 +3,23 @@ package com.eatorbit.backend.controller;
 import com.eatorbit.backend.dto.*;
 import com.eatorbit.backend.model.User;
 import com.eatorbit.backend.service.CartService;
+import com.eatorbit.backend.service.IdempotencyService;
+import com.eatorbit.backend.service.JsonPayload;
+import com.eatorbit.backend.service.KitchenQueueService;
+import com.eatorbit.backend.service.MenuSearchService;
 import com.eatorbit.backend.service.MenuService;
 import com.eatorbit.backend.service.OrderService;
+import com.eatorbit.backend.service.OrderTrackingService;
 import com.eatorbit.backend.service.OutletService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
 
@@ -19,25 +29,49 @@ public class CustomerController {
 
     private final OutletService outletService;
     private final MenuService menuService;
+    private final MenuSearchService menuSearchService;
     private final CartService cartService;
     private final OrderService orderService;
+    private final OrderTrackingService orderTrackingService;
+    private final KitchenQueueService kitchenQueueService;
+    private final IdempotencyService idempotencyService;
 
     public CustomerController(OutletService outletService, MenuService menuService,
-            CartService cartService, OrderService orderService) {
+            MenuSearchService menuSearchService, CartService cartService, OrderService orderService,
+            OrderTrackingService orderTrackingService, KitchenQueueService kitchenQueueService,
+            IdempotencyService idempotencyService) {
         this.outletService = outletService;
         this.menuService = menuService;
+        this.menuSearchService = menuSearchService;
         this.cartService = cartService;
         this.orderService = orderService;
+        this.orderTrackingService = orderTrackingService;
+        this.kitchenQueueService = kitchenQueueService;
+        this.idempotencyService = idempotencyService;
     }
 
+    // Outlet list and menus are served as pre-serialized bytes, see JsonPayload
     @GetMapping("/outlets")
-    public ResponseEntity<List<OutletDto>> getAllOutlets() {
-        return ResponseEntity.ok(outletService.getAllOutlets());
+    public ResponseEntity<byte[]> getAllOutlets(WebRequest request) {
+        return payloadResponse(outletService.getAllOutletsPayload(), request);
     }
 
     @GetMapping("/outlets/{id}/menu")
-    public ResponseEntity<List<FoodItemDto>> getMenu(@PathVariable Long id) {
-        return ResponseEntity.ok(menuService.getMenu(id));
+    public ResponseEntity<byte[]> getMenu(@PathVariable Long id, WebRequest request) {
+        return payloadResponse(menuService.getCachedMenu(id).getPayload(), request);
+    }
+
+    // Foods of every outlet matching all words of q, best first; see MenuSearchService
+    @GetMapping("/search")
+    public ResponseEntity<List<FoodSearchHitDto>> search(@RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(menuSearchService.search(q, limit));
+    }
+
+    // Foods of every outlet narrowed by facets, with per-value counts; see FoodFilter for the parameters
+    @GetMapping("/foods")
+    public ResponseEntity<FoodFilterPage> filterFoods(FoodFilter filter) {
+        return ResponseEntity.ok(menuSearchService.filter(filter));
     }
 
     @PostMapping("/cart/add")
@@ -53,6 +87,14 @@ public class CustomerController {
         return ResponseEntity.ok(cartService.getCart(customer));
     }
 
+    // Several cart changes in one round trip; the response carries only the lines that changed
+    @PostMapping("/cart/batch")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<CartDeltaDto> updateCart(@RequestBody CartBatchRequest request,
+            @AuthenticationPrincipal User customer) {
+        return ResponseEntity.ok(cartService.applyOperations(request, customer));
+    }
+
     @DeleteMapping("/cart/item/{id}")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<CartDto> removeFromCart(@PathVariable Long id, @AuthenticationPrincipal User customer) {
@@ -62,8 +104,9 @@ public class CustomerController {
     @PostMapping("/order/place")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<OrderResponse> placeOrder(@RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal User customer) {
-        return ResponseEntity.ok(orderService.placeOrder(request, customer));
+        return ResponseEntity.ok(idempotencyService.placeOrder(request, customer, idempotencyKey));
     }
 
     @GetMapping("/order/{id}")
@@ -76,9 +119,43 @@ public class CustomerController {
         return ResponseEntity.ok(orderService.trackOrderByToken(token));
     }
 
+    // Long-poll: answers as soon as the order's statusVersion moves past "version", 204 on timeout
+    @GetMapping("/order/track/{token}/poll")
+    public DeferredResult<ResponseEntity<OrderResponse>> pollOrder(@PathVariable String token,
+            @RequestParam(defaultValue = "-1") long version,
+            @RequestParam(defaultValue = "30") long timeoutSeconds) {
+        long timeout = Math.max(1, Math.min(timeoutSeconds, 60)) * 1000;
+        return orderTrackingService.poll(token, version, timeout);
+    }
+
+    @GetMapping("/order/track/{token}/queue")
+    public ResponseEntity<QueuePositionDto> getQueuePosition(@PathVariable String token) {
+        return ResponseEntity.ok(kitchenQueueService.getPosition(token));
+    }
+
     @GetMapping("/customer/orders")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<List<OrderResponse>> getMyOrders(@AuthenticationPrincipal User customer) {
-        return ResponseEntity.ok(orderService.getOrdersByCustomer(customer));
+    public ResponseEntity<List<OrderResponse>> getMyOrders(@AuthenticationPrincipal User customer,
+            @RequestParam(defaultValue = "false") boolean includeHistory) {
+        return ResponseEntity.ok(orderService.getOrdersByCustomer(customer, includeHistory));
+    }
+
+    // The gzip copy when the client takes it; 304 without a body when If-None-Match names the current bytes
+    private static ResponseEntity<byte[]> payloadResponse(JsonPayload payload, WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? payload.getGzipEtag() : payload.getEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(etag);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getJson());
     }
 }
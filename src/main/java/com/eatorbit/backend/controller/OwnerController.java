@@ -1,21 +1,34 @@
 package com.eatorbit.backend.controller;
 
+import com.eatorbit.backend.dto.AdmissionStatusDto;
+import com.eatorbit.backend.dto.BulkStatusRequest;
 import com.eatorbit.backend.dto.CategoryRequest;
+import com.eatorbit.backend.dto.DashboardSummaryDto;
 import com.eatorbit.backend.dto.FoodItemDto;
 import com.eatorbit.backend.dto.OutletDto;
+import com.eatorbit.backend.dto.PrepTimeStatsDto;
 import com.eatorbit.backend.model.FoodCategory;
 import com.eatorbit.backend.model.User;
+import com.eatorbit.backend.service.KitchenQueueService;
 import com.eatorbit.backend.service.MenuService;
 import com.eatorbit.backend.service.OutletService;
 import com.eatorbit.backend.service.OrderService;
+import com.eatorbit.backend.service.OrderStreamService;
+import com.eatorbit.backend.service.OutletStatsService;
+import com.eatorbit.backend.service.PrepTimeMetricsService;
 import com.eatorbit.backend.model.OrderStatus;
 import com.eatorbit.backend.dto.OrderResponse;
+import com.eatorbit.backend.dto.OrderPage;
+import com.eatorbit.backend.dto.QueueEntryDto;
+import com.eatorbit.backend.dto.StatusTransitionResult;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.eatorbit.backend.exception.ApiException;
 
 import java.util.List;
@@ -29,11 +42,21 @@ public class OwnerController {
     private final OutletService outletService;
     private final MenuService menuService;
     private final OrderService orderService;
-
-    public OwnerController(OutletService outletService, MenuService menuService, OrderService orderService) {
+    private final OrderStreamService orderStreamService;
+    private final KitchenQueueService kitchenQueueService;
+    private final OutletStatsService outletStatsService;
+    private final PrepTimeMetricsService prepTimeMetricsService;
+
+    public OwnerController(OutletService outletService, MenuService menuService, OrderService orderService,
+            OrderStreamService orderStreamService, KitchenQueueService kitchenQueueService,
+            OutletStatsService outletStatsService, PrepTimeMetricsService prepTimeMetricsService) {
         this.outletService = outletService;
         this.menuService = menuService;
         this.orderService = orderService;
+        this.orderStreamService = orderStreamService;
+        this.kitchenQueueService = kitchenQueueService;
+        this.outletStatsService = outletStatsService;
+        this.prepTimeMetricsService = prepTimeMetricsService;
     }
 
     @PostMapping("/outlets")
@@ -52,6 +75,17 @@ public class OwnerController {
         return ResponseEntity.ok(outletService.updateOutlet(id, dto, owner));
     }
 
+    @GetMapping("/outlets/{id}/admission")
+    public ResponseEntity<AdmissionStatusDto> getAdmission(@PathVariable Long id, @AuthenticationPrincipal User owner) {
+        return ResponseEntity.ok(outletService.getAdmissionStatus(id, owner));
+    }
+
+    @PutMapping("/outlets/{id}/admission")
+    public ResponseEntity<AdmissionStatusDto> updateAdmission(@PathVariable Long id,
+            @RequestBody AdmissionStatusDto dto, @AuthenticationPrincipal User owner) {
+        return ResponseEntity.ok(outletService.updateAdmissionLimits(id, dto, owner));
+    }
+
     @GetMapping("/categories")
     public ResponseEntity<List<FoodCategory>> getCategories(@RequestParam Long outletId) {
         return ResponseEntity.ok(menuService.getCategories(outletId));
@@ -112,8 +146,29 @@ public class OwnerController {
     }
 
     @GetMapping("/orders")
-    public ResponseEntity<List<OrderResponse>> getOrders(@RequestParam Long outletId) {
-        return ResponseEntity.ok(orderService.getOrdersByOutlet(outletId));
+    public ResponseEntity<List<OrderResponse>> getOrders(@RequestParam Long outletId,
+            @RequestParam(defaultValue = "false") boolean includeHistory) {
+        return ResponseEntity.ok(orderService.getOrdersByOutlet(outletId, includeHistory));
+    }
+
+    @GetMapping("/orders/feed")
+    public ResponseEntity<OrderPage> getOrderFeed(@RequestParam Long outletId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(orderService.getOrderFeed(outletId, cursor, status, limit));
+    }
+
+    @GetMapping("/orders/queue")
+    public ResponseEntity<List<QueueEntryDto>> getKitchenQueue(@RequestParam Long outletId) {
+        return ResponseEntity.ok(kitchenQueueService.getBoard(outletId));
+    }
+
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(@RequestParam Long outletId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        outletService.getOutletById(outletId); // 404 for unknown outlets
+        return orderStreamService.subscribe(outletId, lastEventId);
     }
 
     @PutMapping("/orders/{id}/status")
@@ -122,4 +177,22 @@ public class OwnerController {
         OrderStatus status = OrderStatus.valueOf(body.get("status"));
         return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
     }
+
+    @PutMapping("/orders/status")
+    public ResponseEntity<List<StatusTransitionResult>> bulkUpdateOrderStatus(@RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(orderService.bulkUpdateStatus(request.getOutletId(), request.getTransitions()));
+    }
+
+    // Constant-size payload read from the daily rollup, however much history the outlet has
+    @GetMapping("/dashboard/summary")
+    public ResponseEntity<DashboardSummaryDto> getDashboardSummary(@RequestParam Long outletId,
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(outletStatsService.getSummary(outletId, days));
+    }
+
+    @GetMapping("/metrics/prep-times")
+    public ResponseEntity<PrepTimeStatsDto> getPrepTimes(@RequestParam Long outletId,
+            @RequestParam(defaultValue = "60") int windowMinutes) {
+        return ResponseEntity.ok(prepTimeMetricsService.getStats(outletId, windowMinutes));
+    }
 }
@@ -0,0 +1,80 @@
+package com.eatorbit.backend.dto;
+
+// Request body for the limits (null = platform default, 0 = unlimited) and live admission state in responses
+public class AdmissionStatusDto {
+    private Long outletId;
+    private Integer maxOpenOrders;
+    private Integer ordersPerMinute;
+    private int effectiveMaxOpenOrders;
+    private int effectiveOrdersPerMinute;
+    private int openOrders;
+    private long rejectedAtCapacity;
+    private long rejectedOverRate;
+
+    public AdmissionStatusDto() {
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public void setOutletId(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public Integer getMaxOpenOrders() {
+        return maxOpenOrders;
+    }
+
+    public void setMaxOpenOrders(Integer maxOpenOrders) {
+        this.maxOpenOrders = maxOpenOrders;
+    }
+
+    public Integer getOrdersPerMinute() {
+        return ordersPerMinute;
+    }
+
+    public void setOrdersPerMinute(Integer ordersPerMinute) {
+        this.ordersPerMinute = ordersPerMinute;
+    }
+
+    public int getEffectiveMaxOpenOrders() {
+        return effectiveMaxOpenOrders;
+    }
+
+    public void setEffectiveMaxOpenOrders(int effectiveMaxOpenOrders) {
+        this.effectiveMaxOpenOrders = effectiveMaxOpenOrders;
+    }
+
+    public int getEffectiveOrdersPerMinute() {
+        return effectiveOrdersPerMinute;
+    }
+
+    public void setEffectiveOrdersPerMinute(int effectiveOrdersPerMinute) {
+        this.effectiveOrdersPerMinute = effectiveOrdersPerMinute;
+    }
+
+    public int getOpenOrders() {
+        return openOrders;
+    }
+
+    public void setOpenOrders(int openOrders) {
+        this.openOrders = openOrders;
+    }
+
+    public long getRejectedAtCapacity() {
+        return rejectedAtCapacity;
+    }
+
+    public void setRejectedAtCapacity(long rejectedAtCapacity) {
+        this.rejectedAtCapacity = rejectedAtCapacity;
+    }
+
+    public long getRejectedOverRate() {
+        return rejectedOverRate;
+    }
+
+    public void setRejectedOverRate(long rejectedOverRate) {
+        this.rejectedOverRate = rejectedOverRate;
+    }
+}
@@ -0,0 +1,107 @@
+package com.eatorbit.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class ArchiveStatsDto {
+    private long runs;
+    private long ordersArchived;
+    private long itemsArchived;
+    private LocalDateTime lastRunAt;
+    private long lastRunMillis;
+    private long lastRunOrders;
+    private long hotOrdersBeforeLastRun;
+    private long hotOrdersAfterLastRun;
+    private long hotOrders;
+    private long archivedOrders;
+
+    public ArchiveStatsDto() {
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+
+    public long getOrdersArchived() {
+        return ordersArchived;
+    }
+
+    public void setOrdersArchived(long ordersArchived) {
+        this.ordersArchived = ordersArchived;
+    }
+
+    public long getItemsArchived() {
+        return itemsArchived;
+    }
+
+    public void setItemsArchived(long itemsArchived) {
+        this.itemsArchived = itemsArchived;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    public void setLastRunMillis(long lastRunMillis) {
+        this.lastRunMillis = lastRunMillis;
+    }
+
+    public long getLastRunOrders() {
+        return lastRunOrders;
+    }
+
+    public void setLastRunOrders(long lastRunOrders) {
+        this.lastRunOrders = lastRunOrders;
+    }
+
+    public long getHotOrdersBeforeLastRun() {
+        return hotOrdersBeforeLastRun;
+    }
+
+    public void setHotOrdersBeforeLastRun(long hotOrdersBeforeLastRun) {
+        this.hotOrdersBeforeLastRun = hotOrdersBeforeLastRun;
+    }
+
+    public long getHotOrdersAfterLastRun() {
+        return hotOrdersAfterLastRun;
+    }
+
+    public void setHotOrdersAfterLastRun(long hotOrdersAfterLastRun) {
+        this.hotOrdersAfterLastRun = hotOrdersAfterLastRun;
+    }
+
+    // Share of the hot table removed by the last run, in percent
+    public double getLastRunShrinkPercent() {
+        if (hotOrdersBeforeLastRun == 0) {
+            return 0;
+        }
+        return 100.0 * (hotOrdersBeforeLastRun - hotOrdersAfterLastRun) / hotOrdersBeforeLastRun;
+    }
+
+    public long getHotOrders() {
+        return hotOrders;
+    }
+
+    public void setHotOrders(long hotOrders) {
+        this.hotOrders = hotOrders;
+    }
+
+    public long getArchivedOrders() {
+        return archivedOrders;
+    }
+
+    public void setArchivedOrders(long archivedOrders) {
+        this.archivedOrders = archivedOrders;
+    }
+}
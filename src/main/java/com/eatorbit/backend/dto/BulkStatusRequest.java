@@ -0,0 +1,27 @@
+package com.eatorbit.backend.dto;
+
+import java.util.List;
+
+public class BulkStatusRequest {
+    private Long outletId;
+    private List<StatusTransitionRequest> transitions;
+
+    public BulkStatusRequest() {
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public void setOutletId(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public List<StatusTransitionRequest> getTransitions() {
+        return transitions;
+    }
+
+    public void setTransitions(List<StatusTransitionRequest> transitions) {
+        this.transitions = transitions;
+    }
+}
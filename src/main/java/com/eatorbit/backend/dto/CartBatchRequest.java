@@ -0,0 +1,18 @@
+package com.eatorbit.backend.dto;
+
+import java.util.List;
+
+public class CartBatchRequest {
+    private List<CartOperation> operations;
+
+    public CartBatchRequest() {
+    }
+
+    public List<CartOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<CartOperation> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,56 @@
+package com.eatorbit.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Answer to a CartBatchRequest: only the lines that were added or changed, and the ids of those removed
+public class CartDeltaDto {
+    private Long cartId;
+    private Long outletId;
+    private BigDecimal totalAmount;
+    private List<CartItemDto> changedItems;
+    private List<Long> removedItemIds;
+
+    public CartDeltaDto() {
+    }
+
+    public Long getCartId() {
+        return cartId;
+    }
+
+    public void setCartId(Long cartId) {
+        this.cartId = cartId;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public void setOutletId(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public List<CartItemDto> getChangedItems() {
+        return changedItems;
+    }
+
+    public void setChangedItems(List<CartItemDto> changedItems) {
+        this.changedItems = changedItems;
+    }
+
+    public List<Long> getRemovedItemIds() {
+        return removedItemIds;
+    }
+
+    public void setRemovedItemIds(List<Long> removedItemIds) {
+        this.removedItemIds = removedItemIds;
+    }
+}
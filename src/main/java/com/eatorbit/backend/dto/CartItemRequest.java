@@ -6,6 +6,7 @@ public class CartItemRequest {
     private Long foodId;
     private Integer quantity;
     private List<String> selectedIngredients;
+    private List<Long> selectedIngredientIds;
 
     public CartItemRequest() {
     }
@@ -38,4 +39,12 @@ public class CartItemRequest {
     public void setSelectedIngredients(List<String> selectedIngredients) {
         this.selectedIngredients = selectedIngredients;
     }
+
+    public List<Long> getSelectedIngredientIds() {
+        return selectedIngredientIds;
+    }
+
+    public void setSelectedIngredientIds(List<Long> selectedIngredientIds) {
+        this.selectedIngredientIds = selectedIngredientIds;
+    }
 }
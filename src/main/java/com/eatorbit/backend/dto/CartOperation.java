@@ -0,0 +1,77 @@
+package com.eatorbit.backend.dto;
+
+import java.util.List;
+
+// One step of a CartBatchRequest. ADD names a food; the other types name an existing cart line.
+public class CartOperation {
+
+    public enum Type {
+        ADD,
+        SET_QUANTITY, // A quantity of 0 removes the line
+        REMOVE,
+        SET_INGREDIENTS // An empty selection clears the line's ingredients
+    }
+
+    private Type type;
+    private Long foodId;
+    private Long cartItemId;
+    private Integer quantity;
+    private List<String> selectedIngredients;
+    private List<Long> selectedIngredientIds;
+
+    public CartOperation() {
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    public void setFoodId(Long foodId) {
+        this.foodId = foodId;
+    }
+
+    // Alias for frontend compatibility
+    public void setFoodItemId(Long foodItemId) {
+        this.foodId = foodItemId;
+    }
+
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+
+    public void setCartItemId(Long cartItemId) {
+        this.cartItemId = cartItemId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public List<String> getSelectedIngredients() {
+        return selectedIngredients;
+    }
+
+    public void setSelectedIngredients(List<String> selectedIngredients) {
+        this.selectedIngredients = selectedIngredients;
+    }
+
+    public List<Long> getSelectedIngredientIds() {
+        return selectedIngredientIds;
+    }
+
+    public void setSelectedIngredientIds(List<Long> selectedIngredientIds) {
+        this.selectedIngredientIds = selectedIngredientIds;
+    }
+}
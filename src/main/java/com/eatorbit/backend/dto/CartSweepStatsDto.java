@@ -0,0 +1,81 @@
+package com.eatorbit.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class CartSweepStatsDto {
+    private long runs;
+    private long cartsDeleted;
+    private long itemsDeleted;
+    private LocalDateTime lastRunAt;
+    private long lastRunMillis;
+    private long lastRunCarts;
+    private long lastRunItems;
+    private long carts;
+
+    public CartSweepStatsDto() {
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+
+    public long getCartsDeleted() {
+        return cartsDeleted;
+    }
+
+    public void setCartsDeleted(long cartsDeleted) {
+        this.cartsDeleted = cartsDeleted;
+    }
+
+    public long getItemsDeleted() {
+        return itemsDeleted;
+    }
+
+    public void setItemsDeleted(long itemsDeleted) {
+        this.itemsDeleted = itemsDeleted;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    public void setLastRunMillis(long lastRunMillis) {
+        this.lastRunMillis = lastRunMillis;
+    }
+
+    public long getLastRunCarts() {
+        return lastRunCarts;
+    }
+
+    public void setLastRunCarts(long lastRunCarts) {
+        this.lastRunCarts = lastRunCarts;
+    }
+
+    public long getLastRunItems() {
+        return lastRunItems;
+    }
+
+    public void setLastRunItems(long lastRunItems) {
+        this.lastRunItems = lastRunItems;
+    }
+
+    public long getCarts() {
+        return carts;
+    }
+
+    public void setCarts(long carts) {
+        this.carts = carts;
+    }
+}
@@ -0,0 +1,58 @@
+package com.eatorbit.backend.dto;
+
+import com.eatorbit.backend.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public class DailyStatsDto {
+    private LocalDate date;
+    private long orderCount;
+    private BigDecimal revenue;
+    private BigDecimal averageTicket;
+    private Map<OrderStatus, Long> statusCounts;
+
+    public DailyStatsDto() {
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public BigDecimal getAverageTicket() {
+        return averageTicket;
+    }
+
+    public void setAverageTicket(BigDecimal averageTicket) {
+        this.averageTicket = averageTicket;
+    }
+
+    public Map<OrderStatus, Long> getStatusCounts() {
+        return statusCounts;
+    }
+
+    public void setStatusCounts(Map<OrderStatus, Long> statusCounts) {
+        this.statusCounts = statusCounts;
+    }
+}
@@ -0,0 +1,73 @@
+package com.eatorbit.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class DashboardSummaryDto {
+    private Long outletId;
+    private int activeOrders;
+    private DailyStatsDto today;
+    private LocalDate periodFrom;
+    private LocalDate periodTo;
+    private DailyStatsDto period;
+    private List<DailyStatsDto> days;
+
+    public DashboardSummaryDto() {
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public void setOutletId(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public int getActiveOrders() {
+        return activeOrders;
+    }
+
+    public void setActiveOrders(int activeOrders) {
+        this.activeOrders = activeOrders;
+    }
+
+    public DailyStatsDto getToday() {
+        return today;
+    }
+
+    public void setToday(DailyStatsDto today) {
+        this.today = today;
+    }
+
+    public LocalDate getPeriodFrom() {
+        return periodFrom;
+    }
+
+    public void setPeriodFrom(LocalDate periodFrom) {
+        this.periodFrom = periodFrom;
+    }
+
+    public LocalDate getPeriodTo() {
+        return periodTo;
+    }
+
+    public void setPeriodTo(LocalDate periodTo) {
+        this.periodTo = periodTo;
+    }
+
+    public DailyStatsDto getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(DailyStatsDto period) {
+        this.period = period;
+    }
+
+    public List<DailyStatsDto> getDays() {
+        return days;
+    }
+
+    public void setDays(List<DailyStatsDto> days) {
+        this.days = days;
+    }
+}
@@ -0,0 +1,79 @@
+package com.eatorbit.backend.dto;
+
+public class EtaAccuracyDto {
+    private long samples;
+    private double meanAbsoluteErrorSeconds;
+    private double meanSignedErrorSeconds; // Positive: orders were ready later than predicted
+    private double withinTwoMinutesPercent;
+    private int windowMinutes;
+    private long windowSamples;
+    private double absoluteErrorP50Seconds;
+    private double absoluteErrorP90Seconds;
+
+    public EtaAccuracyDto() {
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public void setSamples(long samples) {
+        this.samples = samples;
+    }
+
+    public double getMeanAbsoluteErrorSeconds() {
+        return meanAbsoluteErrorSeconds;
+    }
+
+    public void setMeanAbsoluteErrorSeconds(double meanAbsoluteErrorSeconds) {
+        this.meanAbsoluteErrorSeconds = meanAbsoluteErrorSeconds;
+    }
+
+    public double getMeanSignedErrorSeconds() {
+        return meanSignedErrorSeconds;
+    }
+
+    public void setMeanSignedErrorSeconds(double meanSignedErrorSeconds) {
+        this.meanSignedErrorSeconds = meanSignedErrorSeconds;
+    }
+
+    public double getWithinTwoMinutesPercent() {
+        return withinTwoMinutesPercent;
+    }
+
+    public void setWithinTwoMinutesPercent(double withinTwoMinutesPercent) {
+        this.withinTwoMinutesPercent = withinTwoMinutesPercent;
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public void setWindowMinutes(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+
+    public long getWindowSamples() {
+        return windowSamples;
+    }
+
+    public void setWindowSamples(long windowSamples) {
+        this.windowSamples = windowSamples;
+    }
+
+    public double getAbsoluteErrorP50Seconds() {
+        return absoluteErrorP50Seconds;
+    }
+
+    public void setAbsoluteErrorP50Seconds(double absoluteErrorP50Seconds) {
+        this.absoluteErrorP50Seconds = absoluteErrorP50Seconds;
+    }
+
+    public double getAbsoluteErrorP90Seconds() {
+        return absoluteErrorP90Seconds;
+    }
+
+    public void setAbsoluteErrorP90Seconds(double absoluteErrorP90Seconds) {
+        this.absoluteErrorP90Seconds = absoluteErrorP90Seconds;
+    }
+}
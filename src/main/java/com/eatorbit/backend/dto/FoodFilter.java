@@ -0,0 +1,82 @@
+package com.eatorbit.backend.dto;
+
+import java.util.List;
+
+// Query parameters of GET /api/foods; unset facets do not filter, several values of one facet match any of them
+public class FoodFilter {
+    private Boolean veg;
+    private Boolean available;
+    private Boolean seasonal;
+    private Boolean open;
+    private List<String> cuisine;
+    private List<String> price;
+    private int page;
+    private Integer size;
+
+    public FoodFilter() {
+    }
+
+    public Boolean getVeg() {
+        return veg;
+    }
+
+    public void setVeg(Boolean veg) {
+        this.veg = veg;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    public Boolean getSeasonal() {
+        return seasonal;
+    }
+
+    public void setSeasonal(Boolean seasonal) {
+        this.seasonal = seasonal;
+    }
+
+    public Boolean getOpen() {
+        return open;
+    }
+
+    public void setOpen(Boolean open) {
+        this.open = open;
+    }
+
+    public List<String> getCuisine() {
+        return cuisine;
+    }
+
+    public void setCuisine(List<String> cuisine) {
+        this.cuisine = cuisine;
+    }
+
+    public List<String> getPrice() {
+        return price;
+    }
+
+    public void setPrice(List<String> price) {
+        this.price = price;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,75 @@
+package com.eatorbit.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// One page of filtered foods in food id order, with how many foods each facet value would give
+public class FoodFilterPage {
+    private List<FoodSearchHitDto> foods;
+    private int total;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private Map<String, Map<String, Integer>> facets;
+
+    public FoodFilterPage() {
+    }
+
+    public FoodFilterPage(List<FoodSearchHitDto> foods, int total, int page, int size, boolean hasMore,
+            Map<String, Map<String, Integer>> facets) {
+        this.foods = foods;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+        this.facets = facets;
+    }
+
+    public List<FoodSearchHitDto> getFoods() {
+        return foods;
+    }
+
+    public void setFoods(List<FoodSearchHitDto> foods) {
+        this.foods = foods;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,135 @@
+package com.eatorbit.backend.dto;
+
+import java.math.BigDecimal;
+
+// One food as the cross-outlet search returns it, with enough of its outlet to show and link the stall
+public class FoodSearchHitDto {
+    private Long foodId;
+    private String foodName;
+    private String description;
+    private BigDecimal price;
+    private boolean isVeg;
+    private boolean isAvailable;
+    private boolean isSeasonal;
+    private String categoryName;
+    private Long outletId;
+    private String outletName;
+    private String cuisineType;
+    private boolean isOutletOpen;
+
+    public FoodSearchHitDto() {
+    }
+
+    public FoodSearchHitDto(Long foodId, String foodName, String description, BigDecimal price, boolean veg,
+            boolean available, boolean seasonal, String categoryName, Long outletId, String outletName,
+            String cuisineType, boolean outletOpen) {
+        this.foodId = foodId;
+        this.foodName = foodName;
+        this.description = description;
+        this.price = price;
+        this.isVeg = veg;
+        this.isAvailable = available;
+        this.isSeasonal = seasonal;
+        this.categoryName = categoryName;
+        this.outletId = outletId;
+        this.outletName = outletName;
+        this.cuisineType = cuisineType;
+        this.isOutletOpen = outletOpen;
+    }
+
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    public void setFoodId(Long foodId) {
+        this.foodId = foodId;
+    }
+
+    public String getFoodName() {
+        return foodName;
+    }
+
+    public void setFoodName(String foodName) {
+        this.foodName = foodName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public boolean isVeg() {
+        return isVeg;
+    }
+
+    public void setVeg(boolean veg) {
+        isVeg = veg;
+    }
+
+    public boolean isAvailable() {
+        return isAvailable;
+    }
+
+    public void setAvailable(boolean available) {
+        isAvailable = available;
+    }
+
+    public boolean isSeasonal() {
+        return isSeasonal;
+    }
+
+    public void setSeasonal(boolean seasonal) {
+        isSeasonal = seasonal;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public void setOutletId(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public String getOutletName() {
+        return outletName;
+    }
+
+    public void setOutletName(String outletName) {
+        this.outletName = outletName;
+    }
+
+    public String getCuisineType() {
+        return cuisineType;
+    }
+
+    public void setCuisineType(String cuisineType) {
+        this.cuisineType = cuisineType;
+    }
+
+    public boolean isOutletOpen() {
+        return isOutletOpen;
+    }
+
+    public void setOutletOpen(boolean outletOpen) {
+        isOutletOpen = outletOpen;
+    }
+}
@@ -0,0 +1,50 @@
+package com.eatorbit.backend.dto;
+
+public class LatencySummaryDto {
+    private long count;
+    private double p50Seconds;
+    private double p95Seconds;
+    private double p99Seconds;
+
+    public LatencySummaryDto() {
+    }
+
+    public LatencySummaryDto(long count, double p50Seconds, double p95Seconds, double p99Seconds) {
+        this.count = count;
+        this.p50Seconds = p50Seconds;
+        this.p95Seconds = p95Seconds;
+        this.p99Seconds = p99Seconds;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getP50Seconds() {
+        return p50Seconds;
+    }
+
+    public void setP50Seconds(double p50Seconds) {
+        this.p50Seconds = p50Seconds;
+    }
+
+    public double getP95Seconds() {
+        return p95Seconds;
+    }
+
+    public void setP95Seconds(double p95Seconds) {
+        this.p95Seconds = p95Seconds;
+    }
+
+    public double getP99Seconds() {
+        return p99Seconds;
+    }
+
+    public void setP99Seconds(double p99Seconds) {
+        this.p99Seconds = p99Seconds;
+    }
+}
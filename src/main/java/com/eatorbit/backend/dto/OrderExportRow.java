@@ -0,0 +1,83 @@
+package com.eatorbit.backend.dto;
+
+import com.eatorbit.backend.model.OrderStatus;
+import com.eatorbit.backend.model.PaymentMethod;
+import com.eatorbit.backend.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat, read-only row for the admin export; built by a JPQL constructor expression so no entity is managed
+public class OrderExportRow {
+    private final Long orderId;
+    private final String tokenNumber;
+    private final Long outletId;
+    private final String outletName;
+    private final Long customerId;
+    private final String customerEmail;
+    private final OrderStatus status;
+    private final PaymentStatus paymentStatus;
+    private final PaymentMethod paymentMethod;
+    private final BigDecimal totalAmount;
+    private final LocalDateTime createdAt;
+
+    public OrderExportRow(Long orderId, String tokenNumber, Long outletId, String outletName, Long customerId,
+            String customerEmail, OrderStatus status, PaymentStatus paymentStatus, PaymentMethod paymentMethod,
+            BigDecimal totalAmount, LocalDateTime createdAt) {
+        this.orderId = orderId;
+        this.tokenNumber = tokenNumber;
+        this.outletId = outletId;
+        this.outletName = outletName;
+        this.customerId = customerId;
+        this.customerEmail = customerEmail;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.paymentMethod = paymentMethod;
+        this.totalAmount = totalAmount;
+        this.createdAt = createdAt;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getTokenNumber() {
+        return tokenNumber;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public String getOutletName() {
+        return outletName;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 public class OrderItemDto {
+    private Long foodId;
     private String foodName;
     private Integer quantity;
     private List<String> selectedIngredients;
@@ -12,6 +13,14 @@ public class OrderItemDto {
     public OrderItemDto() {
     }
 
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    public void setFoodId(Long foodId) {
+        this.foodId = foodId;
+    }
+
     public String getFoodName() {
         return foodName;
     }
@@ -0,0 +1,42 @@
+package com.eatorbit.backend.dto;
+
+import java.util.List;
+
+public class OrderPage {
+    private List<OrderResponse> orders;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public OrderPage() {
+    }
+
+    public OrderPage(List<OrderResponse> orders, String nextCursor, boolean hasMore) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<OrderResponse> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderResponse> orders) {
+        this.orders = orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
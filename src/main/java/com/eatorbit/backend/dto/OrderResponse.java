@@ -6,11 +6,14 @@ import java.util.List;
 public class OrderResponse {
     private Long orderId;
     private String tokenNumber;
+    private String pickupCode;
     private String outletName;
     private com.eatorbit.backend.model.OrderStatus status;
     private BigDecimal totalAmount;
     private com.eatorbit.backend.model.PaymentStatus paymentStatus;
     private java.time.LocalDateTime createdAt;
+    private Long statusVersion;
+    private java.time.LocalDateTime predictedReadyAt;
     private List<OrderItemDto> items;
 
     public OrderResponse() {
@@ -32,6 +35,14 @@ public class OrderResponse {
         this.tokenNumber = tokenNumber;
     }
 
+    public String getPickupCode() {
+        return pickupCode;
+    }
+
+    public void setPickupCode(String pickupCode) {
+        this.pickupCode = pickupCode;
+    }
+
     public String getOutletName() {
         return outletName;
     }
@@ -72,6 +83,14 @@ public class OrderResponse {
         this.createdAt = createdAt;
     }
 
+    public Long getStatusVersion() {
+        return statusVersion;
+    }
+
+    public void setStatusVersion(Long statusVersion) {
+        this.statusVersion = statusVersion;
+    }
+
     public List<OrderItemDto> getItems() {
         return items;
     }
@@ -79,4 +98,12 @@ public class OrderResponse {
     public void setItems(List<OrderItemDto> items) {
         this.items = items;
     }
+
+    public java.time.LocalDateTime getPredictedReadyAt() {
+        return predictedReadyAt;
+    }
+
+    public void setPredictedReadyAt(java.time.LocalDateTime predictedReadyAt) {
+        this.predictedReadyAt = predictedReadyAt;
+    }
 }
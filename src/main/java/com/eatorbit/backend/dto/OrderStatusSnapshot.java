@@ -0,0 +1,55 @@
+package com.eatorbit.backend.dto;
+
+import com.eatorbit.backend.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Just enough of an order to validate and report a status move, read without loading the entity
+public class OrderStatusSnapshot {
+    private final Long orderId;
+    private final Long outletId;
+    private final String tokenNumber;
+    private final OrderStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime statusChangedAt;
+    private final long version;
+
+    public OrderStatusSnapshot(Long orderId, Long outletId, String tokenNumber, OrderStatus status,
+            LocalDateTime createdAt, LocalDateTime statusChangedAt, long version) {
+        this.orderId = orderId;
+        this.outletId = outletId;
+        this.tokenNumber = tokenNumber;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.statusChangedAt = statusChangedAt;
+        this.version = version;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public String getTokenNumber() {
+        return tokenNumber;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStatusSince() {
+        return statusChangedAt != null ? statusChangedAt : createdAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,75 @@
+package com.eatorbit.backend.dto;
+
+import com.eatorbit.backend.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Delta pushed to vendor order streams; "order" is only present for new orders
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderStreamEvent {
+    private long eventId;
+    private String type;
+    private Long orderId;
+    private String tokenNumber;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private OrderResponse order;
+
+    public OrderStreamEvent() {
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getTokenNumber() {
+        return tokenNumber;
+    }
+
+    public void setTokenNumber(String tokenNumber) {
+        this.tokenNumber = tokenNumber;
+    }
+
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(OrderStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public OrderResponse getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderResponse order) {
+        this.order = order;
+    }
+}
@@ -12,6 +12,8 @@ public class OutletDto {
     private String qrImageUrl;
     private String ownerName;
     private String ownerEmail;
+    private Integer maxOpenOrders;
+    private Integer ordersPerMinute;
 
     public OutletDto() {
     }
@@ -103,4 +105,20 @@ public class OutletDto {
     public void setOwnerEmail(String ownerEmail) {
         this.ownerEmail = ownerEmail;
     }
+
+    public Integer getMaxOpenOrders() {
+        return maxOpenOrders;
+    }
+
+    public void setMaxOpenOrders(Integer maxOpenOrders) {
+        this.maxOpenOrders = maxOpenOrders;
+    }
+
+    public Integer getOrdersPerMinute() {
+        return ordersPerMinute;
+    }
+
+    public void setOrdersPerMinute(Integer ordersPerMinute) {
+        this.ordersPerMinute = ordersPerMinute;
+    }
 }
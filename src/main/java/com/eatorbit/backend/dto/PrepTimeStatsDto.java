@@ -0,0 +1,42 @@
+package com.eatorbit.backend.dto;
+
+import java.util.Map;
+
+public class PrepTimeStatsDto {
+    private Long outletId;
+    private int windowMinutes;
+    private Map<String, LatencySummaryDto> stages;
+
+    public PrepTimeStatsDto() {
+    }
+
+    public PrepTimeStatsDto(Long outletId, int windowMinutes, Map<String, LatencySummaryDto> stages) {
+        this.outletId = outletId;
+        this.windowMinutes = windowMinutes;
+        this.stages = stages;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public void setOutletId(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public void setWindowMinutes(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+
+    public Map<String, LatencySummaryDto> getStages() {
+        return stages;
+    }
+
+    public void setStages(Map<String, LatencySummaryDto> stages) {
+        this.stages = stages;
+    }
+}
@@ -0,0 +1,84 @@
+package com.eatorbit.backend.dto;
+
+import com.eatorbit.backend.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public class QueueEntryDto {
+    private Long orderId;
+    private Long outletId;
+    private String tokenNumber;
+    private OrderStatus status;
+    private LocalDateTime createdAt;
+    private long version;
+    private int position;
+
+    public QueueEntryDto() {
+    }
+
+    public QueueEntryDto(Long orderId, Long outletId, String tokenNumber, OrderStatus status,
+            LocalDateTime createdAt, long version) {
+        this.orderId = orderId;
+        this.outletId = outletId;
+        this.tokenNumber = tokenNumber;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.version = version;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public void setOutletId(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public String getTokenNumber() {
+        return tokenNumber;
+    }
+
+    public void setTokenNumber(String tokenNumber) {
+        this.tokenNumber = tokenNumber;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
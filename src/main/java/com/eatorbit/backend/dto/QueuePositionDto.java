@@ -0,0 +1,62 @@
+package com.eatorbit.backend.dto;
+
+import com.eatorbit.backend.model.OrderStatus;
+
+public class QueuePositionDto {
+    private String tokenNumber;
+    private OrderStatus status;
+    private int position;
+    private int ordersAhead;
+    private int queueLength;
+
+    public QueuePositionDto() {
+    }
+
+    public QueuePositionDto(String tokenNumber, OrderStatus status, int position, int ordersAhead, int queueLength) {
+        this.tokenNumber = tokenNumber;
+        this.status = status;
+        this.position = position;
+        this.ordersAhead = ordersAhead;
+        this.queueLength = queueLength;
+    }
+
+    public String getTokenNumber() {
+        return tokenNumber;
+    }
+
+    public void setTokenNumber(String tokenNumber) {
+        this.tokenNumber = tokenNumber;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public int getOrdersAhead() {
+        return ordersAhead;
+    }
+
+    public void setOrdersAhead(int ordersAhead) {
+        this.ordersAhead = ordersAhead;
+    }
+
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    public void setQueueLength(int queueLength) {
+        this.queueLength = queueLength;
+    }
+}
@@ -0,0 +1,73 @@
+package com.eatorbit.backend.dto;
+
+import com.eatorbit.backend.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatusTransitionResult {
+    private Long orderId;
+    private boolean applied;
+    private OrderStatus status;
+    private Long statusVersion;
+    private String error;
+
+    public StatusTransitionResult() {
+    }
+
+    public static StatusTransitionResult applied(Long orderId, OrderStatus status, long statusVersion) {
+        StatusTransitionResult result = new StatusTransitionResult();
+        result.orderId = orderId;
+        result.applied = true;
+        result.status = status;
+        result.statusVersion = statusVersion;
+        return result;
+    }
+
+    public static StatusTransitionResult rejected(Long orderId, OrderStatus status, String error) {
+        StatusTransitionResult result = new StatusTransitionResult();
+        result.orderId = orderId;
+        result.status = status;
+        result.error = error;
+        return result;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Long getStatusVersion() {
+        return statusVersion;
+    }
+
+    public void setStatusVersion(Long statusVersion) {
+        this.statusVersion = statusVersion;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,18 @@
+package com.eatorbit.backend.event;
+
+/**
+ * Published whenever an outlet's menu (foods, their categories or images) is written.
+ * MenuService drops its cached copy of the outlet's menu once the surrounding transaction commits.
+ */
+public class MenuChangeEvent {
+
+    private final Long outletId;
+
+    public MenuChangeEvent(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+}
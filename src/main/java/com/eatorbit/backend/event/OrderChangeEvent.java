@@ -0,0 +1,103 @@
+package com.eatorbit.backend.event;
+
+import com.eatorbit.backend.dto.OrderResponse;
+import com.eatorbit.backend.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService whenever an order is created or changes status.
+ * In-memory listeners consume it after the surrounding transaction commits.
+ */
+public class OrderChangeEvent {
+
+    public enum Type {
+        PLACED,
+        STATUS_CHANGED
+    }
+
+    private final Type type;
+    private final Long orderId;
+    private final Long outletId;
+    private final String tokenNumber;
+    private final OrderStatus previousStatus;
+    private final OrderStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime changedAt;
+    private final LocalDateTime previousStatusSince; // When the order entered previousStatus
+    private final long version;
+    private final OrderResponse order; // Full snapshot, only set for PLACED
+
+    public OrderChangeEvent(Type type, Long orderId, Long outletId, String tokenNumber,
+            OrderStatus previousStatus, OrderStatus status, LocalDateTime createdAt,
+            LocalDateTime changedAt, LocalDateTime previousStatusSince, long version, OrderResponse order) {
+        this.type = type;
+        this.orderId = orderId;
+        this.outletId = outletId;
+        this.tokenNumber = tokenNumber;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.changedAt = changedAt;
+        this.previousStatusSince = previousStatusSince;
+        this.version = version;
+        this.order = order;
+    }
+
+    public static OrderChangeEvent placed(OrderResponse order, Long outletId) {
+        return new OrderChangeEvent(Type.PLACED, order.getOrderId(), outletId, order.getTokenNumber(),
+                null, order.getStatus(), order.getCreatedAt(), order.getCreatedAt(), null, order.getStatusVersion(),
+                order);
+    }
+
+    public static OrderChangeEvent statusChanged(Long orderId, Long outletId, String tokenNumber,
+            OrderStatus previousStatus, OrderStatus status, LocalDateTime createdAt, LocalDateTime changedAt,
+            LocalDateTime previousStatusSince, long version) {
+        return new OrderChangeEvent(Type.STATUS_CHANGED, orderId, outletId, tokenNumber,
+                previousStatus, status, createdAt, changedAt, previousStatusSince, version, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public String getTokenNumber() {
+        return tokenNumber;
+    }
+
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public LocalDateTime getPreviousStatusSince() {
+        return previousStatusSince;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public OrderResponse getOrder() {
+        return order;
+    }
+}
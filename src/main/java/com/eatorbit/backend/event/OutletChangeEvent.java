@@ -0,0 +1,18 @@
+package com.eatorbit.backend.event;
+
+/**
+ * Published by OutletService whenever an outlet row is created, changed or deleted.
+ * OutletService drops its serialized outlet list once the surrounding transaction commits.
+ */
+public class OutletChangeEvent {
+
+    private final Long outletId;
+
+    public OutletChangeEvent(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+}
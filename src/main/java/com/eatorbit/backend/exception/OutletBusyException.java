@@ -0,0 +1,17 @@
+package com.eatorbit.backend.exception;
+
+// Placement refused by admission control; mapped to 429 with a Retry-After header
+public class OutletBusyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public OutletBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
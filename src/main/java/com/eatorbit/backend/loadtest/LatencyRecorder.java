@@ -0,0 +1,87 @@
+package com.eatorbit.backend.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint latency samples for a load run. Samples are kept exactly (a
+ * run is bounded by its scenario size) so p99.9 is a real observation rather
+ * than a bucket estimate.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean ok) {
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).add(nanos, ok);
+    }
+
+    List<Row> report(long elapsedNanos) {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        List<Row> rows = new ArrayList<>();
+        for (String name : new TreeMap<>(endpoints).keySet()) {
+            rows.add(endpoints.get(name).toRow(name, seconds));
+        }
+        return rows;
+    }
+
+    private static final class Endpoint {
+        private long[] samples = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long nanos, boolean ok) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized Row toRow(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return new Row(name, count, errors, count / seconds,
+                    millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 0.999),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        // Nearest-rank percentile
+        private static double millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, Math.min(rank, sorted.length) - 1)] / 1e6;
+        }
+    }
+
+    static final class Row {
+        final String endpoint;
+        final int count;
+        final int errors;
+        final double throughput;
+        final double p50Ms;
+        final double p99Ms;
+        final double p999Ms;
+        final double maxMs;
+
+        Row(String endpoint, int count, int errors, double throughput,
+                double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+            this.endpoint = endpoint;
+            this.count = count;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.p999Ms = p999Ms;
+            this.maxMs = maxMs;
+        }
+    }
+}
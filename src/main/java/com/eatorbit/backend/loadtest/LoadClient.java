@@ -0,0 +1,114 @@
+package com.eatorbit.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin JSON-over-HTTP client used by the load scenarios. Every call is timed
+ * and filed under a route label (e.g. "GET /api/outlets/{id}/menu") so the
+ * report groups by endpoint rather than by concrete URL.
+ */
+class LoadClient {
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder recorder;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    LoadClient(String baseUrl, ObjectMapper objectMapper, LatencyRecorder recorder, Duration timeout) {
+        // HTTP/1.1 matches what browsers and the vendor tablets use against Tomcat
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    JsonNode get(String route, String path, String token) {
+        return send(route, "GET", path, null, token, Map.of());
+    }
+
+    JsonNode post(String route, String path, Object body, String token) {
+        return send(route, "POST", path, body, token, Map.of());
+    }
+
+    JsonNode put(String route, String path, Object body, String token) {
+        return send(route, "PUT", path, body, token, Map.of());
+    }
+
+    // Body size in bytes as received, without parsing it (it may be gzip); -1 on any non-2xx status or I/O failure
+    int fetch(String route, String path, String token, Map<String, String> headers) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(timeout)
+                    .header("Accept", "application/json")
+                    .GET();
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            headers.forEach(request::header);
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            ok = response.statusCode() >= 200 && response.statusCode() < 300;
+            return ok ? response.body().length : -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        } finally {
+            recorder.record(route, System.nanoTime() - start, ok);
+        }
+    }
+
+    /**
+     * Returns the parsed body, or null on any non-2xx status or I/O failure.
+     * Failures are recorded against the route either way.
+     */
+    JsonNode send(String route, String method, String path, Object body, String token, Map<String, String> headers) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(timeout)
+                    .header("Accept", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            headers.forEach(request::header);
+            if (body != null) {
+                request.header("Content-Type", "application/json");
+                request.method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            ok = response.statusCode() >= 200 && response.statusCode() < 300;
+            if (!ok) {
+                return null;
+            }
+            byte[] payload = response.body();
+            return payload.length == 0 ? objectMapper.nullNode() : objectMapper.readTree(payload);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        } finally {
+            recorder.record(route, System.nanoTime() - start, ok);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.eatorbit.backend.loadtest;
+
+public enum LoadScenario {
+    // Browse, fill a cart, place, then track while vendors work the queue
+    LUNCH_RUSH,
+    // Read-only: outlet list and menus, no orders
+    MENU_BROWSE,
+    // In-process: time and count the statements of placeOrder alone
+    PLACE_ORDER,
+    // Bytes allocated per menu / outlet list response, Jackson per request against pre-serialized payloads
+    MENU_PAYLOAD
+}
@@ -0,0 +1,208 @@
+package com.eatorbit.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives a load scenario against this instance once it is accepting traffic
+ * (or against eatorbit.loadtest.base-url), then prints throughput and
+ * p50/p99/p99.9 per endpoint. Only active under the "loadtest" profile; pair
+ * it with "embedded" to run without MySQL:
+ *
+ * mvn -Ploadtest spring-boot:run -Dspring-boot.run.profiles=embedded,loadtest
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestRunner {
+
+    private final LoadTestSettings settings;
+    private final PlaceOrderBenchmark placeOrderBenchmark;
+    private final MenuPayloadBenchmark menuPayloadBenchmark;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    public LoadTestRunner(LoadTestSettings settings, PlaceOrderBenchmark placeOrderBenchmark,
+            MenuPayloadBenchmark menuPayloadBenchmark, ObjectMapper objectMapper,
+            ConfigurableApplicationContext context) {
+        this.settings = settings;
+        this.placeOrderBenchmark = placeOrderBenchmark;
+        this.menuPayloadBenchmark = menuPayloadBenchmark;
+        this.objectMapper = objectMapper;
+        this.context = context;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        // Off the startup thread so the context finishes publishing its ready event first
+        Thread driver = new Thread(this::runAndReport, "loadtest-driver");
+        driver.start();
+    }
+
+    private void runAndReport() {
+        int exitCode;
+        try {
+            exitCode = runScenario() ? 0 : 1;
+        } catch (Exception e) {
+            System.err.println("WARNING: Load test aborted: " + e.getMessage());
+            exitCode = 2;
+        }
+        if (settings.exitOnFinish) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private boolean runScenario() throws Exception {
+        String baseUrl = settings.baseUrl.isBlank()
+                ? "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                : settings.baseUrl;
+        Duration timeout = Duration.ofSeconds(settings.requestTimeoutSeconds);
+        LatencyRecorder recorder = new LatencyRecorder();
+        LoadClient setupClient = new LoadClient(baseUrl, objectMapper, new LatencyRecorder(), timeout);
+        LoadClient client = new LoadClient(baseUrl, objectMapper, recorder, timeout);
+
+        // Unique per run so repeated runs against a persistent database do not collide
+        String runTag = Long.toString(System.currentTimeMillis(), 36);
+        LunchRushScenario scenario = new LunchRushScenario(setupClient, client, settings, runTag);
+
+        System.out.println("DEBUG: Load test seeding " + settings.outlets + " outlets and " + settings.customers
+                + " customers against " + baseUrl);
+        scenario.seed();
+
+        System.out.println("DEBUG: Load test running " + settings.scenario + " with " + settings.concurrency
+                + " virtual users");
+        long start = System.nanoTime();
+        PlaceOrderBenchmark.Result bench = null;
+        List<MenuPayloadBenchmark.Row> payloadRows = null;
+        if (settings.scenario == LoadScenario.PLACE_ORDER) {
+            bench = placeOrderBenchmark.run(scenario.getCustomerEmails(), scenario.getFoodIds(), settings, recorder);
+        } else if (settings.scenario == LoadScenario.MENU_PAYLOAD) {
+            Long outletId = scenario.getFoodIds().keySet().iterator().next();
+            payloadRows = menuPayloadBenchmark.run(client, outletId, scenario.getOwnerToken(outletId),
+                    scenario.getCustomerToken(0), settings);
+        } else {
+            scenario.run();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<LatencyRecorder.Row> rows = recorder.report(elapsed);
+        int requests = 0;
+        int errors = 0;
+        for (LatencyRecorder.Row row : rows) {
+            requests += row.count;
+            errors += row.errors;
+        }
+        double errorPercent = requests == 0 ? 0 : errors * 100.0 / requests;
+
+        System.out.println(format(rows, elapsed, requests, errorPercent, scenario));
+        if (bench != null) {
+            System.out.println(String.format("placeOrder: %d orders, %.1f JDBC statements per order%n",
+                    bench.orders, bench.statementsPerOrder()));
+        }
+        if (payloadRows != null) {
+            System.out.println(formatPayload(payloadRows));
+        }
+        if (!settings.reportFile.isBlank()) {
+            writeReport(rows, elapsed, requests, errorPercent, scenario, bench, payloadRows);
+        }
+        return errorPercent <= settings.maxErrorPercent;
+    }
+
+    private String format(List<LatencyRecorder.Row> rows, long elapsed, int requests, double errorPercent,
+            LunchRushScenario scenario) {
+        double seconds = elapsed / 1e9;
+        StringBuilder out = new StringBuilder();
+        if (settings.scenario == LoadScenario.PLACE_ORDER || settings.scenario == LoadScenario.MENU_PAYLOAD) {
+            out.append(String.format("%n==== Load test %s: seed %d, %d orders x %d lines after %d warm-up, 1 thread ====%n",
+                    settings.scenario, settings.seed, settings.benchOrders, settings.benchLines, settings.benchWarmup));
+        } else {
+            out.append(String.format("%n==== Load test %s: seed %d, %d outlets, %d customers x %d orders, %d VUs ====%n",
+                    settings.scenario, settings.seed, settings.outlets, settings.customers, settings.ordersPerCustomer,
+                    settings.concurrency));
+        }
+        out.append(String.format("%-34s %8s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (LatencyRecorder.Row row : rows) {
+            out.append(String.format("%-34s %8d %6d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.endpoint, row.count, row.errors, row.throughput, row.p50Ms, row.p99Ms, row.p999Ms,
+                    row.maxMs));
+        }
+        out.append(String.format("total: %d requests in %.1fs (%.1f req/s), %.2f%% errors, %d orders placed, %d delivered%n",
+                requests, seconds, requests / Math.max(seconds, 1e-9), errorPercent, scenario.getOrdersPlaced(),
+                scenario.getOrdersDelivered()));
+        return out.toString();
+    }
+
+    private String formatPayload(List<MenuPayloadBenchmark.Row> payloadRows) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-46s %10s %16s %12s%n", "response", "body B", "allocated B/req", "cpu us/req"));
+        for (MenuPayloadBenchmark.Row row : payloadRows) {
+            out.append(String.format("%-46s %10d %16d %12.1f%n", row.name, row.bodyBytes, row.allocatedPerRequest,
+                    row.cpuNanosPerRequest / 1000.0));
+        }
+        return out.toString();
+    }
+
+    private void writeReport(List<LatencyRecorder.Row> rows, long elapsed, int requests, double errorPercent,
+            LunchRushScenario scenario, PlaceOrderBenchmark.Result bench,
+            List<MenuPayloadBenchmark.Row> payloadRows) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", settings.scenario);
+        report.put("seed", settings.seed);
+        report.put("outlets", settings.outlets);
+        report.put("customers", settings.customers);
+        report.put("ordersPerCustomer", settings.ordersPerCustomer);
+        report.put("concurrency", settings.concurrency);
+        report.put("elapsedSeconds", elapsed / 1e9);
+        report.put("requests", requests);
+        report.put("errorPercent", errorPercent);
+        report.put("ordersPlaced", scenario.getOrdersPlaced());
+        report.put("ordersDelivered", scenario.getOrdersDelivered());
+        if (bench != null) {
+            report.put("statementsPerOrder", bench.statementsPerOrder());
+        }
+        if (payloadRows != null) {
+            List<Map<String, Object>> payloads = new ArrayList<>();
+            for (MenuPayloadBenchmark.Row row : payloadRows) {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("response", row.name);
+                payload.put("bodyBytes", row.bodyBytes);
+                payload.put("allocatedBytesPerRequest", row.allocatedPerRequest);
+                payload.put("cpuNanosPerRequest", row.cpuNanosPerRequest);
+                payloads.add(payload);
+            }
+            report.put("payloads", payloads);
+        }
+
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (LatencyRecorder.Row row : rows) {
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("endpoint", row.endpoint);
+            endpoint.put("count", row.count);
+            endpoint.put("errors", row.errors);
+            endpoint.put("throughput", row.throughput);
+            endpoint.put("p50Ms", row.p50Ms);
+            endpoint.put("p99Ms", row.p99Ms);
+            endpoint.put("p999Ms", row.p999Ms);
+            endpoint.put("maxMs", row.maxMs);
+            endpoints.add(endpoint);
+        }
+        report.put("endpoints", endpoints);
+
+        objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(new File(settings.reportFile), report);
+        System.out.println("DEBUG: Load test report written to " + settings.reportFile);
+    }
+}
@@ -0,0 +1,87 @@
+package com.eatorbit.backend.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Knobs for a load run, bound from eatorbit.loadtest.*. The same seed and
+ * sizes replay the same per-customer request sequence.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestSettings {
+
+    final LoadScenario scenario;
+    final String baseUrl;
+    final long seed;
+    final int outlets;
+    final int foodsPerOutlet;
+    final int customers;
+    final int ordersPerCustomer;
+    final int concurrency;
+    final int rampUpSeconds;
+    final int thinkTimeMs;
+    final int trackPolls;
+    final int vendorPollMs;
+    final int drainSeconds;
+    final int requestTimeoutSeconds;
+    final String adminEmail;
+    final String adminPassword;
+    final int benchOrders;
+    final int benchLines;
+    final int benchWarmup;
+    final int benchMenuFoods;
+    final double maxErrorPercent;
+    final String reportFile;
+    final boolean exitOnFinish;
+
+    public LoadTestSettings(
+            @Value("${eatorbit.loadtest.scenario:LUNCH_RUSH}") LoadScenario scenario,
+            @Value("${eatorbit.loadtest.base-url:}") String baseUrl,
+            @Value("${eatorbit.loadtest.seed:42}") long seed,
+            @Value("${eatorbit.loadtest.outlets:8}") int outlets,
+            @Value("${eatorbit.loadtest.foods-per-outlet:12}") int foodsPerOutlet,
+            @Value("${eatorbit.loadtest.customers:200}") int customers,
+            @Value("${eatorbit.loadtest.orders-per-customer:2}") int ordersPerCustomer,
+            @Value("${eatorbit.loadtest.concurrency:32}") int concurrency,
+            @Value("${eatorbit.loadtest.ramp-up-seconds:10}") int rampUpSeconds,
+            @Value("${eatorbit.loadtest.think-time-ms:200}") int thinkTimeMs,
+            @Value("${eatorbit.loadtest.track-polls:3}") int trackPolls,
+            @Value("${eatorbit.loadtest.vendor-poll-ms:500}") int vendorPollMs,
+            @Value("${eatorbit.loadtest.drain-seconds:60}") int drainSeconds,
+            @Value("${eatorbit.loadtest.request-timeout-seconds:30}") int requestTimeoutSeconds,
+            @Value("${eatorbit.loadtest.admin-email:abc@gmail.com}") String adminEmail,
+            @Value("${eatorbit.loadtest.admin-password:123}") String adminPassword,
+            @Value("${eatorbit.loadtest.bench-orders:500}") int benchOrders,
+            @Value("${eatorbit.loadtest.bench-lines:6}") int benchLines,
+            @Value("${eatorbit.loadtest.bench-warmup:50}") int benchWarmup,
+            @Value("${eatorbit.loadtest.bench-menu-foods:300}") int benchMenuFoods,
+            @Value("${eatorbit.loadtest.max-error-percent:1.0}") double maxErrorPercent,
+            @Value("${eatorbit.loadtest.report-file:}") String reportFile,
+            @Value("${eatorbit.loadtest.exit-on-finish:true}") boolean exitOnFinish) {
+        this.scenario = scenario;
+        this.baseUrl = baseUrl;
+        this.seed = seed;
+        this.outlets = Math.max(1, outlets);
+        this.foodsPerOutlet = Math.max(1, foodsPerOutlet);
+        this.customers = Math.max(1, customers);
+        this.ordersPerCustomer = Math.max(1, ordersPerCustomer);
+        this.concurrency = Math.max(1, concurrency);
+        this.rampUpSeconds = Math.max(0, rampUpSeconds);
+        this.thinkTimeMs = Math.max(0, thinkTimeMs);
+        this.trackPolls = Math.max(0, trackPolls);
+        this.vendorPollMs = Math.max(10, vendorPollMs);
+        this.drainSeconds = Math.max(0, drainSeconds);
+        this.requestTimeoutSeconds = Math.max(1, requestTimeoutSeconds);
+        this.adminEmail = adminEmail;
+        this.adminPassword = adminPassword;
+        this.benchOrders = Math.max(1, benchOrders);
+        this.benchLines = Math.max(1, benchLines);
+        this.benchWarmup = Math.max(0, benchWarmup);
+        this.benchMenuFoods = Math.max(1, benchMenuFoods);
+        this.maxErrorPercent = maxErrorPercent;
+        this.reportFile = reportFile;
+        this.exitOnFinish = exitOnFinish;
+    }
+}
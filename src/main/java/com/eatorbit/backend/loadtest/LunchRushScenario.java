@@ -0,0 +1,311 @@
+package com.eatorbit.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Food-court lunch rush against the real HTTP endpoints.
+ *
+ * Seeding registers and approves one owner per stall, builds each menu and
+ * registers the customers; none of that is timed. The measured phase then
+ * ramps customers in over ramp-up-seconds, each browsing outlets, opening a
+ * menu (popular stalls are picked more often), filling a cart, placing an
+ * order and polling its token, while one vendor per stall works the kitchen
+ * queue. Every customer draws from its own seeded random, so the request
+ * sequence does not depend on thread scheduling.
+ */
+class LunchRushScenario {
+
+    private static final String[] CUISINES = { "South Indian", "Chinese", "Punjabi", "Beverages", "Snacks",
+            "Desserts" };
+
+    private final LoadClient setupClient;
+    private final LoadClient client;
+    private final LoadTestSettings settings;
+    private final String runTag;
+
+    private final List<Long> outletIds = new ArrayList<>();
+    private final Map<Long, String> ownerTokens = new LinkedHashMap<>();
+    private final Map<Long, List<Long>> foodIds = new LinkedHashMap<>();
+    private final List<String> customerTokens = new ArrayList<>();
+
+    private final AtomicInteger ordersPlaced = new AtomicInteger();
+    private final AtomicInteger ordersDelivered = new AtomicInteger();
+
+    LunchRushScenario(LoadClient setupClient, LoadClient client, LoadTestSettings settings, String runTag) {
+        this.setupClient = setupClient;
+        this.client = client;
+        this.settings = settings;
+        this.runTag = runTag;
+    }
+
+    Map<Long, List<Long>> getFoodIds() {
+        return foodIds;
+    }
+
+    List<String> getCustomerEmails() {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < settings.customers; i++) {
+            emails.add(email("cust", i));
+        }
+        return emails;
+    }
+
+    String getOwnerToken(Long outletId) {
+        return ownerTokens.get(outletId);
+    }
+
+    String getCustomerToken(int index) {
+        return customerTokens.get(index);
+    }
+
+    int getOrdersPlaced() {
+        return ordersPlaced.get();
+    }
+
+    int getOrdersDelivered() {
+        return ordersDelivered.get();
+    }
+
+    void seed() throws Exception {
+        SplittableRandom random = new SplittableRandom(settings.seed);
+        String adminToken = login(settings.adminEmail, settings.adminPassword);
+
+        for (int i = 0; i < settings.outlets; i++) {
+            register(email("owner", i), "OUTLET_OWNER");
+        }
+        JsonNode pending = require(setupClient.get("setup", "/api/admin/pending-vendors", adminToken),
+                "list pending vendors");
+        for (JsonNode vendor : pending) {
+            if (vendor.path("email").asText().startsWith("lt-" + runTag + "-")) {
+                require(setupClient.post("setup", "/api/admin/vendors/" + vendor.path("userId").asLong() + "/approve",
+                        null, adminToken), "approve vendor");
+            }
+        }
+
+        for (int i = 0; i < settings.outlets; i++) {
+            String ownerToken = login(email("owner", i), "loadtest");
+            Map<String, Object> outlet = new LinkedHashMap<>();
+            outlet.put("outletName", "Stall " + (i + 1));
+            outlet.put("cuisineType", CUISINES[i % CUISINES.length]);
+            outlet.put("open", true);
+            long outletId = require(setupClient.post("setup", "/api/owner/outlets", outlet, ownerToken),
+                    "create outlet").path("outletId").asLong();
+
+            long[] categoryIds = new long[2];
+            for (int c = 0; c < categoryIds.length; c++) {
+                categoryIds[c] = require(setupClient.post("setup", "/api/owner/categories",
+                        Map.of("outletId", outletId, "name", c == 0 ? "Mains" : "Sides"), ownerToken),
+                        "create category").path("categoryId").asLong();
+            }
+            List<Long> foods = new ArrayList<>();
+            for (int f = 0; f < settings.foodsPerOutlet; f++) {
+                Map<String, Object> food = new LinkedHashMap<>();
+                food.put("outletId", outletId);
+                food.put("categoryId", categoryIds[f % categoryIds.length]);
+                food.put("foodName", "Dish " + (i + 1) + "." + (f + 1));
+                food.put("description", "Load test item");
+                food.put("price", 40 + random.nextInt(200));
+                food.put("available", true);
+                food.put("veg", random.nextBoolean());
+                foods.add(require(setupClient.post("setup", "/api/owner/foods", food, ownerToken), "create food")
+                        .path("foodId").asLong());
+            }
+            outletIds.add(outletId);
+            foodIds.put(outletId, foods);
+            ownerTokens.put(outletId, ownerToken);
+        }
+
+        // Password hashing dominates customer signup, so spread it over the pool
+        ExecutorService pool = Executors.newFixedThreadPool(settings.concurrency);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < settings.customers; i++) {
+                int customer = i;
+                tokens.add(pool.submit(() -> {
+                    register(email("cust", customer), "CUSTOMER");
+                    return login(email("cust", customer), "loadtest");
+                }));
+            }
+            for (Future<String> token : tokens) {
+                customerTokens.add(token.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    void run() throws Exception {
+        boolean placesOrders = settings.scenario == LoadScenario.LUNCH_RUSH;
+        AtomicBoolean customersDone = new AtomicBoolean();
+
+        List<Thread> vendors = new ArrayList<>();
+        if (placesOrders) {
+            for (Long outletId : outletIds) {
+                Thread vendor = new Thread(() -> runVendor(outletId, customersDone), "loadtest-vendor-" + outletId);
+                vendor.start();
+                vendors.add(vendor);
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(settings.concurrency);
+        try {
+            List<Future<?>> users = new ArrayList<>();
+            for (int vu = 0; vu < settings.concurrency; vu++) {
+                int virtualUser = vu;
+                users.add(pool.submit(() -> {
+                    sleep(settings.rampUpSeconds * 1000L * virtualUser / settings.concurrency);
+                    for (int c = virtualUser; c < settings.customers; c += settings.concurrency) {
+                        runCustomer(c, placesOrders);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        } finally {
+            pool.shutdownNow();
+            customersDone.set(true);
+        }
+
+        for (Thread vendor : vendors) {
+            vendor.join();
+        }
+    }
+
+    private void runCustomer(int customer, boolean placesOrders) {
+        SplittableRandom random = new SplittableRandom(settings.seed * 31 + customer);
+        String token = customerTokens.get(customer);
+
+        for (int n = 0; n < settings.ordersPerCustomer; n++) {
+            client.get("GET /api/outlets", "/api/outlets", token);
+            think(random);
+
+            // Squaring skews picks toward the first few stalls, like the queue at the popular counters
+            double pick = random.nextDouble();
+            long outletId = outletIds.get((int) (pick * pick * outletIds.size()));
+            JsonNode menu = client.get("GET /api/outlets/{id}/menu", "/api/outlets/" + outletId + "/menu", token);
+            think(random);
+            if (!placesOrders || menu == null || menu.size() == 0) {
+                continue;
+            }
+
+            int lines = 1 + random.nextInt(3);
+            for (int l = 0; l < lines; l++) {
+                JsonNode food = menu.get(random.nextInt(menu.size()));
+                client.post("POST /api/cart/add", "/api/cart/add",
+                        Map.of("foodId", food.path("foodId").asLong(), "quantity", 1 + random.nextInt(2)), token);
+            }
+            think(random);
+
+            String idempotencyKey = "lt-" + runTag + "-" + customer + "-" + n;
+            JsonNode order = client.send("POST /api/order/place", "POST", "/api/order/place",
+                    Map.of("paymentMethod", "UPI"), token, Map.of("Idempotency-Key", idempotencyKey));
+            if (order == null) {
+                continue;
+            }
+            ordersPlaced.incrementAndGet();
+
+            String tokenNumber = order.path("tokenNumber").asText();
+            for (int p = 0; p < settings.trackPolls; p++) {
+                think(random);
+                client.get("GET /api/order/track/{token}", "/api/order/track/" + tokenNumber, token);
+            }
+        }
+    }
+
+    private void runVendor(Long outletId, AtomicBoolean customersDone) {
+        String token = ownerTokens.get(outletId);
+        long drainDeadline = Long.MAX_VALUE;
+
+        while (true) {
+            if (customersDone.get() && drainDeadline == Long.MAX_VALUE) {
+                drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.drainSeconds);
+            }
+            JsonNode board = client.get("GET /api/owner/orders/queue", "/api/owner/orders/queue?outletId=" + outletId,
+                    token);
+            boolean idle = board == null || board.size() == 0;
+            if ((idle && customersDone.get()) || System.nanoTime() > drainDeadline) {
+                return;
+            }
+
+            if (!idle) {
+                // Kitchen moves work forward in batches; handover at the counter is one order at a time
+                List<Map<String, Object>> transitions = new ArrayList<>();
+                List<Long> ready = new ArrayList<>();
+                for (JsonNode entry : board) {
+                    long orderId = entry.path("orderId").asLong();
+                    switch (entry.path("status").asText()) {
+                        case "PLACED" -> transitions.add(Map.of("orderId", orderId, "status", "PREPARING"));
+                        case "PREPARING" -> transitions.add(Map.of("orderId", orderId, "status", "READY"));
+                        case "READY" -> ready.add(orderId);
+                        default -> {
+                        }
+                    }
+                }
+                if (!transitions.isEmpty()) {
+                    client.put("PUT /api/owner/orders/status", "/api/owner/orders/status",
+                            Map.of("outletId", outletId, "transitions", transitions), token);
+                }
+                for (Long orderId : ready) {
+                    if (client.put("PUT /api/owner/orders/{id}/status", "/api/owner/orders/" + orderId + "/status",
+                            Map.of("status", "DELIVERED"), token) != null) {
+                        ordersDelivered.incrementAndGet();
+                    }
+                }
+            }
+            sleep(settings.vendorPollMs);
+        }
+    }
+
+    private void register(String email, String role) {
+        require(setupClient.post("setup", "/api/auth/register",
+                Map.of("email", email, "password", "loadtest", "fullName", "Load Test", "role", role), null),
+                "register " + email);
+    }
+
+    private String login(String email, String password) {
+        return require(setupClient.post("setup", "/api/auth/login", Map.of("email", email, "password", password), null),
+                "log in as " + email).path("token").asText();
+    }
+
+    private String email(String kind, int index) {
+        return "lt-" + runTag + "-" + kind + index + "@loadtest.local";
+    }
+
+    private void think(SplittableRandom random) {
+        if (settings.thinkTimeMs > 0) {
+            sleep(settings.thinkTimeMs / 2 + random.nextInt(settings.thinkTimeMs));
+        }
+    }
+
+    private static JsonNode require(JsonNode response, String step) {
+        if (response == null) {
+            throw new IllegalStateException("Load test setup failed to " + step);
+        }
+        return response;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
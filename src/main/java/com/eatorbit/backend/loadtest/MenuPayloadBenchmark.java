@@ -0,0 +1,189 @@
+package com.eatorbit.backend.loadtest;
+
+import com.eatorbit.backend.dto.OutletDto;
+import com.eatorbit.backend.service.JsonPayload;
+import com.eatorbit.backend.service.MenuService;
+import com.eatorbit.backend.service.OutletService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes allocated and CPU time per response for the menu and the outlet list, Jackson per request against the
+ * pre-serialized JsonPayload. The in-process cases measure the body write alone on this thread; the HTTP
+ * cases sum the allocations of Tomcat's request threads, so they include everything the server does for
+ * the request. The Jackson HTTP case is the owner food list, which serializes the same cached menu objects.
+ */
+@Component
+@Profile("loadtest")
+public class MenuPayloadBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final MenuService menuService;
+    private final OutletService outletService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTx;
+
+    public MenuPayloadBenchmark(MenuService menuService, OutletService outletService, ObjectMapper objectMapper,
+            PlatformTransactionManager txManager) {
+        this.menuService = menuService;
+        this.outletService = outletService;
+        this.objectMapper = objectMapper;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    List<Row> run(LoadClient client, Long outletId, String ownerToken, String customerToken,
+            LoadTestSettings settings) throws IOException {
+        growMenu(client, outletId, ownerToken, settings);
+        MenuService.CachedMenu menu = menuService.getCachedMenu(outletId);
+        JsonPayload outlets = outletService.getAllOutletsPayload();
+        List<OutletDto> outletObjects = readTx.execute(status -> outletService.getAllOutlets());
+        int n = settings.benchOrders;
+        // Jackson and GZIPOutputStream close their target, which OutputStream.nullOutputStream() does not survive
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        List<Row> rows = new ArrayList<>();
+        rows.add(inProcess("menu, Jackson", menu.getPayload().getJson().length, settings,
+                () -> objectMapper.writeValue(sink, menu.getItems())));
+        rows.add(inProcess("menu, pre-serialized", menu.getPayload().getJson().length, settings,
+                () -> sink.write(menu.getPayload().getJson())));
+        rows.add(inProcess("menu, Jackson + gzip", menu.getPayload().getGzip().length, settings, () -> {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(sink)) {
+                objectMapper.writeValue(gzip, menu.getItems());
+            }
+        }));
+        rows.add(inProcess("menu, pre-gzipped", menu.getPayload().getGzip().length, settings,
+                () -> sink.write(menu.getPayload().getGzip())));
+        rows.add(inProcess("outlets, Jackson", outlets.getJson().length, settings,
+                () -> objectMapper.writeValue(sink, outletObjects)));
+        rows.add(inProcess("outlets, pre-serialized", outlets.getJson().length, settings,
+                () -> sink.write(outlets.getJson())));
+
+        Map<String, String> plain = Map.of();
+        Map<String, String> gzip = Map.of("Accept-Encoding", "gzip");
+        rows.add(overHttp("GET /api/owner/foods (Jackson)", settings, n,
+                () -> client.fetch("GET /api/owner/foods", "/api/owner/foods?outletId=" + outletId, ownerToken, plain)));
+        rows.add(overHttp("GET /api/outlets/{id}/menu", settings, n,
+                () -> client.fetch("GET /api/outlets/{id}/menu", "/api/outlets/" + outletId + "/menu",
+                        customerToken, plain)));
+        rows.add(overHttp("GET /api/outlets/{id}/menu (gzip)", settings, n,
+                () -> client.fetch("GET /api/outlets/{id}/menu gzip", "/api/outlets/" + outletId + "/menu",
+                        customerToken, gzip)));
+        rows.add(overHttp("GET /api/outlets", settings, n,
+                () -> client.fetch("GET /api/outlets", "/api/outlets", customerToken, plain)));
+        return rows;
+    }
+
+    private void growMenu(LoadClient client, Long outletId, String ownerToken, LoadTestSettings settings) {
+        int have = menuService.getMenu(outletId).size();
+        Long categoryId = menuService.getMenu(outletId).get(0).getCategoryId();
+        for (int f = have; f < settings.benchMenuFoods; f++) {
+            Map<String, Object> food = new LinkedHashMap<>();
+            food.put("outletId", outletId);
+            food.put("categoryId", categoryId);
+            food.put("foodName", "Bench dish " + (f + 1));
+            food.put("description", "Menu payload benchmark item with a description of typical length");
+            food.put("price", 40 + f % 200);
+            food.put("available", true);
+            food.put("veg", f % 2 == 0);
+            food.put("imageUrls", List.of("https://img.eatorbit.local/food/" + (f + 1) + ".jpg"));
+            if (client.post("setup", "/api/owner/foods", food, ownerToken) == null) {
+                throw new IllegalStateException("Load test setup failed to create food");
+            }
+        }
+    }
+
+    private Row inProcess(String name, int bodyBytes, LoadTestSettings settings, Body body) throws IOException {
+        for (int i = 0; i < settings.benchWarmup; i++) {
+            body.write();
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        for (int i = 0; i < settings.benchOrders; i++) {
+            body.write();
+        }
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+        return new Row("in-process: " + name, bodyBytes, allocated / settings.benchOrders,
+                cpu / settings.benchOrders);
+    }
+
+    private Row overHttp(String name, LoadTestSettings settings, int n, Request request) {
+        for (int i = 0; i < settings.benchWarmup; i++) {
+            request.send();
+        }
+        Map<Long, long[]> before = serverThreadUsage();
+        int bodyBytes = -1;
+        for (int i = 0; i < n; i++) {
+            bodyBytes = request.send();
+        }
+        long allocated = 0;
+        long cpu = 0;
+        for (Map.Entry<Long, long[]> thread : serverThreadUsage().entrySet()) {
+            long[] start = before.getOrDefault(thread.getKey(), new long[2]);
+            allocated += thread.getValue()[0] - start[0];
+            cpu += thread.getValue()[1] - start[1];
+        }
+        return new Row("http: " + name, bodyBytes, allocated / n, cpu / n);
+    }
+
+    // Allocated bytes and CPU nanos so far of every Tomcat thread, by thread id; threads started later count from zero
+    private static Map<Long, long[]> serverThreadUsage() {
+        long[] ids = THREADS.getAllThreadIds();
+        ThreadInfo[] infos = THREADS.getThreadInfo(ids);
+        long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+        Map<Long, long[]> usage = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] != null && infos[i].getThreadName().startsWith("http-nio-") && bytes[i] >= 0) {
+                usage.put(ids[i], new long[]{bytes[i], Math.max(0, THREADS.getThreadCpuTime(ids[i]))});
+            }
+        }
+        return usage;
+    }
+
+    private interface Body {
+        void write() throws IOException;
+    }
+
+    private interface Request {
+        int send();
+    }
+
+    static final class Row {
+        final String name;
+        final int bodyBytes;
+        final long allocatedPerRequest;
+        final long cpuNanosPerRequest;
+
+        Row(String name, int bodyBytes, long allocatedPerRequest, long cpuNanosPerRequest) {
+            this.name = name;
+            this.bodyBytes = bodyBytes;
+            this.allocatedPerRequest = allocatedPerRequest;
+            this.cpuNanosPerRequest = cpuNanosPerRequest;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.eatorbit.backend.loadtest;
+
+import com.eatorbit.backend.dto.CartItemRequest;
+import com.eatorbit.backend.dto.OrderRequest;
+import com.eatorbit.backend.model.IngredientCategory;
+import com.eatorbit.backend.model.IngredientItem;
+import com.eatorbit.backend.model.PaymentMethod;
+import com.eatorbit.backend.model.User;
+import com.eatorbit.backend.repository.IngredientCategoryRepository;
+import com.eatorbit.backend.repository.OutletRepository;
+import com.eatorbit.backend.repository.UserRepository;
+import com.eatorbit.backend.service.CartService;
+import com.eatorbit.backend.service.CartStore;
+import com.eatorbit.backend.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * In-process benchmark of OrderService.placeOrder alone: carts are filled beforehand (each add is
+ * timed too), then each placement is timed and its JDBC statements counted from Hibernate statistics.
+ * Runs on one thread so the statement delta belongs to that placement only.
+ */
+@Component
+@Profile("loadtest")
+public class PlaceOrderBenchmark {
+
+    private static final List<String> INGREDIENTS = List.of("Extra onion", "Less spicy", "No garlic", "Extra cheese");
+
+    private final CartService cartService;
+    private final CartStore cartStore;
+    private final OrderService orderService;
+    private final UserRepository userRepository;
+    private final OutletRepository outletRepository;
+    private final IngredientCategoryRepository ingredientCategoryRepository;
+    private final Statistics statistics;
+
+    public PlaceOrderBenchmark(CartService cartService, CartStore cartStore, OrderService orderService, UserRepository userRepository,
+            OutletRepository outletRepository, IngredientCategoryRepository ingredientCategoryRepository,
+            EntityManagerFactory entityManagerFactory) {
+        this.cartService = cartService;
+        this.cartStore = cartStore;
+        this.orderService = orderService;
+        this.userRepository = userRepository;
+        this.outletRepository = outletRepository;
+        this.ingredientCategoryRepository = ingredientCategoryRepository;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    Result run(List<String> customerEmails, Map<Long, List<Long>> foodIdsByOutlet, LoadTestSettings settings,
+            LatencyRecorder recorder) {
+        if (!statistics.isStatisticsEnabled()) {
+            System.err.println("WARNING: hibernate.generate_statistics is off; statement counts will read 0");
+        }
+        List<User> customers = new ArrayList<>();
+        for (String email : customerEmails) {
+            customers.add(userRepository.findByEmail(email).orElseThrow());
+        }
+        List<List<Long>> menus = new ArrayList<>(foodIdsByOutlet.values());
+        for (Long outletId : foodIdsByOutlet.keySet()) {
+            seedIngredients(outletId);
+        }
+
+        SplittableRandom random = new SplittableRandom(settings.seed);
+        OrderRequest request = new OrderRequest();
+        request.setPaymentMethod(PaymentMethod.UPI);
+        Result result = new Result();
+
+        int total = settings.benchWarmup + settings.benchOrders;
+        for (int i = 0; i < total; i++) {
+            User customer = customers.get(i % customers.size());
+            List<Long> menu = menus.get(random.nextInt(menus.size()));
+            int lines = Math.min(settings.benchLines, menu.size());
+            int first = random.nextInt(menu.size());
+            for (int l = 0; l < lines; l++) {
+                CartItemRequest line = new CartItemRequest();
+                line.setFoodId(menu.get((first + l) % menu.size()));
+                line.setQuantity(1 + random.nextInt(2));
+                line.setSelectedIngredients(List.of("extra onion", "less spicy"));
+                long addStart = System.nanoTime();
+                cartService.addItemToCart(line, customer);
+                if (i >= settings.benchWarmup) {
+                    recorder.record("CartService.addItemToCart", System.nanoTime() - addStart, true);
+                }
+            }
+
+            // Write the cart out first, as the background flush normally has by checkout, so its statements
+            // are not counted against placeOrder
+            cartStore.flush();
+            long statementsBefore = statistics.getPrepareStatementCount();
+            long start = System.nanoTime();
+            orderService.placeOrder(request, customer, null);
+            long elapsed = System.nanoTime() - start;
+            long statements = statistics.getPrepareStatementCount() - statementsBefore;
+
+            if (i >= settings.benchWarmup) {
+                recorder.record("OrderService.placeOrder (" + lines + " lines)", elapsed, true);
+                result.orders++;
+                result.statements += statements;
+            }
+        }
+        return result;
+    }
+
+    // Customisations are selected by name, so each outlet needs them in its ingredient catalogue
+    private void seedIngredients(Long outletId) {
+        IngredientCategory category = new IngredientCategory();
+        category.setOutlet(outletRepository.findById(outletId).orElseThrow());
+        category.setName("Extras");
+        for (String name : INGREDIENTS) {
+            IngredientItem item = new IngredientItem();
+            item.setCategory(category);
+            item.setName(name);
+            category.getIngredients().add(item);
+        }
+        ingredientCategoryRepository.save(category);
+    }
+
+    static final class Result {
+        int orders;
+        long statements;
+
+        double statementsPerOrder() {
+            return orders == 0 ? 0 : (double) statements / orders;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.eatorbit.backend.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_items_archive")
+public class ArchivedOrderItem {
+
+    @Id
+    @Column(name = "order_item_id")
+    private Long orderItemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private ArchivedOrder order;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "food_id", nullable = false)
+    private FoodItem food;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Same packed bytes as order_items.ingredient_ids
+    @Convert(converter = IngredientIdsConverter.class)
+    @Column(name = "ingredient_ids", length = IngredientIdsConverter.MAX_BYTES)
+    private long[] selectedIngredientIds;
+
+    @Column(name = "total_price", nullable = false)
+    private BigDecimal totalPrice;
+
+    public ArchivedOrderItem() {
+    }
+
+    public Long getOrderItemId() {
+        return orderItemId;
+    }
+
+    public ArchivedOrder getOrder() {
+        return order;
+    }
+
+    public FoodItem getFood() {
+        return food;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public long[] getSelectedIngredientIds() {
+        return selectedIngredientIds;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+}
@@ -3,11 +3,14 @@ package com.eatorbit.backend.model;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+        @Index(name = "idx_carts_updated", columnList = "updated_at")
+})
 public class Cart {
 
     @Id
@@ -29,6 +32,14 @@ public class Cart {
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> items = new ArrayList<>();
 
+    // CartStore version of the row's contents; a write-behind batch never overwrites a newer one
+    @Column(name = "state_version")
+    private Long stateVersion;
+
+    // Last write of the row by CartStore; CartSweepService deletes carts left untouched for too long
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public Cart() {
     }
 
@@ -71,4 +82,20 @@ public class Cart {
     public void setItems(List<CartItem> items) {
         this.items = items;
     }
+
+    public Long getStateVersion() {
+        return stateVersion;
+    }
+
+    public void setStateVersion(Long stateVersion) {
+        this.stateVersion = stateVersion;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -2,14 +2,16 @@ package com.eatorbit.backend.model;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
-import java.util.List;
 
 @Entity
 @Table(name = "cart_items")
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_item_ids")
+    @TableGenerator(name = "cart_item_ids", table = IdBlocks.TABLE, pkColumnName = IdBlocks.NAME_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.CART_ITEMS,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     @Column(name = "cart_item_id")
     private Long cartItemId;
 
@@ -24,10 +26,10 @@ public class CartItem {
     @Column(nullable = false)
     private Integer quantity;
 
-    @ElementCollection
-    @CollectionTable(name = "cart_item_ingredients", joinColumns = @JoinColumn(name = "cart_item_id"))
-    @Column(name = "ingredient_name")
-    private List<String> selectedIngredients;
+    // Sorted IngredientItem ids in one column; names are looked up when the cart is rendered
+    @Convert(converter = IngredientIdsConverter.class)
+    @Column(name = "ingredient_ids", length = IngredientIdsConverter.MAX_BYTES)
+    private long[] selectedIngredientIds;
 
     @Column(name = "total_price", nullable = false)
     private BigDecimal totalPrice;
@@ -67,12 +69,12 @@ public class CartItem {
         this.quantity = quantity;
     }
 
-    public List<String> getSelectedIngredients() {
-        return selectedIngredients;
+    public long[] getSelectedIngredientIds() {
+        return selectedIngredientIds;
     }
 
-    public void setSelectedIngredients(List<String> selectedIngredients) {
-        this.selectedIngredients = selectedIngredients;
+    public void setSelectedIngredientIds(long[] selectedIngredientIds) {
+        this.selectedIngredientIds = selectedIngredientIds;
     }
 
     public BigDecimal getTotalPrice() {
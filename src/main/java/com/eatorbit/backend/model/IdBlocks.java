@@ -0,0 +1,21 @@
+package com.eatorbit.backend.model;
+
+/**
+ * Shared table generator settings for the high-volume write paths (orders, order items, cart items).
+ * Hibernate reserves ids ALLOCATION_SIZE at a time from one row per entity in id_blocks, so inserts
+ * no longer need the IDENTITY round trip and can go out as JDBC batches.
+ */
+public final class IdBlocks {
+
+    public static final String TABLE = "id_blocks";
+    public static final String NAME_COLUMN = "entity_name";
+    public static final String VALUE_COLUMN = "next_id";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String ORDERS = "orders";
+    public static final String ORDER_ITEMS = "order_items";
+    public static final String CART_ITEMS = "cart_items";
+
+    private IdBlocks() {
+    }
+}
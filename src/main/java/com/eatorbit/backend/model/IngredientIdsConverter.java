@@ -0,0 +1,92 @@
+package com.eatorbit.backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Packs a line's selected IngredientItem ids into one varbinary column: the ids are sorted, de-duplicated
+ * and written as varint deltas, so a typical selection of a few ids from one outlet takes a handful of bytes.
+ * No selection is stored as null. Arrays handed to and returned by this converter are never modified in place.
+ */
+@Converter
+public class IngredientIdsConverter implements AttributeConverter<long[], byte[]> {
+
+    public static final int MAX_BYTES = 255;
+
+    @Override
+    public byte[] convertToDatabaseColumn(long[] ids) {
+        return encode(ids);
+    }
+
+    @Override
+    public long[] convertToEntityAttribute(byte[] packed) {
+        return decode(packed);
+    }
+
+    // Returns the sorted, de-duplicated form of ids, or null when there is nothing selected
+    public static long[] normalize(long[] ids) {
+        if (ids == null || ids.length == 0) {
+            return null;
+        }
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int n = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    public static byte[] encode(long[] ids) {
+        long[] sorted = normalize(ids);
+        if (sorted == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.length * 2);
+        long previous = 0;
+        for (long id : sorted) {
+            if (id <= 0) {
+                throw new IllegalArgumentException("Ingredient ids must be positive: " + id);
+            }
+            long delta = id - previous;
+            previous = id;
+            while ((delta & ~0x7FL) != 0) {
+                out.write((int) ((delta & 0x7F) | 0x80));
+                delta >>>= 7;
+            }
+            out.write((int) delta);
+        }
+        if (out.size() > MAX_BYTES) {
+            throw new IllegalArgumentException("Ingredient selection does not fit in " + MAX_BYTES + " bytes");
+        }
+        return out.toByteArray();
+    }
+
+    public static long[] decode(byte[] packed) {
+        if (packed == null || packed.length == 0) {
+            return null;
+        }
+        long[] ids = new long[packed.length];
+        int n = 0;
+        long previous = 0;
+        long delta = 0;
+        int shift = 0;
+        for (byte b : packed) {
+            delta |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) != 0) {
+                shift += 7;
+                continue;
+            }
+            previous += delta;
+            ids[n++] = previous;
+            delta = 0;
+            shift = 0;
+        }
+        return n == 0 ? null : Arrays.copyOf(ids, n);
+    }
+}
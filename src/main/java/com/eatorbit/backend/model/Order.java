@@ -9,11 +9,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "order_table")
+@Table(name = "order_table", indexes = {
+        @Index(name = "idx_order_outlet_created", columnList = "outlet_id, created_at, order_id")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(name = "order_ids", table = IdBlocks.TABLE, pkColumnName = IdBlocks.NAME_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.ORDERS,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     @Column(name = "order_id")
     private Long orderId;
 
@@ -47,6 +52,27 @@ public class Order {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // When the current status was entered; with the per-status columns below it gives time spent per stage
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
+    @Column(name = "preparing_at")
+    private LocalDateTime preparingAt;
+
+    @Column(name = "ready_at")
+    private LocalDateTime readyAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    @Column(name = "cancelled_at")
+    private LocalDateTime cancelledAt;
+
+    // Bumped on every status change; clients long-poll against it
+    @Version
+    @Column(name = "version", columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long version;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -121,6 +147,57 @@ public class Order {
         return createdAt;
     }
 
+    // Rows from before status_changed_at existed fall back to the creation time
+    public LocalDateTime getStatusSince() {
+        return statusChangedAt != null ? statusChangedAt : createdAt;
+    }
+
+    public LocalDateTime getStatusChangedAt() {
+        return statusChangedAt;
+    }
+
+    public LocalDateTime getPreparingAt() {
+        return preparingAt;
+    }
+
+    public LocalDateTime getReadyAt() {
+        return readyAt;
+    }
+
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    public LocalDateTime getCancelledAt() {
+        return cancelledAt;
+    }
+
+    // Moves the order to status and stamps the matching transition column
+    public void changeStatus(OrderStatus status, LocalDateTime at) {
+        this.status = status;
+        this.statusChangedAt = at;
+        switch (status) {
+            case PREPARING:
+                preparingAt = at;
+                break;
+            case READY:
+                readyAt = at;
+                break;
+            case DELIVERED:
+                deliveredAt = at;
+                break;
+            case CANCELLED:
+                cancelledAt = at;
+                break;
+            default:
+                break;
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
@@ -1,15 +1,18 @@
 package com.eatorbit.backend.model;
 
 import jakarta.persistence.*;
+
 import java.math.BigDecimal;
-import java.util.List;
 
 @Entity
 @Table(name = "order_items")
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_ids")
+    @TableGenerator(name = "order_item_ids", table = IdBlocks.TABLE, pkColumnName = IdBlocks.NAME_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.ORDER_ITEMS,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     @Column(name = "order_item_id")
     private Long orderItemId;
 
@@ -24,10 +27,10 @@ public class OrderItem {
     @Column(nullable = false)
     private Integer quantity;
 
-    @ElementCollection
-    @CollectionTable(name = "order_item_ingredients", joinColumns = @JoinColumn(name = "order_item_id"))
-    @Column(name = "ingredient_name")
-    private List<String> selectedIngredients;
+    // Taken over from the cart line as is; IngredientCatalogService resolves names for display
+    @Convert(converter = IngredientIdsConverter.class)
+    @Column(name = "ingredient_ids", length = IngredientIdsConverter.MAX_BYTES)
+    private long[] selectedIngredientIds;
 
     @Column(name = "total_price", nullable = false)
     private BigDecimal totalPrice;
@@ -67,12 +70,12 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
-    public List<String> getSelectedIngredients() {
-        return selectedIngredients;
+    public long[] getSelectedIngredientIds() {
+        return selectedIngredientIds;
     }
 
-    public void setSelectedIngredients(List<String> selectedIngredients) {
-        this.selectedIngredients = selectedIngredients;
+    public void setSelectedIngredientIds(long[] selectedIngredientIds) {
+        this.selectedIngredientIds = selectedIngredientIds;
     }
 
     public BigDecimal getTotalPrice() {
@@ -0,0 +1,8 @@
+package com.eatorbit.backend.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -39,6 +39,13 @@ public class Outlet {
     @Column(name = "qr_image_url")
     private String qrImageUrl;
 
+    // Admission limits: null uses the eatorbit.admission default, 0 means unlimited
+    @Column(name = "max_open_orders")
+    private Integer maxOpenOrders;
+
+    @Column(name = "orders_per_minute")
+    private Integer ordersPerMinute;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -121,4 +128,20 @@ public class Outlet {
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public Integer getMaxOpenOrders() {
+        return maxOpenOrders;
+    }
+
+    public void setMaxOpenOrders(Integer maxOpenOrders) {
+        this.maxOpenOrders = maxOpenOrders;
+    }
+
+    public Integer getOrdersPerMinute() {
+        return ordersPerMinute;
+    }
+
+    public void setOrdersPerMinute(Integer ordersPerMinute) {
+        this.ordersPerMinute = ordersPerMinute;
+    }
 }
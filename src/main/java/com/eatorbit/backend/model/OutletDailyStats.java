@@ -0,0 +1,146 @@
+package com.eatorbit.backend.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Per-outlet, per-day rollup of the orders created that day; kept current inside the order transactions
+@Entity
+@Table(name = "outlet_daily_stats")
+@IdClass(OutletDailyStats.Key.class)
+public class OutletDailyStats {
+
+    @Id
+    @Column(name = "outlet_id")
+    private Long outletId;
+
+    @Id
+    @Column(name = "business_date")
+    private LocalDate businessDate;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    // Excludes cancelled orders
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "placed_count", nullable = false)
+    private long placedCount;
+
+    @Column(name = "preparing_count", nullable = false)
+    private long preparingCount;
+
+    @Column(name = "ready_count", nullable = false)
+    private long readyCount;
+
+    @Column(name = "delivered_count", nullable = false)
+    private long deliveredCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public OutletDailyStats() {
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    public long getPlacedCount() {
+        return placedCount;
+    }
+
+    public long getPreparingCount() {
+        return preparingCount;
+    }
+
+    public long getReadyCount() {
+        return readyCount;
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getCount(OrderStatus status) {
+        switch (status) {
+            case PENDING:
+                return pendingCount;
+            case PLACED:
+                return placedCount;
+            case PREPARING:
+                return preparingCount;
+            case READY:
+                return readyCount;
+            case DELIVERED:
+                return deliveredCount;
+            default:
+                return cancelledCount;
+        }
+    }
+
+    public static class Key implements Serializable {
+        private Long outletId;
+        private LocalDate businessDate;
+
+        public Key() {
+        }
+
+        public Key(Long outletId, LocalDate businessDate) {
+            this.outletId = outletId;
+            this.businessDate = businessDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(outletId, key.outletId) && Objects.equals(businessDate, key.businessDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(outletId, businessDate);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.eatorbit.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// High-water mark of pickup numbers handed out per outlet per business day
+@Entity
+@Table(name = "token_sequences")
+public class TokenSequence {
+
+    @Id
+    @Column(name = "sequence_key", length = 40)
+    private String sequenceKey;
+
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "reserved_up_to", nullable = false)
+    private long reservedUpTo;
+
+    public TokenSequence() {
+    }
+
+    public TokenSequence(String sequenceKey, Long outletId, LocalDate businessDate) {
+        this.sequenceKey = sequenceKey;
+        this.outletId = outletId;
+        this.businessDate = businessDate;
+    }
+
+    public String getSequenceKey() {
+        return sequenceKey;
+    }
+
+    public void setSequenceKey(String sequenceKey) {
+        this.sequenceKey = sequenceKey;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public void setOutletId(Long outletId) {
+        this.outletId = outletId;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public void setBusinessDate(LocalDate businessDate) {
+        this.businessDate = businessDate;
+    }
+
+    public long getReservedUpTo() {
+        return reservedUpTo;
+    }
+
+    public void setReservedUpTo(long reservedUpTo) {
+        this.reservedUpTo = reservedUpTo;
+    }
+}
@@ -0,0 +1,97 @@
+package com.eatorbit.backend.repository;
+
+import com.eatorbit.backend.dto.OrderExportRow;
+import com.eatorbit.backend.model.ArchivedOrder;
+import com.eatorbit.backend.model.OrderStatus;
+import com.eatorbit.backend.model.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @Query("select distinct a from ArchivedOrder a join fetch a.outlet left join fetch a.items i "
+            + "left join fetch i.food where a.customer.userId = :customerId order by a.createdAt, a.orderId")
+    List<ArchivedOrder> findHistoryByCustomer(@Param("customerId") Long customerId);
+
+    @Query("select distinct a from ArchivedOrder a join fetch a.outlet left join fetch a.items i "
+            + "left join fetch i.food where a.outlet.outletId = :outletId order by a.createdAt, a.orderId")
+    List<ArchivedOrder> findHistoryByOutlet(@Param("outletId") Long outletId);
+
+    // --- Chunk move, hot -> cold. All statements take the same id list and run in one transaction ---
+
+    @Query(value = "select order_id from order_table where status in (:statuses) and created_at < :cutoff "
+            + "order by order_id limit :limit", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("statuses") Collection<String> statuses,
+            @Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "insert into order_table_archive (order_id, customer_id, outlet_id, token_number, status, "
+            + "total_amount, payment_status, payment_method, created_at, status_changed_at, preparing_at, ready_at, "
+            + "delivered_at, cancelled_at, version, archived_at) "
+            + "select order_id, customer_id, outlet_id, token_number, status, total_amount, payment_status, "
+            + "payment_method, created_at, status_changed_at, preparing_at, ready_at, delivered_at, cancelled_at, "
+            + "version, :archivedAt from order_table where order_id in (:ids)",
+            nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "insert into order_items_archive (order_item_id, order_id, food_id, quantity, ingredient_ids, "
+            + "total_price) select order_item_id, order_id, food_id, quantity, ingredient_ids, total_price "
+            + "from order_items where order_id in (:ids)", nativeQuery = true)
+    int copyItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "delete from order_items where order_id in (:ids)", nativeQuery = true)
+    int deleteHotItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "delete from order_table where order_id in (:ids)", nativeQuery = true)
+    int deleteHotOrders(@Param("ids") Collection<Long> ids);
+
+    // --- Purges for outlet and user deletion; the archive keeps real foreign keys to outlets, users and foods ---
+
+    @Modifying
+    @Query(value = "delete from order_items_archive where order_id in "
+            + "(select order_id from order_table_archive where outlet_id = :outletId)", nativeQuery = true)
+    int deleteItemsByOutletId(@Param("outletId") Long outletId);
+
+    @Modifying
+    @Query(value = "delete from order_table_archive where outlet_id = :outletId", nativeQuery = true)
+    int deleteByOutletId(@Param("outletId") Long outletId);
+
+    @Modifying
+    @Query(value = "delete from order_items_archive where order_id in "
+            + "(select order_id from order_table_archive where customer_id = :customerId)", nativeQuery = true)
+    int deleteItemsByCustomerId(@Param("customerId") Long customerId);
+
+    @Modifying
+    @Query(value = "delete from order_table_archive where customer_id = :customerId", nativeQuery = true)
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.eatorbit.backend.dto.OrderExportRow(o.orderId, o.tokenNumber, o.outlet.outletId, "
+            + "ou.outletName, c.userId, c.email, o.status, o.paymentStatus, o.paymentMethod, o.totalAmount, "
+            + "o.createdAt) from ArchivedOrder o join o.outlet ou join o.customer c "
+            + "where (:outletId is null or o.outlet.outletId = :outletId) "
+            + "and (:status is null or o.status = :status) "
+            + "and (:paymentStatus is null or o.paymentStatus = :paymentStatus) "
+            + "and (:from is null or o.createdAt >= :from) and (:to is null or o.createdAt < :to)")
+    Stream<OrderExportRow> streamForExport(@Param("outletId") Long outletId, @Param("status") OrderStatus status,
+            @Param("paymentStatus") PaymentStatus paymentStatus, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, Sort sort);
+}
@@ -2,6 +2,13 @@ package com.eatorbit.backend.repository;
 
 import com.eatorbit.backend.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+
+    @Modifying
+    @Query("delete from CartItem i where i.cart.cartId = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
 }
@@ -4,7 +4,12 @@ import com.eatorbit.backend.model.Cart;
 import com.eatorbit.backend.model.Outlet;
 import com.eatorbit.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +17,36 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByCustomer(User customer);
 
     List<Cart> findByOutlet(Outlet outlet);
+
+    // CartStore loads a cart with every line and its food in one query
+    @Query("select distinct c from Cart c left join fetch c.items i left join fetch i.food where c.customer = :customer")
+    Optional<Cart> findWithItemsByCustomer(@Param("customer") User customer);
+
+    // Empties the row as of the given CartStore version; returns 0 if the row already holds that version or later
+    @Modifying
+    @Query("update Cart c set c.totalAmount = 0, c.stateVersion = :version, c.updatedAt = :now "
+            + "where c.cartId = :cartId and coalesce(c.stateVersion, 0) < :version")
+    int markCleared(@Param("cartId") Long cartId, @Param("version") long version,
+            @Param("now") LocalDateTime now);
+
+    // --- Stale cart sweep. One chunk locks its ids, then deletes lines before carts, in one transaction ---
+
+    // Rows from before updated_at existed start their idle time now
+    @Modifying
+    @Query(value = "update carts set updated_at = :now where updated_at is null", nativeQuery = true)
+    int stampUntracked(@Param("now") LocalDateTime now);
+
+    // Keyset over cart_id so carts skipped by one chunk are not fetched again by the next
+    @Query(value = "select cart_id from carts where cart_id > :after and updated_at < :cutoff "
+            + "order by cart_id limit :limit for update", nativeQuery = true)
+    List<Long> lockStaleIds(@Param("after") long after, @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from cart_items where cart_id in (:ids)", nativeQuery = true)
+    int deleteItemsOfCarts(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "delete from carts where cart_id in (:ids)", nativeQuery = true)
+    int deleteCarts(@Param("ids") Collection<Long> ids);
 }
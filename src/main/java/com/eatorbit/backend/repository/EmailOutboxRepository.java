@@ -0,0 +1,34 @@
+package com.eatorbit.backend.repository;
+
+import com.eatorbit.backend.model.EmailOutbox;
+import com.eatorbit.backend.model.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    @Query("select e from EmailOutbox e where e.status = :status and e.nextAttemptAt <= :now "
+            + "order by e.nextAttemptAt asc")
+    List<EmailOutbox> findDue(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    // Claims rows for this dispatcher; nextAttemptAt doubles as the lease expiry while SENDING
+    @Modifying
+    @Query("update EmailOutbox e set e.status = com.eatorbit.backend.model.OutboxStatus.SENDING, "
+            + "e.nextAttemptAt = :leaseUntil where e.outboxId in :ids "
+            + "and e.status = com.eatorbit.backend.model.OutboxStatus.PENDING")
+    int claim(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Returns rows whose dispatcher died mid-send to the queue
+    @Modifying
+    @Query("update EmailOutbox e set e.status = com.eatorbit.backend.model.OutboxStatus.PENDING "
+            + "where e.status = com.eatorbit.backend.model.OutboxStatus.SENDING and e.nextAttemptAt < :now")
+    int releaseExpiredLeases(@Param("now") LocalDateTime now);
+
+    List<EmailOutbox> findByOutboxIdInAndStatus(List<Long> ids, OutboxStatus status);
+}
@@ -2,6 +2,14 @@ package com.eatorbit.backend.repository;
 
 import com.eatorbit.backend.model.FoodImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface FoodImageRepository extends JpaRepository<FoodImage, Long> {
+    // (food id, image url) for a whole menu, in upload order
+    @Query("select i.food.foodId, i.imageUrl from FoodImage i where i.food.outlet.outletId = :outletId "
+            + "order by i.imageId")
+    List<Object[]> findUrlsByOutletId(@Param("outletId") Long outletId);
 }
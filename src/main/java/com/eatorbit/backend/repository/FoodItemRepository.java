@@ -1,14 +1,31 @@
 package com.eatorbit.backend.repository;
 
+import com.eatorbit.backend.dto.FoodSearchHitDto;
 import com.eatorbit.backend.model.FoodCategory;
 import com.eatorbit.backend.model.FoodItem;
 import com.eatorbit.backend.model.Outlet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
     List<FoodItem> findByOutlet(Outlet outlet);
 
+    @Query("select f from FoodItem f where f.outlet.outletId = :outletId order by f.foodId")
+    List<FoodItem> findByOutletId(@Param("outletId") Long outletId);
+
+    // (food id, ingredient id) pairs of the food_ingredient join table for a whole menu
+    @Query("select f.foodId, g.ingredientId from FoodItem f join f.ingredients g where f.outlet.outletId = :outletId")
+    List<Object[]> findIngredientIdsByOutletId(@Param("outletId") Long outletId);
+
     List<FoodItem> findByCategory(FoodCategory category);
+
+    // Rows of the search index: every food with its category and outlet, or one outlet's when outletId is set
+    @Query("select new com.eatorbit.backend.dto.FoodSearchHitDto(f.foodId, f.foodName, f.description, f.price, "
+            + "f.isVeg, f.isAvailable, f.isSeasonal, c.categoryName, o.outletId, o.outletName, o.cuisineType, "
+            + "o.isOpen) from FoodItem f join f.outlet o left join f.category c "
+            + "where (:outletId is null or o.outletId = :outletId)")
+    List<FoodSearchHitDto> findSearchHits(@Param("outletId") Long outletId);
 }
@@ -3,9 +3,15 @@ package com.eatorbit.backend.repository;
 import com.eatorbit.backend.model.IngredientItem;
 import com.eatorbit.backend.model.Outlet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface IngredientItemRepository extends JpaRepository<IngredientItem, Long> {
     List<IngredientItem> findByCategoryOutlet(Outlet outlet);
+
+    // {ingredientId, name} pairs for the catalogue cache; no entities are built
+    @Query("select i.ingredientId, i.name from IngredientItem i where i.category.outlet.outletId = :outletId")
+    List<Object[]> findCatalogueByOutletId(@Param("outletId") Long outletId);
 }
@@ -1,17 +1,110 @@
 package com.eatorbit.backend.repository;
 
+import com.eatorbit.backend.dto.OrderExportRow;
+import com.eatorbit.backend.dto.OrderStatusSnapshot;
+import com.eatorbit.backend.dto.QueueEntryDto;
 import com.eatorbit.backend.model.Order;
+import com.eatorbit.backend.model.OrderStatus;
 import com.eatorbit.backend.model.Outlet;
+import com.eatorbit.backend.model.PaymentStatus;
 import com.eatorbit.backend.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    // Fetch plan of OrderResponse: outlet name, items and their food names in one statement
+    @EntityGraph(attributePaths = {"outlet", "items", "items.food"})
     List<Order> findByCustomer(User customer);
 
+    @EntityGraph(attributePaths = {"outlet", "items", "items.food"})
     Optional<Order> findByTokenNumber(String tokenNumber);
 
+    @EntityGraph(attributePaths = {"outlet", "items", "items.food"})
+    Optional<Order> findWithItemsByOrderId(Long orderId);
+
     List<Order> findByOutlet(Outlet outlet);
+
+    // Keyset feed: newest first, (created_at, order_id) is the cursor
+    @Query("select o from Order o join fetch o.outlet where o.outlet.outletId = :outletId "
+            + "and (:status is null or o.status = :status) "
+            + "order by o.createdAt desc, o.orderId desc")
+    List<Order> findFeedPage(@Param("outletId") Long outletId, @Param("status") OrderStatus status,
+            Pageable pageable);
+
+    @Query("select o from Order o join fetch o.outlet where o.outlet.outletId = :outletId "
+            + "and (:status is null or o.status = :status) "
+            + "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.orderId < :orderId)) "
+            + "order by o.createdAt desc, o.orderId desc")
+    List<Order> findFeedPageAfter(@Param("outletId") Long outletId, @Param("status") OrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("orderId") Long orderId, Pageable pageable);
+
+    // Loads items and their food for a whole page in one statement
+    @Query("select distinct o from Order o left join fetch o.items i left join fetch i.food where o in :orders")
+    List<Order> fetchItems(@Param("orders") List<Order> orders);
+
+    @Query("select new com.eatorbit.backend.dto.QueueEntryDto(o.orderId, o.outlet.outletId, o.tokenNumber, "
+            + "o.status, o.createdAt, o.version) from Order o where o.status in :statuses")
+    List<QueueEntryDto> findQueueEntries(@Param("statuses") Collection<OrderStatus> statuses);
+
+    // Rows stay locked until commit; id order so two bulk moves cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.eatorbit.backend.dto.OrderStatusSnapshot(o.orderId, o.outlet.outletId, o.tokenNumber, "
+            + "o.status, o.createdAt, o.statusChangedAt, o.version) from Order o where o.orderId in :ids "
+            + "order by o.orderId")
+    List<OrderStatusSnapshot> lockStatusSnapshots(@Param("ids") Collection<Long> ids);
+
+    // Set-based move of orders still at the expected version; the returned count is how many actually moved.
+    // Exactly one of the per-status stamps is non-null, the others keep their current value.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.version = o.version + 1, o.statusChangedAt = :now, "
+            + "o.preparingAt = coalesce(:preparingAt, o.preparingAt), o.readyAt = coalesce(:readyAt, o.readyAt), "
+            + "o.deliveredAt = coalesce(:deliveredAt, o.deliveredAt), "
+            + "o.cancelledAt = coalesce(:cancelledAt, o.cancelledAt) "
+            + "where o.orderId in :ids and o.version = :version and o.status = :from "
+            + "and o.outlet.outletId = :outletId")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("outletId") Long outletId,
+            @Param("version") long version, @Param("from") OrderStatus from, @Param("to") OrderStatus to,
+            @Param("now") LocalDateTime now,
+            @Param("preparingAt") LocalDateTime preparingAt, @Param("readyAt") LocalDateTime readyAt,
+            @Param("deliveredAt") LocalDateTime deliveredAt, @Param("cancelledAt") LocalDateTime cancelledAt);
+
+    @Query("select o.orderId, o.totalAmount from Order o where o.orderId in :ids")
+    List<Object[]> findTotalAmounts(@Param("ids") Collection<Long> ids);
+
+    @Query("select o.outlet.outletId, count(o) from Order o where o.status in :statuses group by o.outlet.outletId")
+    List<Object[]> countByOutletAndStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    // Forward-only cursor for the admin export, sorted by order id either way; with useCursorFetch the driver
+    // holds one fetch-size window
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.eatorbit.backend.dto.OrderExportRow(o.orderId, o.tokenNumber, o.outlet.outletId, "
+            + "ou.outletName, c.userId, c.email, o.status, o.paymentStatus, o.paymentMethod, o.totalAmount, "
+            + "o.createdAt) from Order o join o.outlet ou join o.customer c "
+            + "where (:outletId is null or o.outlet.outletId = :outletId) "
+            + "and (:status is null or o.status = :status) "
+            + "and (:paymentStatus is null or o.paymentStatus = :paymentStatus) "
+            + "and (:from is null or o.createdAt >= :from) and (:to is null or o.createdAt < :to)")
+    Stream<OrderExportRow> streamForExport(@Param("outletId") Long outletId, @Param("status") OrderStatus status,
+            @Param("paymentStatus") PaymentStatus paymentStatus, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, Sort sort);
 }
@@ -0,0 +1,80 @@
+package com.eatorbit.backend.repository;
+
+import com.eatorbit.backend.model.OutletDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutletDailyStatsRepository extends JpaRepository<OutletDailyStats, OutletDailyStats.Key> {
+
+    @Query("select s from OutletDailyStats s where s.outletId = :outletId and s.businessDate between :from and :to "
+            + "order by s.businessDate")
+    List<OutletDailyStats> findRange(@Param("outletId") Long outletId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // Adds a delta to one day's row in a single round trip, creating the row on first use
+    @Modifying
+    @Query(value = "insert into outlet_daily_stats (outlet_id, business_date, order_count, revenue, pending_count, "
+            + "placed_count, preparing_count, ready_count, delivered_count, cancelled_count, updated_at) "
+            + "values (:outletId, :day, :orders, :revenue, :pending, :placed, :preparing, :ready, :delivered, "
+            + ":cancelled, :now) on duplicate key update order_count = order_count + :orders, "
+            + "revenue = revenue + :revenue, pending_count = pending_count + :pending, "
+            + "placed_count = placed_count + :placed, preparing_count = preparing_count + :preparing, "
+            + "ready_count = ready_count + :ready, delivered_count = delivered_count + :delivered, "
+            + "cancelled_count = cancelled_count + :cancelled, updated_at = :now", nativeQuery = true)
+    int applyDelta(@Param("outletId") Long outletId, @Param("day") LocalDate day, @Param("orders") long orders,
+            @Param("revenue") BigDecimal revenue, @Param("pending") long pending, @Param("placed") long placed,
+            @Param("preparing") long preparing, @Param("ready") long ready, @Param("delivered") long delivered,
+            @Param("cancelled") long cancelled, @Param("now") LocalDateTime now);
+
+    // --- Rebuild, one outlet and a bounded range of days per transaction ---
+
+    @Query("select o.outletId from Outlet o order by o.outletId")
+    List<Long> findOutletIds();
+
+    @Query("select min(o.createdAt) from Order o where o.outlet.outletId = :outletId")
+    LocalDateTime findFirstOrderTime(@Param("outletId") Long outletId);
+
+    @Query("select min(a.createdAt) from ArchivedOrder a where a.outlet.outletId = :outletId")
+    LocalDateTime findFirstArchivedOrderTime(@Param("outletId") Long outletId);
+
+    @Modifying
+    @Query(value = "delete from outlet_daily_stats where outlet_id not in (select outlet_id from outlets)",
+            nativeQuery = true)
+    int deleteOrphanRows();
+
+    @Modifying
+    @Query(value = "delete from outlet_daily_stats where outlet_id = :outletId and business_date < :before",
+            nativeQuery = true)
+    int deleteBefore(@Param("outletId") Long outletId, @Param("before") LocalDate before);
+
+    @Modifying
+    @Query(value = "delete from outlet_daily_stats where outlet_id = :outletId and business_date between :from "
+            + "and :to", nativeQuery = true)
+    int deleteRange(@Param("outletId") Long outletId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // One business day from the hot and archived orders created in [from, to), JVM-local like created_at
+    @Modifying
+    @Query(value = "insert into outlet_daily_stats (outlet_id, business_date, order_count, revenue, pending_count, "
+            + "placed_count, preparing_count, ready_count, delivered_count, cancelled_count, updated_at) "
+            + "select :outletId, :day, count(*), "
+            + "coalesce(sum(case when o.status <> 'CANCELLED' then o.total_amount else 0 end), 0), "
+            + "sum(case when o.status = 'PENDING' then 1 else 0 end), "
+            + "sum(case when o.status = 'PLACED' then 1 else 0 end), "
+            + "sum(case when o.status = 'PREPARING' then 1 else 0 end), "
+            + "sum(case when o.status = 'READY' then 1 else 0 end), "
+            + "sum(case when o.status = 'DELIVERED' then 1 else 0 end), "
+            + "sum(case when o.status = 'CANCELLED' then 1 else 0 end), :now "
+            + "from (select status, total_amount from order_table where outlet_id = :outletId "
+            + "and created_at >= :from and created_at < :to "
+            + "union all select status, total_amount from order_table_archive where outlet_id = :outletId "
+            + "and created_at >= :from and created_at < :to) o having count(*) > 0", nativeQuery = true)
+    int rebuildDay(@Param("outletId") Long outletId, @Param("day") LocalDate day, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("now") LocalDateTime now);
+}
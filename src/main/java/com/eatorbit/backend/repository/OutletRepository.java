@@ -2,10 +2,25 @@ package com.eatorbit.backend.repository;
 
 import com.eatorbit.backend.model.Outlet;
 import com.eatorbit.backend.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface OutletRepository extends JpaRepository<Outlet, Long> {
+    // OutletDto carries the owner's name and email, so the read paths load the owner in the same statement
+    @EntityGraph(attributePaths = "owner")
     List<Outlet> findByOwner(User owner);
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("select o from Outlet o order by o.outletId")
+    List<Outlet> findAllWithOwner();
+
+    @EntityGraph(attributePaths = "owner")
+    Optional<Outlet> findWithOwnerByOutletId(Long outletId);
+
+    @Query("select o from Outlet o where o.maxOpenOrders is not null or o.ordersPerMinute is not null")
+    List<Outlet> findWithAdmissionLimits();
 }
@@ -0,0 +1,16 @@
+package com.eatorbit.backend.repository;
+
+import com.eatorbit.backend.model.TokenSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TokenSequenceRepository extends JpaRepository<TokenSequence, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TokenSequence t where t.sequenceKey = :key")
+    Optional<TokenSequence> findForUpdate(@Param("key") String key);
+}
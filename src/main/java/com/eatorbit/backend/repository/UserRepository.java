@@ -2,19 +2,31 @@ package com.eatorbit.backend.repository;
 
 import com.eatorbit.backend.model.Role;
 import com.eatorbit.backend.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
 
+// User.cart is the inverse side of a one-to-one, which Hibernate cannot proxy: without the graph every
+// user read by a query costs one more SELECT for its cart
 public interface UserRepository extends JpaRepository<User, Long> {
+    @EntityGraph(attributePaths = "cart")
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
 
+    @EntityGraph(attributePaths = "cart")
+    @Query("select u from User u")
+    List<User> findAllWithCart();
+
+    @EntityGraph(attributePaths = "cart")
     List<User> findByStatus(com.eatorbit.backend.model.UserStatus status);
 
+    @EntityGraph(attributePaths = "cart")
     List<User> findByRoleAndStatus(Role role, com.eatorbit.backend.model.UserStatus status);
 
+    @EntityGraph(attributePaths = "cart")
     List<User> findByRole(Role role);
 }
@@ -0,0 +1,144 @@
+package com.eatorbit.backend.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A customer's cart as CartStore keeps it in memory. CartStore only hands it out while holding its lock,
+ * so the fields need no further synchronisation. Lines refer to foods by id and carry the name and price
+ * captured when they were added, which is all a cart response needs.
+ */
+public class ActiveCart {
+
+    final ReentrantLock lock = new ReentrantLock();
+    final Long customerId;
+
+    Long cartId; // Null until the carts row exists
+    Long outletId;
+    final List<Line> lines = new ArrayList<>();
+    BigDecimal totalAmount = BigDecimal.ZERO;
+
+    // Bumped on every change; the database holds persistedVersion. Both go into carts.state_version.
+    long version;
+    long persistedVersion;
+    volatile long lastAccessMillis = System.currentTimeMillis(); // Read by the eviction sweep without the lock
+    int failedFlushes;
+    boolean evicted;
+
+    ActiveCart(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public Long getCartId() {
+        return cartId;
+    }
+
+    public Long getOutletId() {
+        return outletId;
+    }
+
+    public List<Line> getLines() {
+        return Collections.unmodifiableList(lines);
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    // False for a customer who has no carts row and has not added anything yet
+    public boolean exists() {
+        return cartId != null || version > 0;
+    }
+
+    public Line findByFood(Long foodId) {
+        for (Line line : lines) {
+            if (line.foodId.equals(foodId)) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    public Line findLine(Long lineId) {
+        for (Line line : lines) {
+            if (lineId != null && line.lineId == lineId) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    void recomputeTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Line line : lines) {
+            total = total.add(line.totalPrice);
+        }
+        totalAmount = total;
+    }
+
+    boolean isDirty() {
+        return version != persistedVersion;
+    }
+
+    public static class Line {
+        final long lineId;
+        final Long foodId;
+        String foodName;
+        BigDecimal unitPrice;
+        int quantity;
+        long[] ingredientIds; // Packed form, see IngredientIdsConverter; replaced, never modified in place
+        BigDecimal totalPrice;
+
+        Line(long lineId, Long foodId, String foodName, BigDecimal unitPrice, int quantity, long[] ingredientIds) {
+            this.lineId = lineId;
+            this.foodId = foodId;
+            this.foodName = foodName;
+            this.unitPrice = unitPrice;
+            this.ingredientIds = ingredientIds;
+            setQuantity(quantity);
+        }
+
+        // Keeps totalPrice as it stands, which for a loaded line is the price when it was added
+        Line copy() {
+            Line copy = new Line(lineId, foodId, foodName, unitPrice, quantity, ingredientIds);
+            copy.totalPrice = totalPrice;
+            return copy;
+        }
+
+        void setQuantity(int quantity) {
+            this.quantity = quantity;
+            this.totalPrice = unitPrice.multiply(new BigDecimal(quantity));
+        }
+
+        public long getLineId() {
+            return lineId;
+        }
+
+        public Long getFoodId() {
+            return foodId;
+        }
+
+        public String getFoodName() {
+            return foodName;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public long[] getIngredientIds() {
+            return ingredientIds;
+        }
+
+        public BigDecimal getTotalPrice() {
+            return totalPrice;
+        }
+    }
+}
@@ -5,12 +5,14 @@ import com.eatorbit.backend.dto.AuthResponse;
 import com.eatorbit.backend.exception.ApiException;
 import com.eatorbit.backend.model.Role;
 import com.eatorbit.backend.model.User;
+import com.eatorbit.backend.repository.ArchivedOrderRepository;
 import com.eatorbit.backend.repository.UserRepository;
 import com.eatorbit.backend.security.JwtUtils;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthService {
@@ -19,13 +21,16 @@ public class AuthService {
         private final PasswordEncoder passwordEncoder;
         private final JwtUtils jwtUtils;
         private final AuthenticationManager authenticationManager;
+        private final ArchivedOrderRepository archivedOrderRepository;
 
         public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                        JwtUtils jwtUtils, AuthenticationManager authenticationManager) {
+                        JwtUtils jwtUtils, AuthenticationManager authenticationManager,
+                        ArchivedOrderRepository archivedOrderRepository) {
                 this.userRepository = userRepository;
                 this.passwordEncoder = passwordEncoder;
                 this.jwtUtils = jwtUtils;
                 this.authenticationManager = authenticationManager;
+                this.archivedOrderRepository = archivedOrderRepository;
         }
 
         public AuthResponse register(AuthRequest request) {
@@ -85,4 +90,12 @@ public class AuthService {
                 response.setRole(user.getRole());
                 return response;
         }
+
+        // Archived orders keep a foreign key to their customer, so they go with the user
+        @Transactional
+        public void deleteUser(Long id) {
+                archivedOrderRepository.deleteItemsByCustomerId(id);
+                archivedOrderRepository.deleteByCustomerId(id);
+                userRepository.deleteById(id);
+        }
 }
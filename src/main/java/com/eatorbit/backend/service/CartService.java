@@ -1,137 +1,273 @@
 package com.eatorbit.backend.service;
 
+import com.eatorbit.backend.dto.CartBatchRequest;
+import com.eatorbit.backend.dto.CartDeltaDto;
 import com.eatorbit.backend.dto.CartDto;
 import com.eatorbit.backend.dto.CartItemDto;
 import com.eatorbit.backend.dto.CartItemRequest;
+import com.eatorbit.backend.dto.CartOperation;
 import com.eatorbit.backend.exception.ApiException;
 import com.eatorbit.backend.exception.ResourceNotFoundException;
-import com.eatorbit.backend.model.*;
-import com.eatorbit.backend.repository.CartRepository;
+import com.eatorbit.backend.model.FoodItem;
+import com.eatorbit.backend.model.User;
 import com.eatorbit.backend.repository.FoodItemRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Cart operations for customers. Carts are read and changed in CartStore's memory and written to the
+ * database behind the request; only the food lookup on add reaches the database.
+ */
 @Service
 public class CartService {
 
-    private final CartRepository cartRepository;
+    private static final int MAX_OPERATIONS = 50;
+
+    private final CartStore cartStore;
     private final FoodItemRepository foodItemRepository;
+    private final IngredientCatalogService ingredientCatalog;
 
-    public CartService(CartRepository cartRepository,
-            FoodItemRepository foodItemRepository) {
-        this.cartRepository = cartRepository;
+    public CartService(CartStore cartStore, FoodItemRepository foodItemRepository,
+            IngredientCatalogService ingredientCatalog) {
+        this.cartStore = cartStore;
         this.foodItemRepository = foodItemRepository;
+        this.ingredientCatalog = ingredientCatalog;
     }
 
-    @Transactional //Add a food item to customer’s cart, ensuring outlet consistency.
+    //Add a food item to customer’s cart, ensuring outlet consistency.
     public CartDto addItemToCart(CartItemRequest request, User customer) {
+        if (request.getQuantity() == null || request.getQuantity() < 1) {
+            throw new ApiException("Quantity must be at least 1");
+        }
         FoodItem food = foodItemRepository.findById(request.getFoodId())
                 .orElseThrow(() -> new ResourceNotFoundException("Food item not found"));
-        																						
-        Cart cart = cartRepository.findByCustomer(customer)
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setCustomer(customer);
-                    newCart.setOutlet(food.getOutlet());
-                    newCart.setTotalAmount(BigDecimal.ZERO);
-                    newCart.setItems(new ArrayList<>());
-                    return cartRepository.save(newCart);
-                });
-
-        // Check if cart belongs to the same outlet
-        if (cart.getOutlet() == null || cart.getItems().isEmpty()) {
-            cart.setOutlet(food.getOutlet());
-        } else if (!cart.getOutlet().getOutletId().equals(food.getOutlet().getOutletId())) {
-            // Option: Clear cart if switching outlets, or throw error
-            // For now, let's clear it to allow ordering from a new outlet
-            clearCart(cart);
-            cart.setOutlet(food.getOutlet());
-        }
+        Long outletId = food.getOutlet().getOutletId();
+        // Resolved before the cart is touched so an unknown ingredient cannot clear it
+        long[] ingredientIds = ingredientCatalog.resolveSelection(outletId,
+                request.getSelectedIngredientIds(), request.getSelectedIngredients());
 
-        Optional<CartItem> existingItem = cart.getItems().stream()
-                .filter(item -> item.getFood().getFoodId().equals(food.getFoodId()))
-                .findFirst();
-
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + request.getQuantity());
-            item.setTotalPrice(food.getPrice().multiply(new BigDecimal(item.getQuantity())));
-        } else {
-            CartItem item = new CartItem();
-            item.setCart(cart);
-            item.setFood(food);
-            item.setQuantity(request.getQuantity());
-            item.setSelectedIngredients(request.getSelectedIngredients());
-            item.setTotalPrice(food.getPrice().multiply(new BigDecimal(request.getQuantity())));
-            cart.getItems().add(item);
-        }
+        return cartStore.update(customer, cart -> {
+            // Check if cart belongs to the same outlet; switching outlets starts over for the new one
+            boolean switching = cart.outletId != null && !cart.lines.isEmpty() && !cart.outletId.equals(outletId);
+            ActiveCart.Line existing = switching ? null : cart.findByFood(food.getFoodId());
+            // The only step that can fail, so it goes before any change
+            long lineId = existing == null ? cartStore.nextLineId() : existing.lineId;
 
-        updateCartTotal(cart);
-        Cart savedCart = cartRepository.save(cart);
-        return mapToDto(savedCart);
+            if (switching) {
+                System.out.println("DEBUG: Clearing cart of customer " + customer.getUserId() + " for new outlet");
+                cart.lines.clear();
+            }
+            cart.outletId = outletId;
+            if (existing != null) {
+                existing.unitPrice = food.getPrice();
+                existing.setQuantity(existing.quantity + request.getQuantity());
+            } else {
+                cart.lines.add(new ActiveCart.Line(lineId, food.getFoodId(), food.getFoodName(), food.getPrice(),
+                        request.getQuantity(), ingredientIds));
+            }
+            cart.recomputeTotal();
+            return mapToDto(cart);
+        });
     }
 
-    @Transactional
     public CartDto removeItemFromCart(Long itemId, User customer) {
-        Cart cart = cartRepository.findByCustomer(customer)
-                .orElseThrow(() -> new ApiException("Cart not found"));
+        return cartStore.update(customer, cart -> {
+            if (!cart.exists()) {
+                throw new ApiException("Cart not found");
+            }
+            cart.lines.removeIf(line -> itemId != null && line.lineId == itemId);
+            cart.recomputeTotal();
+            return mapToDto(cart);
+        });
+    }
 
-        cart.getItems().removeIf(item -> item.getCartItemId().equals(itemId));
+    /**
+     * Applies the operations in order, all or nothing: they run against a copy of the cart's lines, which
+     * replaces the cart only once every operation has succeeded. Foods for all ADDs are fetched in one query
+     * before the cart is locked. Answers with the lines that changed rather than the whole cart.
+     */
+    public CartDeltaDto applyOperations(CartBatchRequest request, User customer) {
+        List<CartOperation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new ApiException("No cart operations given");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new ApiException("At most " + MAX_OPERATIONS + " cart operations can be sent at once");
+        }
 
-        updateCartTotal(cart);
-        Cart savedCart = cartRepository.save(cart);
-        return mapToDto(savedCart);
-    }
+        Set<Long> foodIds = new HashSet<>();
+        for (CartOperation op : operations) {
+            if (op == null || op.getType() == null) {
+                throw new ApiException("Cart operation type is required");
+            }
+            if (op.getType() == CartOperation.Type.ADD) {
+                if (op.getFoodId() == null) {
+                    throw new ApiException("foodId is required for ADD");
+                }
+                if (op.getQuantity() == null || op.getQuantity() < 1) {
+                    throw new ApiException("Quantity must be at least 1");
+                }
+                foodIds.add(op.getFoodId());
+            } else if (op.getCartItemId() == null) {
+                throw new ApiException("cartItemId is required for " + op.getType());
+            }
+            if (op.getType() == CartOperation.Type.SET_QUANTITY && (op.getQuantity() == null || op.getQuantity() < 0)) {
+                throw new ApiException("Quantity must not be negative");
+            }
+        }
 
-    public CartDto getCart(User customer) {
-        Cart cart = cartRepository.findByCustomer(customer)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
-        return mapToDto(cart);
-    }
+        Map<Long, FoodItem> foods = new HashMap<>();
+        Long addOutletId = null;
+        for (FoodItem food : foodItemRepository.findAllById(foodIds)) {
+            Long outletId = food.getOutlet().getOutletId();
+            if (addOutletId != null && !addOutletId.equals(outletId)) {
+                throw new ApiException("All items added in one request must come from the same outlet");
+            }
+            addOutletId = outletId;
+            foods.put(food.getFoodId(), food);
+        }
+        if (foods.size() < foodIds.size()) {
+            throw new ResourceNotFoundException("Food item not found");
+        }
+        long[][] addSelections = new long[operations.size()][];
+        for (int i = 0; i < operations.size(); i++) {
+            CartOperation op = operations.get(i);
+            if (op.getType() == CartOperation.Type.ADD) {
+                addSelections[i] = ingredientCatalog.resolveSelection(addOutletId,
+                        op.getSelectedIngredientIds(), op.getSelectedIngredients());
+            }
+        }
 
-    @Transactional
-    public void clearCart(Cart cart) {
-        System.out.println("DEBUG: Clearing cart for ID: " + cart.getCartId());
-        // Clear items list (orphanRemoval will delete them)
-        cart.getItems().clear();
-        cart.setTotalAmount(BigDecimal.ZERO);
-        // Note: We don't set outlet to null anymore to avoid "Column 'outlet_id' cannot
-        // be null" DB constraints.
-        // The outlet will be updated automatically next time the user adds an item when
-        // the cart is empty.
-        cartRepository.save(cart);
-        cartRepository.flush();
-        System.out.println("DEBUG: Cart cleared successfully.");
+        Long batchOutletId = addOutletId;
+        return cartStore.update(customer, cart -> {
+            if (!cart.exists() && batchOutletId == null) {
+                throw new ApiException("Cart not found");
+            }
+            List<ActiveCart.Line> lines = new ArrayList<>(cart.lines.size());
+            for (ActiveCart.Line line : cart.lines) {
+                lines.add(line.copy());
+            }
+            Long outletId = cart.outletId;
+
+            for (int i = 0; i < operations.size(); i++) {
+                CartOperation op = operations.get(i);
+                switch (op.getType()) {
+                    case ADD -> {
+                        // Same rules as addItemToCart: a food from another outlet starts the cart over
+                        if (outletId != null && !lines.isEmpty() && !outletId.equals(batchOutletId)) {
+                            System.out.println("DEBUG: Clearing cart of customer " + customer.getUserId()
+                                    + " for new outlet");
+                            lines.clear();
+                        }
+                        outletId = batchOutletId;
+                        FoodItem food = foods.get(op.getFoodId());
+                        ActiveCart.Line existing = findByFood(lines, food.getFoodId());
+                        if (existing != null) {
+                            existing.unitPrice = food.getPrice();
+                            existing.setQuantity(existing.quantity + op.getQuantity());
+                        } else {
+                            lines.add(new ActiveCart.Line(cartStore.nextLineId(), food.getFoodId(),
+                                    food.getFoodName(), food.getPrice(), op.getQuantity(), addSelections[i]));
+                        }
+                    }
+                    case SET_QUANTITY -> {
+                        ActiveCart.Line line = requireLine(lines, op.getCartItemId());
+                        if (op.getQuantity() == 0) {
+                            lines.remove(line);
+                        } else {
+                            line.setQuantity(op.getQuantity());
+                        }
+                    }
+                    case REMOVE -> lines.removeIf(line -> line.lineId == op.getCartItemId());
+                    case SET_INGREDIENTS -> {
+                        ActiveCart.Line line = requireLine(lines, op.getCartItemId());
+                        line.ingredientIds = ingredientCatalog.resolveSelection(outletId,
+                                op.getSelectedIngredientIds(), op.getSelectedIngredients());
+                    }
+                }
+            }
+
+            Map<Long, ActiveCart.Line> before = new LinkedHashMap<>();
+            for (ActiveCart.Line line : cart.lines) {
+                before.put(line.lineId, line);
+            }
+            List<CartItemDto> changed = new ArrayList<>();
+            for (ActiveCart.Line line : lines) {
+                ActiveCart.Line old = before.remove(line.lineId);
+                if (old == null || old.quantity != line.quantity || old.totalPrice.compareTo(line.totalPrice) != 0
+                        || !Arrays.equals(old.ingredientIds, line.ingredientIds)) {
+                    changed.add(mapLineToDto(outletId, line));
+                }
+            }
+
+            cart.lines.clear();
+            cart.lines.addAll(lines);
+            cart.outletId = outletId;
+            cart.recomputeTotal();
+
+            CartDeltaDto delta = new CartDeltaDto();
+            delta.setCartId(cart.getCartId());
+            delta.setOutletId(cart.getOutletId());
+            delta.setTotalAmount(cart.getTotalAmount());
+            delta.setChangedItems(changed);
+            delta.setRemovedItemIds(new ArrayList<>(before.keySet()));
+            return delta;
+        });
     }
 
-    private void updateCartTotal(Cart cart) {
-        BigDecimal total = cart.getItems().stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        cart.setTotalAmount(total);
+    public CartDto getCart(User customer) {
+        return cartStore.read(customer, cart -> {
+            if (!cart.exists()) {
+                throw new ResourceNotFoundException("Cart not found");
+            }
+            return mapToDto(cart);
+        });
     }
 
-    private CartDto mapToDto(Cart cart) {
+    private CartDto mapToDto(ActiveCart cart) {
         CartDto dto = new CartDto();
         dto.setCartId(cart.getCartId());
-        if (cart.getOutlet() != null) {
-            dto.setOutletId(cart.getOutlet().getOutletId());
-        }
+        dto.setOutletId(cart.getOutletId());
         dto.setTotalAmount(cart.getTotalAmount());
-        dto.setItems(cart.getItems().stream().map(item -> {
-            CartItemDto itemDto = new CartItemDto();
-            itemDto.setCartItemId(item.getCartItemId());
-            itemDto.setFoodName(item.getFood().getFoodName());
-            itemDto.setQuantity(item.getQuantity());
-            itemDto.setSelectedIngredients(item.getSelectedIngredients());
-            itemDto.setTotalPrice(item.getTotalPrice());
-            return itemDto;
-        }).collect(Collectors.toList()));
+        dto.setItems(cart.getLines().stream().map(line -> mapLineToDto(cart.getOutletId(), line))
+                .collect(Collectors.toList()));
         return dto;
     }
+
+    private CartItemDto mapLineToDto(Long outletId, ActiveCart.Line line) {
+        CartItemDto itemDto = new CartItemDto();
+        itemDto.setCartItemId(line.getLineId());
+        itemDto.setFoodName(line.getFoodName());
+        itemDto.setQuantity(line.getQuantity());
+        itemDto.setSelectedIngredients(ingredientCatalog.namesOf(outletId, line.getIngredientIds()));
+        itemDto.setTotalPrice(line.getTotalPrice());
+        return itemDto;
+    }
+
+    private static ActiveCart.Line findByFood(List<ActiveCart.Line> lines, Long foodId) {
+        for (ActiveCart.Line line : lines) {
+            if (line.foodId.equals(foodId)) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private static ActiveCart.Line requireLine(List<ActiveCart.Line> lines, Long lineId) {
+        for (ActiveCart.Line line : lines) {
+            if (line.lineId == lineId) {
+                return line;
+            }
+        }
+        throw new ResourceNotFoundException("Cart item not found: " + lineId);
+    }
 }
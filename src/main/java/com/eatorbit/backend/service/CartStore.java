@@ -0,0 +1,507 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.model.Cart;
+import com.eatorbit.backend.model.CartItem;
+import com.eatorbit.backend.model.IdBlocks;
+import com.eatorbit.backend.model.IngredientIdsConverter;
+import com.eatorbit.backend.model.User;
+import com.eatorbit.backend.repository.CartItemRepository;
+import com.eatorbit.backend.repository.CartRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Hot store for carts. Active carts live in memory keyed by customer id and are read and changed there;
+ * the database is only read when a customer's cart is not in memory. A flush on its own thread writes the changed
+ * carts in batches, one transaction per batch, however often each changed since the last round. Carts idle
+ * for eatorbit.cart-store.idle-minutes are dropped once written, and each round trims the map back to
+ * eatorbit.cart-store.max-carts, least recently used first.
+ *
+ * Checkout does not wait for the flush: OrderService empties the cart row inside the order transaction, so
+ * the order and the emptied cart commit together. carts.state_version orders the two write paths so that
+ * an older batch never overwrites a newer cart. Like the kitchen queue, this assumes a single instance.
+ */
+@Service
+public class CartStore {
+
+    private static final int MAX_FLUSH_FAILURES = 3;
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate idTx;
+    private final int maxCarts;
+    private final long idleMillis;
+    private final int batchSize;
+
+    private final Map<Long, ActiveCart> carts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Not the shared @Scheduled pool: cart edits reach the database only through this, so slow jobs must not delay it
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Current block of cart line ids, guarded by this
+    private long nextLineId = 1;
+    private long lineIdLimit = 0;
+
+    public CartStore(CartRepository cartRepository, CartItemRepository cartItemRepository,
+            JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+            PlatformTransactionManager txManager,
+            @Value("${eatorbit.cart-store.max-carts:50000}") int maxCarts,
+            @Value("${eatorbit.cart-store.idle-minutes:30}") long idleMinutes,
+            @Value("${eatorbit.cart-store.flush-batch-size:200}") int batchSize,
+            @Value("${eatorbit.cart-store.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.tx = new TransactionTemplate(txManager);
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        this.idTx = new TransactionTemplate(txManager);
+        this.idTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxCarts = Math.max(1, maxCarts);
+        this.idleMillis = TimeUnit.MINUTES.toMillis(Math.max(1, idleMinutes));
+        this.batchSize = Math.max(1, batchSize);
+        long interval = Math.max(1, flushIntervalMillis);
+        flusher.scheduleWithFixedDelay(this::scheduledFlush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public <T> T read(User customer, Function<ActiveCart, T> reader) {
+        ActiveCart cart = acquire(customer);
+        try {
+            return reader.apply(cart);
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    // Runs the change under the cart's lock and queues the cart for the next flush. Validate before mutating:
+    // an exception thrown halfway leaves the half-made change in memory.
+    public <T> T update(User customer, Function<ActiveCart, T> change) {
+        ActiveCart cart = acquire(customer);
+        try {
+            T result = change.apply(cart);
+            cart.version++;
+            return result;
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the customer's cart until the surrounding transaction completes, so the lines cannot change
+     * between building the order and emptying the cart, and a second checkout waits for the first.
+     */
+    public ActiveCart lockForCheckout(User customer) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Checkout must run inside a transaction");
+        }
+        ActiveCart cart = acquire(customer);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cart.lock.unlock();
+            }
+        });
+        return cart;
+    }
+
+    /**
+     * Empties a cart taken with lockForCheckout. The row is emptied in the current transaction; the
+     * in-memory copy only once it commits, so a rolled back order leaves the cart as it was.
+     */
+    public void clearAtCheckout(ActiveCart cart) {
+        long cleared = cart.version + 1;
+        boolean written = false;
+        if (cart.cartId != null) {
+            // Row first: the same lock order as a flush batch
+            written = cartRepository.markCleared(cart.cartId, cleared, LocalDateTime.now()) > 0;
+            cartItemRepository.deleteByCartId(cart.cartId);
+        }
+        boolean persisted = written;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cart.lines.clear();
+                cart.totalAmount = BigDecimal.ZERO;
+                cart.version = cleared;
+                if (persisted) {
+                    cart.persistedVersion = cleared;
+                }
+            }
+        });
+    }
+
+    // Drops in-memory carts of an outlet that is being deleted, so a later flush cannot recreate them
+    public void evictOutlet(Long outletId) {
+        for (ActiveCart cart : carts.values()) {
+            cart.lock.lock();
+            try {
+                if (outletId.equals(cart.outletId)) {
+                    cart.evicted = true;
+                    carts.remove(cart.customerId, cart);
+                }
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    // Rows of carts held in memory, which the stale cart sweep leaves alone
+    public Set<Long> cachedCartIds() {
+        Set<Long> ids = new HashSet<>();
+        for (ActiveCart cart : carts.values()) {
+            Long cartId = cart.cartId;
+            if (cartId != null) {
+                ids.add(cartId);
+            }
+        }
+        return ids;
+    }
+
+    // Same convention as Hibernate's pooled optimizer on this id_blocks row: read V, store V + block, use
+    // (V - block, V]. Ids never collide with cart lines inserted through JPA.
+    synchronized long nextLineId() {
+        if (nextLineId > lineIdLimit) {
+            Long hi = idTx.execute(status -> {
+                Long value = jdbcTemplate.queryForObject("select " + IdBlocks.VALUE_COLUMN + " from "
+                        + IdBlocks.TABLE + " where " + IdBlocks.NAME_COLUMN + " = ? for update", Long.class,
+                        IdBlocks.CART_ITEMS);
+                jdbcTemplate.update("update " + IdBlocks.TABLE + " set " + IdBlocks.VALUE_COLUMN + " = ? where "
+                        + IdBlocks.NAME_COLUMN + " = ?", value + IdBlocks.ALLOCATION_SIZE, IdBlocks.CART_ITEMS);
+                return value;
+            });
+            nextLineId = hi - IdBlocks.ALLOCATION_SIZE + 1;
+            lineIdLimit = hi;
+        }
+        return nextLineId++;
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+            evictIdle();
+        } catch (RuntimeException e) {
+            System.err.println("WARNING: Cart flush failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flusher.shutdown();
+        int written = flush(); // Waits on flushLock for a round already running
+        if (written > 0) {
+            System.out.println("DEBUG: Flushed " + written + " carts on shutdown");
+        }
+    }
+
+    // Writes every changed cart that is not locked right now; returns how many were written
+    public int flush() {
+        flushLock.lock();
+        try {
+            int written = 0;
+            List<Snapshot> batch = new ArrayList<>();
+            for (ActiveCart cart : carts.values()) {
+                // A busy cart, typically one mid-checkout, is picked up next round
+                if (!cart.lock.tryLock()) {
+                    continue;
+                }
+                try {
+                    if (cart.isDirty() && !cart.evicted) {
+                        batch.add(new Snapshot(cart));
+                    }
+                } finally {
+                    cart.lock.unlock();
+                }
+                if (batch.size() >= batchSize) {
+                    written += write(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                written += write(batch);
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private ActiveCart acquire(User customer) {
+        Long customerId = customer.getUserId();
+        while (true) {
+            ActiveCart cart = carts.get(customerId);
+            if (cart == null) {
+                ActiveCart loaded = load(customer);
+                cart = carts.putIfAbsent(customerId, loaded);
+                if (cart == null) {
+                    cart = loaded;
+                }
+            }
+            cart.lock.lock();
+            if (!cart.evicted) {
+                cart.lastAccessMillis = System.currentTimeMillis();
+                return cart;
+            }
+            // Evicted between lookup and lock; the database copy is current, so load again
+            cart.lock.unlock();
+        }
+    }
+
+    private ActiveCart load(User customer) {
+        ActiveCart cart = new ActiveCart(customer.getUserId());
+        readTx.executeWithoutResult(status -> {
+            Optional<Cart> row = cartRepository.findWithItemsByCustomer(customer);
+            if (row.isEmpty()) {
+                return;
+            }
+            Cart saved = row.get();
+            cart.cartId = saved.getCartId();
+            cart.outletId = saved.getOutlet() != null ? saved.getOutlet().getOutletId() : null;
+            for (CartItem item : saved.getItems()) {
+                ActiveCart.Line line = new ActiveCart.Line(item.getCartItemId(), item.getFood().getFoodId(),
+                        item.getFood().getFoodName(), item.getFood().getPrice(), item.getQuantity(),
+                        item.getSelectedIngredientIds());
+                line.totalPrice = item.getTotalPrice(); // As priced when added
+                cart.lines.add(line);
+            }
+            cart.lines.sort(Comparator.comparingLong(ActiveCart.Line::getLineId));
+            cart.totalAmount = saved.getTotalAmount() != null ? saved.getTotalAmount() : BigDecimal.ZERO;
+            cart.version = saved.getStateVersion() != null ? saved.getStateVersion() : 0;
+            cart.persistedVersion = cart.version;
+        });
+        return cart;
+    }
+
+    private int write(List<Snapshot> batch) {
+        try {
+            tx.executeWithoutResult(status -> writeBatch(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed(batch.get(0), e);
+                return 0;
+            }
+            // One bad cart, e.g. holding a food deleted since it was added, must not hold back the rest
+            int written = 0;
+            for (Snapshot snapshot : batch) {
+                written += write(List.of(snapshot));
+            }
+            return written;
+        }
+        for (Snapshot snapshot : batch) {
+            written(snapshot);
+        }
+        return batch.size();
+    }
+
+    private void writeBatch(List<Snapshot> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Snapshot> lines = new ArrayList<>();
+        Map<Long, Snapshot> existing = new HashMap<>();
+        for (Snapshot snapshot : batch) {
+            snapshot.insertedCartId = null;
+            snapshot.rowMissing = false;
+            if (snapshot.cartId != null) {
+                existing.put(snapshot.cartId, snapshot);
+            } else if (!snapshot.lines.isEmpty()) {
+                // New carts take an IDENTITY id, one insert each; an empty new cart needs no row at all
+                snapshot.insertedCartId = insertCart(snapshot, now);
+                lines.add(snapshot);
+            }
+        }
+
+        if (!existing.isEmpty()) {
+            // Locks the rows for this transaction; a row already at this version or later is left alone
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids", existing.keySet());
+            List<Object[]> stored = namedJdbcTemplate.query("select cart_id, coalesce(state_version, 0) from carts "
+                    + "where cart_id in (:ids) order by cart_id for update", ids,
+                    (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2)});
+            List<Object[]> updates = new ArrayList<>();
+            List<Long> fresh = new ArrayList<>();
+            Map<Long, Snapshot> missing = new HashMap<>(existing);
+            for (Object[] row : stored) {
+                Snapshot snapshot = missing.remove((Long) row[0]);
+                if ((Long) row[1] < snapshot.version) {
+                    updates.add(new Object[]{snapshot.outletId, snapshot.totalAmount, snapshot.version,
+                            Timestamp.valueOf(now), snapshot.cartId});
+                    fresh.add(snapshot.cartId);
+                    lines.add(snapshot);
+                }
+            }
+            // Swept while the cart sat in memory: write it again as a new row, or forget the row if empty
+            for (Snapshot snapshot : missing.values()) {
+                snapshot.rowMissing = true;
+                if (!snapshot.lines.isEmpty()) {
+                    snapshot.insertedCartId = insertCart(snapshot, now);
+                    lines.add(snapshot);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                jdbcTemplate.batchUpdate("update carts set outlet_id = ?, total_amount = ?, state_version = ?, "
+                        + "updated_at = ? where cart_id = ?", updates);
+                namedJdbcTemplate.update("delete from cart_items where cart_id in (:ids)",
+                        new MapSqlParameterSource("ids", fresh));
+            }
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (Snapshot snapshot : lines) {
+            Long cartId = snapshot.insertedCartId != null ? snapshot.insertedCartId : snapshot.cartId;
+            for (Object[] line : snapshot.lines) {
+                inserts.add(new Object[]{line[0], cartId, line[1], line[2], line[3], line[4]});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into cart_items (cart_item_id, cart_id, food_id, quantity, "
+                    + "ingredient_ids, total_price) values (?, ?, ?, ?, ?, ?)", inserts);
+        }
+    }
+
+    private Long insertCart(Snapshot snapshot, LocalDateTime now) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("insert into carts (customer_id, outlet_id, total_amount, "
+                    + "state_version, updated_at) values (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, snapshot.customerId);
+            ps.setLong(2, snapshot.outletId);
+            ps.setBigDecimal(3, snapshot.totalAmount);
+            ps.setLong(4, snapshot.version);
+            ps.setTimestamp(5, Timestamp.valueOf(now));
+            return ps;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    private void written(Snapshot snapshot) {
+        ActiveCart cart = snapshot.cart;
+        cart.lock.lock();
+        try {
+            if (snapshot.insertedCartId != null) {
+                cart.cartId = snapshot.insertedCartId;
+            } else if (snapshot.rowMissing && snapshot.cartId.equals(cart.cartId)) {
+                cart.cartId = null;
+            }
+            cart.persistedVersion = Math.max(cart.persistedVersion, snapshot.version);
+            cart.failedFlushes = 0;
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    private void failed(Snapshot snapshot, RuntimeException e) {
+        ActiveCart cart = snapshot.cart;
+        cart.lock.lock();
+        try {
+            if (++cart.failedFlushes < MAX_FLUSH_FAILURES) {
+                System.err.println("WARNING: Could not write cart of customer " + cart.customerId + ": "
+                        + e.getMessage());
+                return;
+            }
+            // Give up on the in-memory copy; the customer gets the last written cart back on next access
+            System.err.println("WARNING: Dropping unwritable cart of customer " + cart.customerId + " after "
+                    + MAX_FLUSH_FAILURES + " attempts: " + e.getMessage());
+            cart.evicted = true;
+            carts.remove(cart.customerId, cart);
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (ActiveCart cart : carts.values()) {
+            if (now - cart.lastAccessMillis > idleMillis) {
+                tryEvict(cart);
+            }
+        }
+        if (carts.size() > maxCarts) {
+            List<ActiveCart> oldestFirst = new ArrayList<>(carts.values());
+            oldestFirst.sort(Comparator.comparingLong(cart -> cart.lastAccessMillis));
+            for (ActiveCart cart : oldestFirst) {
+                if (carts.size() <= maxCarts) {
+                    break;
+                }
+                tryEvict(cart);
+            }
+        }
+    }
+
+    // Only written carts leave memory, so the database copy is current when the next access reloads it
+    private void tryEvict(ActiveCart cart) {
+        if (!cart.lock.tryLock()) {
+            return;
+        }
+        try {
+            if (!cart.isDirty()) {
+                cart.evicted = true;
+                carts.remove(cart.customerId, cart);
+            }
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    // What a flush writes, copied under the cart's lock
+    private static final class Snapshot {
+        private final ActiveCart cart;
+        private final Long customerId;
+        private final Long cartId;
+        private final Long outletId;
+        private final BigDecimal totalAmount;
+        private final long version;
+        private final List<Object[]> lines = new ArrayList<>(); // {lineId, foodId, quantity, ingredientIds, total}
+        private Long insertedCartId;
+        private boolean rowMissing;
+
+        private Snapshot(ActiveCart cart) {
+            this.cart = cart;
+            this.customerId = cart.customerId;
+            this.cartId = cart.cartId;
+            this.outletId = cart.outletId;
+            this.totalAmount = cart.totalAmount;
+            this.version = cart.version;
+            for (ActiveCart.Line line : cart.lines) {
+                lines.add(new Object[]{line.lineId, line.foodId, line.quantity,
+                        IngredientIdsConverter.encode(line.ingredientIds), line.totalPrice});
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.CartSweepStatsDto;
+import com.eatorbit.backend.exception.ApiException;
+import com.eatorbit.backend.repository.CartRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes carts whose row has not been written for ttl-days, lines included. Works in chunks of set-based
+ * deletes, each in its own short transaction that locks its carts first, so a concurrent CartStore flush
+ * either lands before the chunk and keeps its cart fresh, or after it and writes the cart as a new row.
+ * Carts currently held in CartStore's memory are skipped.
+ */
+@Service
+public class CartSweepService {
+
+    private final CartRepository cartRepository;
+    private final CartStore cartStore;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int ttlDays;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong cartsDeleted = new AtomicLong();
+    private final AtomicLong itemsDeleted = new AtomicLong();
+    private volatile LastRun lastRun;
+
+    public CartSweepService(CartRepository cartRepository, CartStore cartStore, PlatformTransactionManager txManager,
+            @Value("${eatorbit.cart-sweep.enabled:true}") boolean enabled,
+            @Value("${eatorbit.cart-sweep.ttl-days:14}") int ttlDays,
+            @Value("${eatorbit.cart-sweep.chunk-size:500}") int chunkSize,
+            @Value("${eatorbit.cart-sweep.max-chunks-per-run:200}") int maxChunksPerRun) {
+        this.cartRepository = cartRepository;
+        this.cartStore = cartStore;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.ttlDays = Math.max(0, ttlDays);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxChunksPerRun = Math.max(1, maxChunksPerRun);
+    }
+
+    @Scheduled(initialDelayString = "${eatorbit.cart-sweep.initial-delay-ms:120000}",
+            fixedDelayString = "${eatorbit.cart-sweep.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (enabled && running.compareAndSet(false, true)) {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                System.err.println("WARNING: Cart sweep failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    // Manual trigger for admins; refuses to overlap with the scheduled run
+    public CartSweepStatsDto runNow() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ApiException("Cart sweep is already running");
+        }
+        try {
+            sweep();
+        } finally {
+            running.set(false);
+        }
+        return getStats();
+    }
+
+    public CartSweepStatsDto getStats() {
+        CartSweepStatsDto stats = new CartSweepStatsDto();
+        stats.setRuns(runs.get());
+        stats.setCartsDeleted(cartsDeleted.get());
+        stats.setItemsDeleted(itemsDeleted.get());
+        LastRun run = lastRun;
+        if (run != null) {
+            stats.setLastRunAt(run.startedAt);
+            stats.setLastRunMillis(run.millis);
+            stats.setLastRunCarts(run.carts);
+            stats.setLastRunItems(run.items);
+        }
+        stats.setCarts(cartRepository.count());
+        return stats;
+    }
+
+    private void sweep() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime cutoff = startedAt.minusDays(ttlDays);
+        long started = System.nanoTime();
+
+        Integer stamped = tx.execute(status -> cartRepository.stampUntracked(startedAt));
+        if (stamped != null && stamped > 0) {
+            System.out.println("DEBUG: Started idle time of " + stamped + " carts without updated_at");
+        }
+
+        long carts = 0;
+        long items = 0;
+        long after = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            long from = after;
+            long[] counts = tx.execute(status -> deleteChunk(from, cutoff));
+            // Counted only after the chunk committed
+            cartsDeleted.addAndGet(counts[0]);
+            itemsDeleted.addAndGet(counts[1]);
+            carts += counts[0];
+            items += counts[1];
+            if (counts[2] < 0) {
+                break;
+            }
+            after = counts[2];
+        }
+
+        runs.incrementAndGet();
+        lastRun = new LastRun(startedAt, (System.nanoTime() - started) / 1_000_000, carts, items);
+        if (carts > 0) {
+            System.out.println("DEBUG: Swept " + carts + " carts idle for " + ttlDays + " days and their "
+                    + items + " lines");
+        }
+    }
+
+    // Returns {carts, lines, last cart id seen}; the last id is -1 once no stale carts remain past "after"
+    private long[] deleteChunk(long after, LocalDateTime cutoff) {
+        List<Long> ids = cartRepository.lockStaleIds(after, cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return new long[]{0, 0, -1};
+        }
+        long last = ids.get(ids.size() - 1);
+        Set<Long> cached = cartStore.cachedCartIds();
+        List<Long> stale = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (!cached.contains(id)) {
+                stale.add(id);
+            }
+        }
+        if (stale.isEmpty()) {
+            return new long[]{0, 0, ids.size() < chunkSize ? -1 : last};
+        }
+        // Children first, so the foreign key holds at every step
+        int lines = cartRepository.deleteItemsOfCarts(stale);
+        int carts = cartRepository.deleteCarts(stale);
+        return new long[]{carts, lines, ids.size() < chunkSize ? -1 : last};
+    }
+
+    private static class LastRun {
+        private final LocalDateTime startedAt;
+        private final long millis;
+        private final long carts;
+        private final long items;
+
+        LastRun(LocalDateTime startedAt, long millis, long carts, long items) {
+            this.startedAt = startedAt;
+            this.millis = millis;
+            this.carts = carts;
+            this.items = items;
+        }
+    }
+}
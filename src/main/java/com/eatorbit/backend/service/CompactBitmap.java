@@ -0,0 +1,479 @@
+package com.eatorbit.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * A set of non-negative ints kept the way Roaring bitmaps keep them: values are split by their high 16 bits
+ * into chunks, and each chunk stores its low 16 bits either as a sorted char array (up to 4096 values,
+ * 2 bytes each) or as a 65536-bit bitset (8 KB), whichever is smaller. AND, OR and their counts work
+ * chunk by chunk on whichever forms the two sides have. Results of and() and or() are short-lived, so they
+ * keep a chunk as a bitset whenever that is the cheaper form to produce and to combine further; only
+ * add() and remove() hold chunks to the smaller form, converting back to an array at half the limit so a
+ * value hovering around 4096 foods does not flip form on every update.
+ *
+ * Intersecting two arrays gallops through the larger one when the other is much smaller, merges them when
+ * both are short, and otherwise spreads the larger one into a bitset and probes it, which avoids the
+ * mispredicted branches of a long merge. Not thread-safe.
+ */
+class CompactBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+    private static final int GALLOP_RATIO = 32;
+    private static final int MERGE_MAX = 256; // Longer arrays are combined through a bitset instead of merged
+
+    private char[] keys = new char[0];
+    private Object[] chunks = new Object[0]; // ArrayChunk or BitsetChunk, never empty
+    private int size;
+
+    void add(int value) {
+        char key = (char) (value >>> 16);
+        int i = find(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, key, new ArrayChunk());
+        }
+        chunks[i] = add(chunks[i], (char) value);
+    }
+
+    void remove(int value) {
+        int i = find((char) (value >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Object chunk = remove(chunks[i], (char) value);
+        if (cardinality(chunk) == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(chunks, i + 1, chunks, i, size - i - 1);
+            chunks[--size] = null;
+        } else {
+            chunks[i] = chunk;
+        }
+    }
+
+    int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinality(chunks[i]);
+        }
+        return total;
+    }
+
+    static CompactBitmap and(CompactBitmap a, CompactBitmap b) {
+        CompactBitmap result = new CompactBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Object chunk = and(a.chunks[i], b.chunks[j]);
+                if (cardinality(chunk) > 0) {
+                    result.insertChunk(result.size, a.keys[i], chunk);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    static CompactBitmap or(CompactBitmap a, CompactBitmap b) {
+        CompactBitmap result = new CompactBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.insertChunk(result.size, a.keys[i], copy(a.chunks[i]));
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.insertChunk(result.size, b.keys[j], copy(b.chunks[j]));
+                j++;
+            } else {
+                result.insertChunk(result.size, a.keys[i], or(a.chunks[i], b.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The same set shaped for being intersected with many others: chunks too long to merge cheaply become
+     * bitsets, so each later andCardinality() is one probe per value of the other side. Shares chunks with
+     * this bitmap, so neither may be modified while the result is in use.
+     */
+    CompactBitmap forProbing() {
+        CompactBitmap result = new CompactBitmap();
+        for (int i = 0; i < size; i++) {
+            Object chunk = chunks[i];
+            if (chunk instanceof ArrayChunk array && array.count > MERGE_MAX) {
+                chunk = toBitset(array);
+            }
+            result.insertChunk(result.size, keys[i], chunk);
+        }
+        return result;
+    }
+
+    // Size of the intersection without building it
+    int andCardinality(CompactBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += andCardinality(chunks[i], other.chunks[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    // Up to limit values in ascending order, skipping the first offset; whole chunks are skipped by their count
+    int[] select(int offset, int limit) {
+        int[] out = new int[Math.max(0, Math.min(limit, cardinality() - offset))];
+        int n = 0;
+        int skip = offset;
+        for (int i = 0; i < size && n < out.length; i++) {
+            int high = keys[i] << 16;
+            Object chunk = chunks[i];
+            int count = cardinality(chunk);
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            if (chunk instanceof ArrayChunk array) {
+                for (int k = skip; k < array.count && n < out.length; k++) {
+                    out[n++] = high | array.values[k];
+                }
+            } else {
+                BitsetChunk bits = (BitsetChunk) chunk;
+                for (int w = 0; w < WORDS && n < out.length; w++) {
+                    long word = bits.words[w];
+                    int ones = Long.bitCount(word);
+                    if (skip >= ones) {
+                        skip -= ones;
+                        continue;
+                    }
+                    while (word != 0 && n < out.length) {
+                        int bit = Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                        if (skip > 0) {
+                            skip--;
+                        } else {
+                            out[n++] = high | (w << 6) | bit;
+                        }
+                    }
+                }
+            }
+            skip = 0;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertChunk(int i, char key, Object chunk) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(chunks, i, chunks, i + 1, size - i);
+        keys[i] = key;
+        chunks[i] = chunk;
+        size++;
+    }
+
+    private static int cardinality(Object chunk) {
+        return chunk instanceof ArrayChunk array ? array.count : ((BitsetChunk) chunk).count;
+    }
+
+    private static Object add(Object chunk, char low) {
+        if (chunk instanceof ArrayChunk array) {
+            int at = Arrays.binarySearch(array.values, 0, array.count, low);
+            if (at >= 0) {
+                return array;
+            }
+            if (array.count == ARRAY_MAX) {
+                BitsetChunk bits = toBitset(array);
+                bits.set(low);
+                return bits;
+            }
+            at = -at - 1;
+            if (array.count == array.values.length) {
+                array.values = Arrays.copyOf(array.values, Math.min(ARRAY_MAX, Math.max(4, array.count * 2)));
+            }
+            System.arraycopy(array.values, at, array.values, at + 1, array.count - at);
+            array.values[at] = low;
+            array.count++;
+            return array;
+        }
+        ((BitsetChunk) chunk).set(low);
+        return chunk;
+    }
+
+    private static Object remove(Object chunk, char low) {
+        if (chunk instanceof ArrayChunk array) {
+            int at = Arrays.binarySearch(array.values, 0, array.count, low);
+            if (at >= 0) {
+                System.arraycopy(array.values, at + 1, array.values, at, array.count - at - 1);
+                array.count--;
+            }
+            return array;
+        }
+        BitsetChunk bits = (BitsetChunk) chunk;
+        bits.clear(low);
+        return bits.count <= ARRAY_MAX / 2 ? toArray(bits) : bits;
+    }
+
+    private static Object and(Object a, Object b) {
+        if (a instanceof ArrayChunk x && b instanceof ArrayChunk y) {
+            ArrayChunk small = x.count <= y.count ? x : y;
+            ArrayChunk large = small == x ? y : x;
+            ArrayChunk out = new ArrayChunk(small.count);
+            if (small.count * GALLOP_RATIO < large.count) {
+                int from = 0;
+                for (int i = 0; i < small.count && from < large.count; i++) {
+                    from = gallop(large, from, small.values[i]);
+                    if (from < large.count && large.values[from] == small.values[i]) {
+                        out.values[out.count++] = small.values[i];
+                    }
+                }
+                return out;
+            }
+            if (small.count > MERGE_MAX) {
+                return and(small, toBitset(large));
+            }
+            int i = 0;
+            int j = 0;
+            while (i < x.count && j < y.count) {
+                if (x.values[i] < y.values[j]) {
+                    i++;
+                } else if (x.values[i] > y.values[j]) {
+                    j++;
+                } else {
+                    out.values[out.count++] = x.values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return out;
+        }
+        if (a instanceof ArrayChunk || b instanceof ArrayChunk) {
+            ArrayChunk array = a instanceof ArrayChunk x ? x : (ArrayChunk) b;
+            BitsetChunk bits = a instanceof BitsetChunk x ? x : (BitsetChunk) b;
+            ArrayChunk out = new ArrayChunk(array.count);
+            int n = 0;
+            for (int i = 0; i < array.count; i++) {
+                out.values[n] = array.values[i];
+                n += bits.bit(array.values[i]);
+            }
+            out.count = n;
+            return out;
+        }
+        BitsetChunk x = (BitsetChunk) a;
+        BitsetChunk y = (BitsetChunk) b;
+        BitsetChunk out = new BitsetChunk();
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            out.words[w] = x.words[w] & y.words[w];
+            count += Long.bitCount(out.words[w]);
+        }
+        out.count = count;
+        return out;
+    }
+
+    private static Object or(Object a, Object b) {
+        if (a instanceof ArrayChunk x && b instanceof ArrayChunk y) {
+            if (x.count + y.count <= MERGE_MAX) {
+                ArrayChunk out = new ArrayChunk(x.count + y.count);
+                int i = 0;
+                int j = 0;
+                while (i < x.count || j < y.count) {
+                    char next;
+                    if (j == y.count || (i < x.count && x.values[i] < y.values[j])) {
+                        next = x.values[i++];
+                    } else if (i == x.count || x.values[i] > y.values[j]) {
+                        next = y.values[j++];
+                    } else {
+                        next = x.values[i++];
+                        j++;
+                    }
+                    out.values[out.count++] = next;
+                }
+                return out;
+            }
+            BitsetChunk out = toBitset(x);
+            for (int j = 0; j < y.count; j++) {
+                out.set(y.values[j]);
+            }
+            return out;
+        }
+        if (a instanceof ArrayChunk || b instanceof ArrayChunk) {
+            ArrayChunk array = a instanceof ArrayChunk x ? x : (ArrayChunk) b;
+            BitsetChunk out = (BitsetChunk) copy(a instanceof BitsetChunk ? a : b);
+            for (int i = 0; i < array.count; i++) {
+                out.set(array.values[i]);
+            }
+            return out;
+        }
+        BitsetChunk x = (BitsetChunk) a;
+        BitsetChunk y = (BitsetChunk) b;
+        BitsetChunk out = new BitsetChunk();
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            out.words[w] = x.words[w] | y.words[w];
+            count += Long.bitCount(out.words[w]);
+        }
+        out.count = count;
+        return out;
+    }
+
+    private static int andCardinality(Object a, Object b) {
+        if (a instanceof ArrayChunk x && b instanceof ArrayChunk y) {
+            ArrayChunk small = x.count <= y.count ? x : y;
+            ArrayChunk large = small == x ? y : x;
+            int count = 0;
+            if (small.count * GALLOP_RATIO < large.count) {
+                int from = 0;
+                for (int i = 0; i < small.count && from < large.count; i++) {
+                    from = gallop(large, from, small.values[i]);
+                    if (from < large.count && large.values[from] == small.values[i]) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            if (small.count > MERGE_MAX) {
+                return andCardinality(small, toBitset(large));
+            }
+            int i = 0;
+            int j = 0;
+            while (i < x.count && j < y.count) {
+                if (x.values[i] < y.values[j]) {
+                    i++;
+                } else if (x.values[i] > y.values[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+        if (a instanceof ArrayChunk || b instanceof ArrayChunk) {
+            ArrayChunk array = a instanceof ArrayChunk x ? x : (ArrayChunk) b;
+            BitsetChunk bits = a instanceof BitsetChunk x ? x : (BitsetChunk) b;
+            int count = 0;
+            for (int i = 0; i < array.count; i++) {
+                count += bits.bit(array.values[i]);
+            }
+            return count;
+        }
+        BitsetChunk x = (BitsetChunk) a;
+        BitsetChunk y = (BitsetChunk) b;
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            count += Long.bitCount(x.words[w] & y.words[w]);
+        }
+        return count;
+    }
+
+    // First index at or after from whose value is not below target: doubling steps, then a binary search
+    private static int gallop(ArrayChunk array, int from, char target) {
+        int step = 1;
+        int high = from;
+        while (high < array.count && array.values[high] < target) {
+            from = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        int at = Arrays.binarySearch(array.values, from, Math.min(high + 1, array.count), target);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    private static Object copy(Object chunk) {
+        if (chunk instanceof ArrayChunk array) {
+            ArrayChunk out = new ArrayChunk(array.count);
+            System.arraycopy(array.values, 0, out.values, 0, array.count);
+            out.count = array.count;
+            return out;
+        }
+        BitsetChunk bits = (BitsetChunk) chunk;
+        BitsetChunk out = new BitsetChunk();
+        System.arraycopy(bits.words, 0, out.words, 0, WORDS);
+        out.count = bits.count;
+        return out;
+    }
+
+    private static BitsetChunk toBitset(ArrayChunk array) {
+        BitsetChunk bits = new BitsetChunk();
+        for (int i = 0; i < array.count; i++) {
+            bits.words[array.values[i] >>> 6] |= 1L << array.values[i];
+        }
+        bits.count = array.count;
+        return bits;
+    }
+
+    private static ArrayChunk toArray(BitsetChunk bits) {
+        ArrayChunk array = new ArrayChunk(bits.count);
+        for (int w = 0; w < WORDS; w++) {
+            long word = bits.words[w];
+            while (word != 0) {
+                array.values[array.count++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return array;
+    }
+
+    private static final class ArrayChunk {
+        private char[] values;
+        private int count;
+
+        private ArrayChunk() {
+            this(4);
+        }
+
+        private ArrayChunk(int capacity) {
+            values = new char[Math.max(1, capacity)];
+        }
+    }
+
+    private static final class BitsetChunk {
+        private final long[] words = new long[WORDS];
+        private int count;
+
+        private int bit(char low) {
+            return (int) (words[low >>> 6] >>> low) & 1;
+        }
+
+        private void set(char low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before | (1L << low);
+            if (before != words[low >>> 6]) {
+                count++;
+            }
+        }
+
+        private void clear(char low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before & ~(1L << low);
+            if (before != words[low >>> 6]) {
+                count--;
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.model.EmailOutbox;
+import com.eatorbit.backend.model.OutboxStatus;
+import com.eatorbit.backend.repository.EmailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drains email_outbox in the background.
+ * Each poll claims due rows, hands them to a bounded worker pool in batches (one SMTP connection per
+ * batch) and records the outcome; failures are retried with exponential backoff up to max-attempts.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int workers;
+    private final int maxAttempts;
+    private final long backoffBaseSeconds;
+    private final long maxBackoffSeconds;
+    private final long leaseSeconds;
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor pool;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, EmailService emailService,
+            PlatformTransactionManager txManager,
+            @Value("${eatorbit.mail-outbox.enabled:true}") boolean enabled,
+            @Value("${eatorbit.mail-outbox.batch-size:20}") int batchSize,
+            @Value("${eatorbit.mail-outbox.workers:2}") int workers,
+            @Value("${eatorbit.mail-outbox.max-attempts:8}") int maxAttempts,
+            @Value("${eatorbit.mail-outbox.backoff-base-seconds:30}") long backoffBaseSeconds,
+            @Value("${eatorbit.mail-outbox.max-backoff-minutes:60}") long maxBackoffMinutes,
+            @Value("${eatorbit.mail-outbox.lease-minutes:5}") long leaseMinutes,
+            @Value("${eatorbit.mail-outbox.send-timeout-seconds:120}") long sendTimeoutSeconds) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.workers = Math.max(1, workers);
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseSeconds = backoffBaseSeconds;
+        this.maxBackoffSeconds = TimeUnit.MINUTES.toSeconds(maxBackoffMinutes);
+        this.leaseSeconds = TimeUnit.MINUTES.toSeconds(leaseMinutes);
+        // Past this the poll stops waiting; spring.mail socket timeouts make the worker itself give up too
+        this.sendTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(1, Math.min(sendTimeoutSeconds, leaseSeconds)));
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(this.workers, this.workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.workers * 2), runnable -> {
+                    Thread thread = new Thread(runnable, "mail-outbox-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${eatorbit.mail-outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        // Rows keep queueing while disabled and go out once sending is switched back on
+        if (!enabled) {
+            return;
+        }
+        List<EmailOutbox> claimed = claimDue();
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        List<Future<Map<Long, String>>> results = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i += batchSize) {
+            List<EmailOutbox> batch = claimed.subList(i, Math.min(i + batchSize, claimed.size()));
+            results.add(pool.submit(() -> emailService.sendBatch(batch)));
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+        long deadline = System.nanoTime() + sendTimeoutNanos;
+        for (int i = 0; i < results.size(); i++) {
+            List<EmailOutbox> batch = claimed.subList(i * batchSize, Math.min((i + 1) * batchSize, claimed.size()));
+            try {
+                failures.putAll(results.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // Retried with backoff like any failure; the scheduler thread must not wait on a hung server
+                results.get(i).cancel(true);
+                batch.forEach(email -> failures.put(email.getOutboxId(), "SMTP send timed out"));
+            } catch (Exception e) {
+                batch.forEach(email -> failures.put(email.getOutboxId(), EmailService.reasonOf(e)));
+            }
+        }
+        recordOutcome(claimed, failures);
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getFailedAttempts() {
+        return failedAttempts.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private List<EmailOutbox> claimDue() {
+        return tx.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            emailOutboxRepository.releaseExpiredLeases(now);
+            List<Long> due = emailOutboxRepository
+                    .findDue(OutboxStatus.PENDING, now, PageRequest.of(0, batchSize * workers))
+                    .stream().map(EmailOutbox::getOutboxId).collect(Collectors.toList());
+            if (due.isEmpty()) {
+                return new ArrayList<EmailOutbox>();
+            }
+            emailOutboxRepository.claim(due, now.plusSeconds(leaseSeconds));
+            return emailOutboxRepository.findByOutboxIdInAndStatus(due, OutboxStatus.SENDING);
+        });
+    }
+
+    private void recordOutcome(List<EmailOutbox> claimed, Map<Long, String> failures) {
+        tx.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (EmailOutbox email : claimed) {
+                email.setAttempts(email.getAttempts() + 1);
+                if (!failures.containsKey(email.getOutboxId())) {
+                    email.setStatus(OutboxStatus.SENT);
+                    email.setSentAt(now);
+                    email.setLastError(null);
+                    sentCount.incrementAndGet();
+                    continue;
+                }
+                failedAttempts.incrementAndGet();
+                String error = Objects.requireNonNullElse(failures.get(email.getOutboxId()), "Send failed");
+                email.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                if (email.getAttempts() >= maxAttempts) {
+                    email.setStatus(OutboxStatus.FAILED);
+                    System.err.println("WARNING: Giving up on email " + email.getOutboxId() + ": " + error);
+                } else {
+                    email.setStatus(OutboxStatus.PENDING);
+                    email.setNextAttemptAt(now.plusSeconds(backoffSeconds(email.getAttempts())));
+                }
+            }
+            emailOutboxRepository.saveAll(claimed);
+        });
+    }
+
+    // base * 2^(attempt-1), capped, with up to 20% jitter so retries do not arrive in lockstep
+    private long backoffSeconds(int attempt) {
+        long delay = backoffBaseSeconds << Math.min(attempt - 1, 20);
+        delay = Math.min(delay, maxBackoffSeconds);
+        return delay + ThreadLocalRandom.current().nextLong(Math.max(1, delay / 5));
+    }
+}
@@ -1,17 +1,25 @@
 package com.eatorbit.backend.service;
 
+import com.eatorbit.backend.model.EmailOutbox;
 import com.eatorbit.backend.model.Order;
 import com.eatorbit.backend.model.OrderItem;
+import com.eatorbit.backend.repository.EmailOutboxRepository;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class EmailService {
@@ -19,28 +27,75 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private IngredientCatalogService ingredientCatalog;
+
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    @Async
-    public void sendOrderConfirmation(Order order) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(order.getCustomer().getEmail());
-            helper.setSubject("Order Confirmation - " + order.getTokenNumber());
+    // Called inside the order transaction; EmailOutboxDispatcher does the actual SMTP work later
+    public void queueOrderConfirmation(Order order) {
+        EmailOutbox email = new EmailOutbox();
+        email.setOrderId(order.getOrderId());
+        email.setRecipient(order.getCustomer().getEmail());
+        email.setSubject("Order Confirmation - " + order.getTokenNumber());
+        email.setBody(buildOrderReceiptHtml(order));
+        email.setNextAttemptAt(LocalDateTime.now());
+        emailOutboxRepository.save(email);
+    }
 
-            String content = buildOrderReceiptHtml(order);
-            helper.setText(content, true);
+    /**
+     * Sends a batch over a single SMTP connection.
+     * Returns the error message for every outbox id that could not be sent; an empty map means all went out.
+     */
+    public Map<Long, String> sendBatch(List<EmailOutbox> batch) {
+        Map<Long, String> failures = new HashMap<>();
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        for (EmailOutbox email : batch) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                helper.setFrom(fromEmail);
+                helper.setTo(email.getRecipient());
+                helper.setSubject(email.getSubject());
+                helper.setText(email.getBody(), true);
+                ids.put(message, email.getOutboxId());
+                messages.add(message);
+            } catch (MessagingException e) {
+                failures.put(email.getOutboxId(), reasonOf(e));
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
 
-            mailSender.send(message);
-            System.out.println("Email sent successfully to " + order.getCustomer().getEmail());
-        } catch (MessagingException e) {
-            System.err.println("Failed to send email: " + e.getMessage());
-            e.printStackTrace();
+        try {
+            // JavaMailSenderImpl opens one Transport for the whole array
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                messages.forEach(m -> failures.put(ids.get(m), reasonOf(e)));
+            } else {
+                e.getFailedMessages().forEach((message, error) -> {
+                    Long id = message instanceof MimeMessage mime ? ids.get(mime) : null;
+                    if (id != null) {
+                        failures.put(id, reasonOf(error));
+                    }
+                });
+            }
+        } catch (MailException e) {
+            messages.forEach(m -> failures.put(ids.get(m), reasonOf(e)));
         }
+        return failures;
+    }
+
+    // Never null, so callers can tell a failure from a send by the map entry alone
+    static String reasonOf(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getName();
     }
 
     private String buildOrderReceiptHtml(Order order) {
@@ -79,8 +134,10 @@ public class EmailService {
             sb.append("<tr>");
             sb.append("<td style='padding: 10px; border-bottom: 1px solid #eee;'>")
                     .append(item.getFood().getFoodName());
-            if (item.getSelectedIngredients() != null && !item.getSelectedIngredients().isEmpty()) {
-                sb.append("<br><small style='color: #888;'>").append(String.join(", ", item.getSelectedIngredients()))
+            List<String> ingredients = ingredientCatalog.namesOf(order.getOutlet().getOutletId(),
+                    item.getSelectedIngredientIds());
+            if (!ingredients.isEmpty()) {
+                sb.append("<br><small style='color: #888;'>").append(String.join(", ", ingredients))
                         .append("</small>");
             }
             sb.append("</td>");
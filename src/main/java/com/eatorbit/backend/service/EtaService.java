@@ -0,0 +1,249 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.EtaAccuracyDto;
+import com.eatorbit.backend.dto.OrderItemDto;
+import com.eatorbit.backend.event.OrderChangeEvent;
+import com.eatorbit.backend.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Predicts when an order will be ready from two in-memory models, both updated by committed status changes:
+ * an EWMA of PREPARING -> READY time per food item, and an EWMA of the gap between READY orders per outlet
+ * (the kitchen's throughput). Predicting is a queue walk plus a few map lookups; it never queries the database.
+ * An order is estimated by its slowest item, since a stall cooks the items of one ticket side by side.
+ */
+@Service
+public class EtaService {
+
+    private static final long ACCURATE_WITHIN_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private final KitchenQueueService kitchenQueueService;
+    private final double alpha;
+    private final double defaultPrepSeconds;
+    private final double defaultIntervalSeconds;
+    private final double maxIntervalSeconds;
+    private final int maxOpenOrders;
+
+    private final Map<Long, Ewma> foodPrepSeconds = new ConcurrentHashMap<>();
+    private final Map<Long, OutletPace> outletPace = new ConcurrentHashMap<>();
+    private final Map<Long, OpenOrder> openOrders = new ConcurrentHashMap<>();
+
+    // Accuracy of the prediction made at placement against the actual READY time
+    private final SlidingLatencyHistogram absoluteErrors;
+    private long samples;
+    private long accurateSamples;
+    private double absoluteErrorSum;
+    private double signedErrorSum;
+
+    public EtaService(KitchenQueueService kitchenQueueService,
+            @Value("${eatorbit.eta.alpha:0.2}") double alpha,
+            @Value("${eatorbit.eta.default-prep-minutes:8}") double defaultPrepMinutes,
+            @Value("${eatorbit.eta.default-interval-minutes:3}") double defaultIntervalMinutes,
+            @Value("${eatorbit.eta.max-interval-minutes:30}") double maxIntervalMinutes,
+            @Value("${eatorbit.eta.max-open-orders:20000}") int maxOpenOrders) {
+        this.kitchenQueueService = kitchenQueueService;
+        this.alpha = Math.min(1, Math.max(0.01, alpha));
+        this.defaultPrepSeconds = defaultPrepMinutes * 60;
+        this.defaultIntervalSeconds = defaultIntervalMinutes * 60;
+        this.maxIntervalSeconds = maxIntervalMinutes * 60;
+        this.maxOpenOrders = maxOpenOrders;
+        this.absoluteErrors = new SlidingLatencyHistogram(TimeUnit.MINUTES.toMillis(5), 12);
+    }
+
+    // For an order about to be placed: everything already cooking at the outlet is ahead of it
+    public LocalDateTime predictForNewOrder(Long outletId, Collection<Long> foodIds) {
+        int ahead = kitchenQueueService.getCookingAhead(outletId, null);
+        return LocalDateTime.now().plus(queueWait(outletId, ahead)).plus(prepTime(foodIds));
+    }
+
+    /**
+     * Current estimate for an existing order. READY and DELIVERED orders report when they became ready;
+     * cancelled orders have none. foodIds may be null when the caller only knows the order id.
+     */
+    public LocalDateTime predict(Long orderId, Long outletId, OrderStatus status, LocalDateTime statusSince,
+            LocalDateTime readyAt, Collection<Long> foodIds) {
+        if (status == OrderStatus.CANCELLED) {
+            return null;
+        }
+        if (status == OrderStatus.READY || status == OrderStatus.DELIVERED) {
+            return readyAt != null || status == OrderStatus.DELIVERED ? readyAt : statusSince;
+        }
+        Collection<Long> foods = foodIds;
+        if (foods == null) {
+            OpenOrder open = openOrders.get(orderId);
+            foods = open == null ? List.of() : open.foodIds;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Duration prep = prepTime(foods);
+        if (status == OrderStatus.PREPARING && statusSince != null) {
+            LocalDateTime eta = statusSince.plus(prep);
+            return eta.isAfter(now) ? eta : now;
+        }
+        int ahead = kitchenQueueService.getCookingAhead(outletId, orderId);
+        return now.plus(queueWait(outletId, ahead)).plus(prep);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChange(OrderChangeEvent event) {
+        if (event.getType() == OrderChangeEvent.Type.PLACED) {
+            if (openOrders.size() < maxOpenOrders && event.getOrder() != null) {
+                openOrders.put(event.getOrderId(), new OpenOrder(foodIdsOf(event.getOrder().getItems()),
+                        event.getOrder().getPredictedReadyAt()));
+            }
+            return;
+        }
+        OrderStatus status = event.getStatus();
+        if (status == OrderStatus.READY) {
+            onReady(event);
+        }
+        if (status == OrderStatus.READY || status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED) {
+            openOrders.remove(event.getOrderId());
+        }
+    }
+
+    public synchronized EtaAccuracyDto getAccuracy(int windowMinutes) {
+        EtaAccuracyDto dto = new EtaAccuracyDto();
+        dto.setSamples(samples);
+        if (samples > 0) {
+            dto.setMeanAbsoluteErrorSeconds(Math.round(absoluteErrorSum / samples * 10) / 10.0);
+            dto.setMeanSignedErrorSeconds(Math.round(signedErrorSum / samples * 10) / 10.0);
+            dto.setWithinTwoMinutesPercent(Math.round(1000.0 * accurateSamples / samples) / 10.0);
+        }
+        long slotMinutes = TimeUnit.MILLISECONDS.toMinutes(absoluteErrors.getSlotMillis());
+        int windowSlots = (int) Math.max(1, Math.min(absoluteErrors.getSlots(),
+                (Math.max(1, windowMinutes) + slotMinutes - 1) / slotMinutes));
+        long[] merged = absoluteErrors.snapshot(windowSlots, System.currentTimeMillis());
+        long total = SlidingLatencyHistogram.total(merged);
+        dto.setWindowMinutes((int) (windowSlots * slotMinutes));
+        dto.setWindowSamples(total);
+        dto.setAbsoluteErrorP50Seconds(
+                Math.round(SlidingLatencyHistogram.quantileSeconds(merged, total, 0.50) * 10) / 10.0);
+        dto.setAbsoluteErrorP90Seconds(
+                Math.round(SlidingLatencyHistogram.quantileSeconds(merged, total, 0.90) * 10) / 10.0);
+        return dto;
+    }
+
+    private void onReady(OrderChangeEvent event) {
+        LocalDateTime readyAt = event.getChangedAt();
+        OpenOrder open = openOrders.get(event.getOrderId());
+
+        // Only a PREPARING -> READY move measures cooking time cleanly; PLACED -> READY includes queueing
+        if (open != null && event.getPreviousStatus() == OrderStatus.PREPARING
+                && event.getPreviousStatusSince() != null) {
+            double seconds = Math.max(0, Duration.between(event.getPreviousStatusSince(), readyAt).toMillis() / 1000.0);
+            for (Long foodId : open.foodIds) {
+                foodPrepSeconds.computeIfAbsent(foodId, id -> new Ewma(defaultPrepSeconds)).update(seconds, alpha);
+            }
+        }
+
+        outletPace.computeIfAbsent(event.getOutletId(), id -> new OutletPace(defaultIntervalSeconds))
+                .readyAt(System.currentTimeMillis(), alpha, maxIntervalSeconds);
+
+        if (open != null && open.predictedReadyAt != null) {
+            recordAccuracy(Duration.between(open.predictedReadyAt, readyAt).toMillis());
+        }
+    }
+
+    private synchronized void recordAccuracy(long errorMillis) {
+        long absolute = Math.abs(errorMillis);
+        samples++;
+        absoluteErrorSum += absolute / 1000.0;
+        signedErrorSum += errorMillis / 1000.0;
+        if (absolute <= ACCURATE_WITHIN_MILLIS) {
+            accurateSamples++;
+        }
+        absoluteErrors.record(absolute, System.currentTimeMillis());
+    }
+
+    // How long the outlet takes to clear "ahead" orders at its current pace
+    public Duration queueWait(Long outletId, int ahead) {
+        OutletPace pace = outletPace.get(outletId);
+        double interval = pace == null ? defaultIntervalSeconds : pace.intervalSeconds();
+        return Duration.ofMillis((long) (ahead * interval * 1000));
+    }
+
+    private Duration prepTime(Collection<Long> foodIds) {
+        double slowest = 0;
+        for (Long foodId : foodIds) {
+            Ewma ewma = foodPrepSeconds.get(foodId);
+            slowest = Math.max(slowest, ewma == null ? defaultPrepSeconds : ewma.value());
+        }
+        if (foodIds.isEmpty()) {
+            slowest = defaultPrepSeconds;
+        }
+        return Duration.ofMillis((long) (slowest * 1000));
+    }
+
+    private static List<Long> foodIdsOf(List<OrderItemDto> items) {
+        List<Long> ids = new ArrayList<>();
+        if (items != null) {
+            for (OrderItemDto item : items) {
+                if (item.getFoodId() != null && !ids.contains(item.getFoodId())) {
+                    ids.add(item.getFoodId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static final class Ewma {
+        private double value;
+
+        Ewma(double initial) {
+            this.value = initial;
+        }
+
+        synchronized void update(double sample, double alpha) {
+            value += alpha * (sample - value);
+        }
+
+        synchronized double value() {
+            return value;
+        }
+    }
+
+    // Throughput: smoothed gap between consecutive READY orders; long idle gaps are not a signal
+    private static final class OutletPace {
+        private double intervalSeconds;
+        private long lastReadyMillis;
+
+        OutletPace(double initialSeconds) {
+            this.intervalSeconds = initialSeconds;
+        }
+
+        synchronized void readyAt(long nowMillis, double alpha, double maxIntervalSeconds) {
+            if (lastReadyMillis > 0) {
+                double gap = (nowMillis - lastReadyMillis) / 1000.0;
+                if (gap <= maxIntervalSeconds) {
+                    intervalSeconds += alpha * (gap - intervalSeconds);
+                }
+            }
+            lastReadyMillis = nowMillis;
+        }
+
+        synchronized double intervalSeconds() {
+            return intervalSeconds;
+        }
+    }
+
+    private static final class OpenOrder {
+        private final List<Long> foodIds;
+        private final LocalDateTime predictedReadyAt;
+
+        OpenOrder(List<Long> foodIds, LocalDateTime predictedReadyAt) {
+            this.foodIds = foodIds;
+            this.predictedReadyAt = predictedReadyAt;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.FoodSearchHitDto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Facet values of every food (veg, available, seasonal, outlet open, cuisine, price band), each with a
+ * CompactBitmap of the food ids that have it. A filter ORs the bitmaps of the values picked within one facet
+ * and ANDs the facets together, so no food is looked at until the requested page is read out in id order.
+ * Counts are disjunctive: a facet's values are counted against the other facets' selections only, which
+ * is what a customer ticking a second cuisine expects to see.
+ *
+ * Bitmaps are keyed by food id rather than a slot so pages stay in a stable order between requests.
+ * Not thread-safe; MenuSearchService serialises writers against readers.
+ */
+class FacetIndex {
+
+    static final String VEG = "veg";
+    static final String AVAILABLE = "available";
+    static final String SEASONAL = "seasonal";
+    static final String OPEN = "open";
+    static final String CUISINE = "cuisine";
+    static final String PRICE = "price";
+
+    private final BigDecimal[] priceEdges;
+    private final String[] priceBands;
+    private final Map<String, Map<String, Value>> facets = new LinkedHashMap<>();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final Map<Long, Set<Integer>> foodsByOutlet = new HashMap<>();
+    private final CompactBitmap all = new CompactBitmap();
+
+    // Edges split prices into bands: 100,200 gives "under-100", "100-200" and "200-plus"
+    FacetIndex(int[] priceEdges) {
+        int[] edges = Arrays.stream(priceEdges).filter(edge -> edge > 0).sorted().distinct().toArray();
+        this.priceEdges = new BigDecimal[edges.length];
+        this.priceBands = new String[edges.length + 1];
+        for (int i = 0; i < edges.length; i++) {
+            this.priceEdges[i] = BigDecimal.valueOf(edges[i]);
+            this.priceBands[i] = i == 0 ? "under-" + edges[0] : edges[i - 1] + "-" + edges[i];
+        }
+        this.priceBands[edges.length] = edges.length == 0 ? "any" : edges[edges.length - 1] + "-plus";
+
+        for (String facet : List.of(VEG, AVAILABLE, SEASONAL, OPEN)) {
+            Map<String, Value> values = new LinkedHashMap<>();
+            values.put("true", new Value("true"));
+            values.put("false", new Value("false"));
+            facets.put(facet, values);
+        }
+        facets.put(CUISINE, new TreeMap<>());
+        Map<String, Value> bands = new LinkedHashMap<>();
+        for (String band : priceBands) {
+            bands.put(band, new Value(band));
+        }
+        facets.put(PRICE, bands);
+    }
+
+    int size() {
+        return docs.size();
+    }
+
+    int valueCount() {
+        int count = 0;
+        for (Map<String, Value> values : facets.values()) {
+            count += values.size();
+        }
+        return count;
+    }
+
+    boolean isPriceBand(String band) {
+        return facets.get(PRICE).containsKey(band);
+    }
+
+    List<String> priceBands() {
+        return List.of(priceBands);
+    }
+
+    // Swaps an outlet's foods for the given ones; an empty list drops the outlet
+    void replaceOutlet(Long outletId, List<FoodSearchHitDto> foods) {
+        Set<Integer> previous = foodsByOutlet.remove(outletId);
+        if (previous != null) {
+            for (Integer foodId : previous) {
+                remove(foodId);
+            }
+        }
+        for (FoodSearchHitDto food : foods) {
+            add(food);
+        }
+    }
+
+    void add(FoodSearchHitDto food) {
+        if (food.getFoodId() > Integer.MAX_VALUE) {
+            System.err.println("WARNING: Food " + food.getFoodId() + " is beyond the facet index id range");
+            return;
+        }
+        int foodId = food.getFoodId().intValue();
+        remove(foodId);
+        List<Value> values = new ArrayList<>(6);
+        values.add(facets.get(VEG).get(String.valueOf(food.isVeg())));
+        values.add(facets.get(AVAILABLE).get(String.valueOf(food.isAvailable())));
+        values.add(facets.get(SEASONAL).get(String.valueOf(food.isSeasonal())));
+        values.add(facets.get(OPEN).get(String.valueOf(food.isOutletOpen())));
+        if (food.getCuisineType() != null && !food.getCuisineType().isBlank()) {
+            String cuisine = food.getCuisineType().trim();
+            values.add(facets.get(CUISINE).computeIfAbsent(key(cuisine), k -> new Value(cuisine)));
+        }
+        if (food.getPrice() != null) {
+            values.add(facets.get(PRICE).get(priceBand(food.getPrice())));
+        }
+        for (Value value : values) {
+            value.foods.add(foodId);
+        }
+        all.add(foodId);
+        docs.put(foodId, new Doc(food, values.toArray(new Value[0])));
+        foodsByOutlet.computeIfAbsent(food.getOutletId(), k -> new HashSet<>()).add(foodId);
+    }
+
+    void remove(int foodId) {
+        Doc doc = docs.remove(foodId);
+        if (doc == null) {
+            return;
+        }
+        for (Value value : doc.values) {
+            value.foods.remove(foodId);
+        }
+        // Cuisines come and go with outlets; booleans and price bands are always listed
+        facets.get(CUISINE).values().removeIf(value -> value.foods.cardinality() == 0);
+        all.remove(foodId);
+        Set<Integer> outletFoods = foodsByOutlet.get(doc.food.getOutletId());
+        if (outletFoods != null) {
+            outletFoods.remove(foodId);
+        }
+    }
+
+    /**
+     * Foods having, for every facet in selected, at least one of its listed values. Facets missing from
+     * selected or listed with no values do not filter. Unknown values match nothing.
+     */
+    Result filter(Map<String, List<String>> selected, int offset, int limit) {
+        Map<String, CompactBitmap> picks = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> facet : selected.entrySet()) {
+            Map<String, Value> values = facets.get(facet.getKey());
+            if (values == null || facet.getValue() == null || facet.getValue().isEmpty()) {
+                continue;
+            }
+            CompactBitmap union = null;
+            for (String name : facet.getValue()) {
+                Value value = values.get(key(name));
+                CompactBitmap foods = value == null ? new CompactBitmap() : value.foods;
+                union = union == null ? foods : CompactBitmap.or(union, foods);
+            }
+            picks.put(facet.getKey(), union);
+        }
+
+        CompactBitmap matches = intersect(picks, null);
+        List<FoodSearchHitDto> page = new ArrayList<>();
+        for (int foodId : matches.select(offset, limit)) {
+            page.add(docs.get(foodId).food);
+        }
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Value>> facet : facets.entrySet()) {
+            CompactBitmap base = picks.containsKey(facet.getKey()) ? intersect(picks, facet.getKey()) : matches;
+            CompactBitmap probe = base == all ? null : base.forProbing();
+            Map<String, Integer> valueCounts = new LinkedHashMap<>();
+            for (Value value : facet.getValue().values()) {
+                int count = probe == null ? value.foods.cardinality() : probe.andCardinality(value.foods);
+                valueCounts.put(value.label, count);
+            }
+            counts.put(facet.getKey(), valueCounts);
+        }
+        return new Result(page, matches.cardinality(), counts);
+    }
+
+    // AND of every pick except the skipped facet's, smallest first so intermediate results stay small
+    private CompactBitmap intersect(Map<String, CompactBitmap> picks, String skip) {
+        List<CompactBitmap> parts = new ArrayList<>(picks.size());
+        for (Map.Entry<String, CompactBitmap> pick : picks.entrySet()) {
+            if (!pick.getKey().equals(skip)) {
+                parts.add(pick.getValue());
+            }
+        }
+        if (parts.isEmpty()) {
+            return all;
+        }
+        parts.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        CompactBitmap result = parts.get(0);
+        for (int i = 1; i < parts.size() && result.cardinality() > 0; i++) {
+            result = CompactBitmap.and(result, parts.get(i));
+        }
+        return result;
+    }
+
+    private String priceBand(BigDecimal price) {
+        int band = 0;
+        while (band < priceEdges.length && price.compareTo(priceEdges[band]) >= 0) {
+            band++;
+        }
+        return priceBands[band];
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static final class Result {
+        final List<FoodSearchHitDto> foods;
+        final int total;
+        final Map<String, Map<String, Integer>> counts;
+
+        private Result(List<FoodSearchHitDto> foods, int total, Map<String, Map<String, Integer>> counts) {
+            this.foods = foods;
+            this.total = total;
+            this.counts = counts;
+        }
+    }
+
+    private static final class Value {
+        private final String label;
+        private final CompactBitmap foods = new CompactBitmap();
+
+        private Value(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Doc {
+        private final FoodSearchHitDto food;
+        private final Value[] values;
+
+        private Doc(FoodSearchHitDto food, Value[] values) {
+            this.food = food;
+            this.values = values;
+        }
+    }
+}
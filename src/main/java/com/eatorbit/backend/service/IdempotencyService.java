@@ -0,0 +1,149 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.OrderRequest;
+import com.eatorbit.backend.dto.OrderResponse;
+import com.eatorbit.backend.exception.ApiException;
+import com.eatorbit.backend.model.IdempotencyRecord;
+import com.eatorbit.backend.model.User;
+import com.eatorbit.backend.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POST /api/order/place safe to retry with an Idempotency-Key header.
+ * Recent keys live in a bounded, TTL-evicted map holding the in-flight or finished result, so a duplicate
+ * either waits for the first attempt or gets its response without touching the database. Keys that have
+ * left memory fall back to the idempotency_keys table written alongside the order.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final long retentionHours;
+
+    // Insertion-ordered, so the eldest entry is always the first to expire
+    private final LinkedHashMap<String, Entry> recent = new LinkedHashMap<>();
+
+    public IdempotencyService(OrderService orderService, IdempotencyRecordRepository idempotencyRecordRepository,
+            @Value("${eatorbit.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${eatorbit.idempotency.ttl-minutes:15}") long ttlMinutes,
+            @Value("${eatorbit.idempotency.wait-seconds:30}") long waitSeconds,
+            @Value("${eatorbit.idempotency.retention-hours:24}") long retentionHours) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.waitMillis = TimeUnit.SECONDS.toMillis(waitSeconds);
+        this.retentionHours = retentionHours;
+    }
+
+    public OrderResponse placeOrder(OrderRequest request, User customer, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return orderService.placeOrder(request, customer, null);
+        }
+        String key = idempotencyKey.trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ApiException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = customer.getUserId() + ":" + key;
+        Entry mine = new Entry();
+        Entry existing;
+        synchronized (recent) {
+            evictExpired(System.currentTimeMillis());
+            existing = recent.get(cacheKey);
+            if (existing == null) {
+                recent.put(cacheKey, mine);
+            }
+        }
+        if (existing != null) {
+            return await(existing.result);
+        }
+
+        try {
+            OrderResponse response = findPersisted(customer, key)
+                    .orElseGet(() -> orderService.placeOrder(request, customer, key));
+            mine.result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // A concurrent attempt on another node may have won the unique key
+            Optional<OrderResponse> winner = findPersisted(customer, key);
+            if (winner.isPresent()) {
+                mine.result.complete(winner.get());
+                return winner.get();
+            }
+            synchronized (recent) {
+                recent.remove(cacheKey, mine); // Let the client retry a failed attempt
+            }
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${eatorbit.idempotency.purge-interval-ms:3600000}")
+    public void purgePersistedKeys() {
+        int removed = idempotencyRecordRepository.deleteOlderThan(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            System.out.println("Purged " + removed + " expired idempotency keys");
+        }
+    }
+
+    private Optional<OrderResponse> findPersisted(User customer, String key) {
+        return idempotencyRecordRepository.findByCustomerIdAndIdempotencyKey(customer.getUserId(), key)
+                .map(IdempotencyRecord::getOrderId)
+                .map(orderService::getOrderById);
+    }
+
+    private OrderResponse await(CompletableFuture<OrderResponse> result) {
+        try {
+            return result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ApiException("Could not complete order: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new ApiException("An order with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for the original order request");
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> it = recent.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            boolean overCapacity = recent.size() > maxEntries;
+            boolean expired = now - eldest.getValue().createdAt > ttlMillis;
+            // Never drop an in-flight attempt, duplicates must keep waiting on it
+            if ((overCapacity || expired) && eldest.getValue().result.isDone()) {
+                it.remove();
+            } else if (!overCapacity) {
+                break;
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<OrderResponse> result = new CompletableFuture<>();
+        private final long createdAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,156 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.exception.ApiException;
+import com.eatorbit.backend.model.IngredientIdsConverter;
+import com.eatorbit.backend.repository.IngredientItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached per-outlet view of ingredient_items. Cart and order lines store only packed IngredientItem ids
+ * (see IngredientIdsConverter); this turns customer selections into ids when a line is added and ids back
+ * into names when a cart, order or receipt is rendered.
+ *
+ * Ingredients have no write path in the app, so entries simply expire after eatorbit.ingredients.cache-ttl-seconds.
+ * A lookup miss reloads the outlet early, rate-limited so that ids of deleted ingredients cannot cause a reload storm.
+ */
+@Service
+public class IngredientCatalogService {
+
+    // At most 10 varint bytes per id, so any selection of this size fits IngredientIdsConverter.MAX_BYTES
+    public static final int MAX_SELECTED = 24;
+
+    private static final long MISS_RELOAD_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final IngredientItemRepository ingredientItemRepository;
+    private final long ttlNanos;
+    private final Map<Long, Catalogue> catalogues = new ConcurrentHashMap<>();
+
+    public IngredientCatalogService(IngredientItemRepository ingredientItemRepository,
+            @Value("${eatorbit.ingredients.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.ingredientItemRepository = ingredientItemRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+    }
+
+    /**
+     * Resolves a selection to ids of the outlet's ingredients. Ids and names may be mixed; names match
+     * case-insensitively. Returns the ids sorted and de-duplicated, or null for an empty selection.
+     */
+    public long[] resolveSelection(Long outletId, List<Long> ids, List<String> names) {
+        int requested = (ids == null ? 0 : ids.size()) + (names == null ? 0 : names.size());
+        if (requested == 0) {
+            return null;
+        }
+        if (requested > MAX_SELECTED) {
+            throw new ApiException("At most " + MAX_SELECTED + " ingredients can be selected");
+        }
+
+        long[] resolved = new long[requested];
+        int n = 0;
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id == null || nameOf(outletId, id) == null) {
+                    throw new ApiException("Unknown ingredient id: " + id);
+                }
+                resolved[n++] = id;
+            }
+        }
+        if (names != null) {
+            for (String name : names) {
+                Long id = idOf(outletId, name);
+                if (id == null) {
+                    throw new ApiException("Unknown ingredient: " + name);
+                }
+                resolved[n++] = id;
+            }
+        }
+        return IngredientIdsConverter.normalize(resolved);
+    }
+
+    // Names in id order; ids no longer in the catalogue are skipped
+    public List<String> namesOf(Long outletId, long[] ids) {
+        if (ids == null || ids.length == 0) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            String name = nameOf(outletId, id);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    public Long idOf(Long outletId, String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String key = key(name);
+        Catalogue catalogue = catalogue(outletId);
+        Long id = catalogue.idsByName.get(key);
+        if (id == null && catalogue.mayReloadOnMiss()) {
+            id = reload(outletId).idsByName.get(key);
+        }
+        return id;
+    }
+
+    public String nameOf(Long outletId, long id) {
+        Catalogue catalogue = catalogue(outletId);
+        String name = catalogue.namesById.get(id);
+        if (name == null && catalogue.mayReloadOnMiss()) {
+            name = reload(outletId).namesById.get(id);
+        }
+        return name;
+    }
+
+    public void evict(Long outletId) {
+        catalogues.remove(outletId);
+    }
+
+    private Catalogue catalogue(Long outletId) {
+        Catalogue catalogue = catalogues.get(outletId);
+        if (catalogue == null || System.nanoTime() - catalogue.loadedAt > ttlNanos) {
+            catalogue = reload(outletId);
+        }
+        return catalogue;
+    }
+
+    private Catalogue reload(Long outletId) {
+        Catalogue catalogue = new Catalogue(ingredientItemRepository.findCatalogueByOutletId(outletId));
+        catalogues.put(outletId, catalogue);
+        return catalogue;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Catalogue {
+        private final Map<Long, String> namesById = new HashMap<>();
+        private final Map<String, Long> idsByName = new HashMap<>();
+        private final long loadedAt = System.nanoTime();
+
+        private Catalogue(List<Object[]> rows) {
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                String name = (String) row[1];
+                namesById.put(id, name);
+                idsByName.putIfAbsent(key(name), id);
+            }
+        }
+
+        private boolean mayReloadOnMiss() {
+            return System.nanoTime() - loadedAt > MISS_RELOAD_NANOS;
+        }
+    }
+}
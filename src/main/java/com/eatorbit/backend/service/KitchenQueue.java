@@ -0,0 +1,201 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.QueueEntryDto;
+import com.eatorbit.backend.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One outlet's open orders, ordered by placement time then order id.
+ * A treap whose nodes carry subtree sizes and cooking counts, so insert, remove, rank and
+ * cooking-ahead are all O(log n). An entry's status must only change while it is out of the tree.
+ * Not thread-safe; KitchenQueueService serialises access per outlet.
+ */
+class KitchenQueue {
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(QueueEntryDto entry) {
+        root = insert(root, new Node(entry, random.nextInt()));
+    }
+
+    void remove(QueueEntryDto entry) {
+        root = remove(root, entry);
+    }
+
+    // Number of queued orders placed before this one
+    int rank(QueueEntryDto entry) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(entry, node.entry);
+            if (cmp == 0) {
+                return rank + size(node.left);
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    // Number of still-cooking (not READY) orders in the queue
+    int cooking() {
+        return cooking(root);
+    }
+
+    // Number of still-cooking orders placed before this one, whether or not it is queued itself
+    int cookingBefore(QueueEntryDto entry) {
+        int ahead = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(entry, node.entry);
+            if (cmp == 0) {
+                return ahead + cooking(node.left);
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                ahead += cooking(node.left) + (isCooking(node.entry) ? 1 : 0);
+                node = node.right;
+            }
+        }
+        return ahead;
+    }
+
+    List<QueueEntryDto> inOrder() {
+        List<QueueEntryDto> entries = new ArrayList<>(size());
+        collect(root, entries);
+        return entries;
+    }
+
+    private static void collect(Node node, List<QueueEntryDto> out) {
+        while (node != null) {
+            collect(node.left, out);
+            out.add(node.entry);
+            node = node.right;
+        }
+    }
+
+    private Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (compare(fresh.entry, node.entry) < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, QueueEntryDto entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(entry, node.entry);
+        if (cmp < 0) {
+            node.left = remove(node.left, entry);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, entry);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int cooking(Node node) {
+        return node == null ? 0 : node.cooking;
+    }
+
+    static boolean isCooking(QueueEntryDto entry) {
+        return entry.getStatus() != OrderStatus.READY;
+    }
+
+    static int compare(QueueEntryDto a, QueueEntryDto b) {
+        LocalDateTime at = a.getCreatedAt() != null ? a.getCreatedAt() : LocalDateTime.MIN;
+        LocalDateTime bt = b.getCreatedAt() != null ? b.getCreatedAt() : LocalDateTime.MIN;
+        int cmp = at.compareTo(bt);
+        return cmp != 0 ? cmp : a.getOrderId().compareTo(b.getOrderId());
+    }
+
+    private static final class Node {
+        private final QueueEntryDto entry;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private final int self;
+        private int size = 1;
+        private int cooking;
+
+        Node(QueueEntryDto entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+            this.self = isCooking(entry) ? 1 : 0;
+            this.cooking = self;
+        }
+
+        void update() {
+            size = 1 + KitchenQueue.size(left) + KitchenQueue.size(right);
+            cooking = self + KitchenQueue.cooking(left) + KitchenQueue.cooking(right);
+        }
+    }
+}
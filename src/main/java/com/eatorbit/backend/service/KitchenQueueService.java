@@ -0,0 +1,152 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.QueueEntryDto;
+import com.eatorbit.backend.dto.QueuePositionDto;
+import com.eatorbit.backend.event.OrderChangeEvent;
+import com.eatorbit.backend.exception.ResourceNotFoundException;
+import com.eatorbit.backend.model.OrderStatus;
+import com.eatorbit.backend.repository.OrderRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory board of each outlet's open orders (PLACED, PREPARING, READY) in placement order.
+ * Loaded once before the web server starts and kept current from OrderChangeEvent,
+ * so board and queue-position reads never touch the database.
+ */
+@Service
+public class KitchenQueueService implements SmartInitializingSingleton {
+
+    public static final Set<OrderStatus> ACTIVE_STATUSES = EnumSet.of(OrderStatus.PLACED, OrderStatus.PREPARING,
+            OrderStatus.READY);
+
+    private final OrderRepository orderRepository;
+
+    private final Map<Long, KitchenQueue> queues = new ConcurrentHashMap<>();
+    private final Map<Long, QueueEntryDto> byOrderId = new ConcurrentHashMap<>();
+    private final Map<String, QueueEntryDto> byToken = new ConcurrentHashMap<>();
+
+    public KitchenQueueService(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        List<QueueEntryDto> open = orderRepository.findQueueEntries(ACTIVE_STATUSES);
+        open.forEach(this::apply);
+        System.out.println("Kitchen queues loaded: " + open.size() + " open orders across " + queues.size()
+                + " outlets");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChange(OrderChangeEvent event) {
+        apply(new QueueEntryDto(event.getOrderId(), event.getOutletId(), event.getTokenNumber(),
+                event.getStatus(), event.getCreatedAt(), event.getVersion()));
+    }
+
+    public List<QueueEntryDto> getBoard(Long outletId) {
+        KitchenQueue queue = queues.get(outletId);
+        if (queue == null) {
+            return new ArrayList<>();
+        }
+        List<QueueEntryDto> board = new ArrayList<>();
+        synchronized (queue) {
+            int position = 1;
+            for (QueueEntryDto entry : queue.inOrder()) {
+                QueueEntryDto copy = copyOf(entry);
+                copy.setPosition(position++);
+                board.add(copy);
+            }
+        }
+        return board;
+    }
+
+    public QueuePositionDto getPosition(String tokenNumber) {
+        QueueEntryDto entry = byToken.get(tokenNumber);
+        KitchenQueue queue = entry == null ? null : queues.get(entry.getOutletId());
+        if (queue != null) {
+            synchronized (queue) {
+                int ahead = queue.rank(entry);
+                if (ahead >= 0) {
+                    return new QueuePositionDto(entry.getTokenNumber(), entry.getStatus(), ahead + 1, ahead,
+                            queue.size());
+                }
+            }
+        }
+        throw new ResourceNotFoundException("Order is not in the kitchen queue");
+    }
+
+    // Orders still being cooked (PLACED or PREPARING) ahead of orderId; all of them when orderId is null
+    public int getCookingAhead(Long outletId, Long orderId) {
+        KitchenQueue queue = queues.get(outletId);
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            QueueEntryDto entry = orderId == null ? null : byOrderId.get(orderId);
+            return entry == null ? queue.cooking() : queue.cookingBefore(entry);
+        }
+    }
+
+    public int getQueueLength(Long outletId) {
+        KitchenQueue queue = queues.get(outletId);
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private void apply(QueueEntryDto incoming) {
+        KitchenQueue queue = queues.computeIfAbsent(incoming.getOutletId(), id -> new KitchenQueue());
+        synchronized (queue) {
+            QueueEntryDto current = byOrderId.get(incoming.getOrderId());
+            if (current != null && current.getVersion() > incoming.getVersion()) {
+                return; // Out-of-order event, a newer state is already applied
+            }
+            boolean active = ACTIVE_STATUSES.contains(incoming.getStatus());
+            if (current == null) {
+                if (active) {
+                    QueueEntryDto entry = copyOf(incoming);
+                    queue.insert(entry);
+                    byOrderId.put(entry.getOrderId(), entry);
+                    byToken.put(entry.getTokenNumber(), entry);
+                }
+            } else if (active) {
+                // Placement time is the sort key and never changes, so update in place; re-seat the entry
+                // when it stops (or starts) cooking so the tree's cooking counts stay right
+                boolean recount = KitchenQueue.isCooking(current) != KitchenQueue.isCooking(incoming);
+                if (recount) {
+                    queue.remove(current);
+                }
+                current.setStatus(incoming.getStatus());
+                current.setVersion(incoming.getVersion());
+                if (recount) {
+                    queue.insert(current);
+                }
+            } else {
+                queue.remove(current);
+                byOrderId.remove(current.getOrderId());
+                byToken.remove(current.getTokenNumber());
+            }
+        }
+    }
+
+    private static QueueEntryDto copyOf(QueueEntryDto entry) {
+        return new QueueEntryDto(entry.getOrderId(), entry.getOutletId(), entry.getTokenNumber(),
+                entry.getStatus(), entry.getCreatedAt(), entry.getVersion());
+    }
+}
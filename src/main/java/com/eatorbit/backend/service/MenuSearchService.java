@@ -0,0 +1,168 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.FoodFilter;
+import com.eatorbit.backend.dto.FoodFilterPage;
+import com.eatorbit.backend.dto.FoodSearchHitDto;
+import com.eatorbit.backend.event.MenuChangeEvent;
+import com.eatorbit.backend.event.OutletChangeEvent;
+import com.eatorbit.backend.exception.ApiException;
+import com.eatorbit.backend.repository.FoodItemRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Food search and faceted filtering across every outlet, answered from an in-memory SearchIndex and FacetIndex.
+ * Both are loaded once before the web server starts; after that every MenuChangeEvent or OutletChangeEvent
+ * re-reads just that outlet's foods once the write has committed, so neither touches the database.
+ */
+@Service
+public class MenuSearchService implements SmartInitializingSingleton {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 50;
+
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int MAX_QUERY_TOKENS = 8;
+
+    private final FoodItemRepository foodItemRepository;
+    private final TransactionTemplate readTx;
+
+    private final SearchIndex index = new SearchIndex();
+    private final FacetIndex facetIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object reindexLock = new Object(); // Applies outlet reloads in the order they were read
+
+    public MenuSearchService(FoodItemRepository foodItemRepository, PlatformTransactionManager txManager,
+            @Value("${eatorbit.search.price-band-edges:100,200,300}") int[] priceBandEdges) {
+        this.foodItemRepository = foodItemRepository;
+        this.facetIndex = new FacetIndex(priceBandEdges);
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        // Listeners run after the writer's commit, where joining its transaction would not see a fresh one
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.currentTimeMillis();
+        List<SearchIndex.Entry> entries = load(null);
+        lock.writeLock().lock();
+        try {
+            for (SearchIndex.Entry entry : entries) {
+                index.add(entry);
+                facetIndex.add(entry.getFood());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Search index loaded: " + index.size() + " foods, " + index.termCount() + " terms, "
+                + facetIndex.valueCount() + " facet values in " + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    public List<FoodSearchHitDto> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new ApiException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new ApiException("Search query can be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        List<String> tokens = SearchIndex.tokenize(query);
+        if (tokens.size() > MAX_QUERY_TOKENS) {
+            tokens = new ArrayList<>(tokens.subList(0, MAX_QUERY_TOKENS));
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        lock.readLock().lock();
+        try {
+            return index.search(tokens, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FoodFilterPage filter(FoodFilter filter) {
+        if (filter.getPage() < 0) {
+            throw new ApiException("Page must not be negative");
+        }
+        if (filter.getPrice() != null) {
+            for (String band : filter.getPrice()) {
+                if (!facetIndex.isPriceBand(band)) {
+                    throw new ApiException("Unknown price band: " + band + ", expected one of "
+                            + facetIndex.priceBands());
+                }
+            }
+        }
+        Map<String, List<String>> selected = new LinkedHashMap<>();
+        selected.put(FacetIndex.VEG, flag(filter.getVeg()));
+        selected.put(FacetIndex.AVAILABLE, flag(filter.getAvailable()));
+        selected.put(FacetIndex.SEASONAL, flag(filter.getSeasonal()));
+        selected.put(FacetIndex.OPEN, flag(filter.getOpen()));
+        selected.put(FacetIndex.CUISINE, filter.getCuisine());
+        selected.put(FacetIndex.PRICE, filter.getPrice());
+        int size = filter.getSize() == null ? DEFAULT_LIMIT : Math.max(1, Math.min(filter.getSize(), MAX_LIMIT));
+        int offset = (int) Math.min((long) filter.getPage() * size, Integer.MAX_VALUE);
+
+        FacetIndex.Result result;
+        lock.readLock().lock();
+        try {
+            result = facetIndex.filter(selected, offset, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new FoodFilterPage(result.foods, result.total, filter.getPage(), size,
+                (long) offset + result.foods.size() < result.total, result.counts);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChange(MenuChangeEvent event) {
+        reindex(event.getOutletId());
+    }
+
+    // Outlet name, cuisine and open flag are part of every hit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutletChange(OutletChangeEvent event) {
+        reindex(event.getOutletId());
+    }
+
+    private void reindex(Long outletId) {
+        synchronized (reindexLock) {
+            List<SearchIndex.Entry> entries = load(outletId);
+            List<FoodSearchHitDto> foods = new ArrayList<>(entries.size());
+            for (SearchIndex.Entry entry : entries) {
+                foods.add(entry.getFood());
+            }
+            lock.writeLock().lock();
+            try {
+                index.replaceOutlet(outletId, entries);
+                facetIndex.replaceOutlet(outletId, foods);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // All outlets when outletId is null
+    private List<SearchIndex.Entry> load(Long outletId) {
+        List<FoodSearchHitDto> foods = readTx.execute(status -> foodItemRepository.findSearchHits(outletId));
+        List<SearchIndex.Entry> entries = new ArrayList<>(foods.size());
+        for (FoodSearchHitDto food : foods) {
+            entries.add(SearchIndex.entry(food));
+        }
+        return entries;
+    }
+
+    private static List<String> flag(Boolean value) {
+        return value == null ? null : List.of(value.toString());
+    }
+}
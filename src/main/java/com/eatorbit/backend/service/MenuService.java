@@ -1,15 +1,31 @@
 package com.eatorbit.backend.service;
 
 import com.eatorbit.backend.dto.FoodItemDto;
+import com.eatorbit.backend.event.MenuChangeEvent;
 import com.eatorbit.backend.exception.ResourceNotFoundException;
 import com.eatorbit.backend.model.*;
 import com.eatorbit.backend.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Menus and their categories. Customer menus are served from a per-outlet cache: the first request after a
+ * change loads the menu while concurrent requests for the same outlet wait on that load, and every menu write
+ * publishes a MenuChangeEvent that drops the outlet's entry once the write has committed. Each cached menu
+ * is kept serialized as a JsonPayload, so a hit is answered from bytes, or with a 304 by its ETag.
+ */
 @Service
 public class MenuService {
 
@@ -18,15 +34,25 @@ public class MenuService {
         private final OutletRepository outletRepository;
         private final FoodImageRepository foodImageRepository;
         private final IngredientItemRepository ingredientItemRepository;
+        private final ApplicationEventPublisher eventPublisher;
+        private final ObjectMapper objectMapper;
+        private final TransactionTemplate readTx;
+
+        private final SharedLoadCache<Long, CachedMenu> menus = new SharedLoadCache<>("menu");
 
         public MenuService(FoodCategoryRepository categoryRepository, FoodItemRepository foodItemRepository,
                         OutletRepository outletRepository, FoodImageRepository foodImageRepository,
-                        IngredientItemRepository ingredientItemRepository) {
+                        IngredientItemRepository ingredientItemRepository, ApplicationEventPublisher eventPublisher,
+                        ObjectMapper objectMapper, PlatformTransactionManager txManager) {
                 this.categoryRepository = categoryRepository;
                 this.foodItemRepository = foodItemRepository;
                 this.outletRepository = outletRepository;
                 this.foodImageRepository = foodImageRepository;
                 this.ingredientItemRepository = ingredientItemRepository;
+                this.eventPublisher = eventPublisher;
+                this.objectMapper = objectMapper;
+                this.readTx = new TransactionTemplate(txManager);
+                this.readTx.setReadOnly(true);
         }
 
         public List<FoodCategory> getCategories(Long outletId) {
@@ -44,6 +70,7 @@ public class MenuService {
                 return categoryRepository.save(category);
         }
 
+        @Transactional
         public void deleteCategory(Long id) {
                 FoodCategory category = categoryRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
@@ -57,6 +84,7 @@ public class MenuService {
                 }
 
                 categoryRepository.delete(category);
+                eventPublisher.publishEvent(new MenuChangeEvent(category.getOutlet().getOutletId()));
         }
 
         @Transactional
@@ -92,6 +120,7 @@ public class MenuService {
                         }
                 }
 
+                eventPublisher.publishEvent(new MenuChangeEvent(outlet.getOutletId()));
                 return mapToDto(foodItem);
         }
 
@@ -114,25 +143,62 @@ public class MenuService {
                 }
 
                 foodItem = foodItemRepository.save(foodItem);
+                eventPublisher.publishEvent(new MenuChangeEvent(foodItem.getOutlet().getOutletId()));
                 return mapToDto(foodItem);
         }
 
+        @Transactional
         public void deleteFoodItem(Long id) {
-                if (!foodItemRepository.existsById(id)) {
-                        throw new ResourceNotFoundException("Food item not found");
-                }
-                foodItemRepository.deleteById(id);
+                FoodItem foodItem = foodItemRepository.findById(id)
+                                .orElseThrow(() -> new ResourceNotFoundException("Food item not found"));
+                foodItemRepository.delete(foodItem);
+                eventPublisher.publishEvent(new MenuChangeEvent(foodItem.getOutlet().getOutletId()));
         }
 
         public List<FoodItemDto> getMenu(Long outletId) {
-                Outlet outlet = outletRepository.findById(outletId)
-                                .orElseThrow(() -> new ResourceNotFoundException("Outlet not found"));
-                return foodItemRepository.findByOutlet(outlet).stream()
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                return getCachedMenu(outletId).getItems();
+        }
+
+        public CachedMenu getCachedMenu(Long outletId) {
+                return menus.get(outletId, () -> readTx.execute(status -> loadMenu(outletId)));
+        }
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void onMenuChange(MenuChangeEvent event) {
+                menus.invalidate(event.getOutletId());
+        }
+
+        // Four statements whatever the menu size: the outlet check, the foods, and their images and ingredient ids
+        private CachedMenu loadMenu(Long outletId) {
+                if (!outletRepository.existsById(outletId)) {
+                        throw new ResourceNotFoundException("Outlet not found");
+                }
+                Map<Long, List<String>> imageUrls = new HashMap<>();
+                for (Object[] row : foodImageRepository.findUrlsByOutletId(outletId)) {
+                        imageUrls.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+                }
+                Map<Long, List<Long>> ingredientIds = new HashMap<>();
+                for (Object[] row : foodItemRepository.findIngredientIdsByOutletId(outletId)) {
+                        ingredientIds.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Long) row[1]);
+                }
+                List<FoodItemDto> items = new ArrayList<>();
+                for (FoodItem item : foodItemRepository.findByOutletId(outletId)) {
+                        items.add(mapToDto(item, imageUrls.getOrDefault(item.getFoodId(), new ArrayList<>()),
+                                        ingredientIds.getOrDefault(item.getFoodId(), new ArrayList<>())));
+                }
+                return new CachedMenu(Collections.unmodifiableList(items), JsonPayload.of(objectMapper, items));
         }
 
+        // Single foods just written; walks the lazy collections inside the write transaction
         private FoodItemDto mapToDto(FoodItem item) {
+                return mapToDto(item,
+                                item.getImages().stream().map(FoodImage::getImageUrl).collect(Collectors.toList()),
+                                item.getIngredients().stream().map(IngredientItem::getIngredientId)
+                                                .collect(Collectors.toList()));
+        }
+
+        // Outlet and category are read by id only, which does not initialize their proxies
+        private FoodItemDto mapToDto(FoodItem item, List<String> imageUrls, List<Long> ingredientIds) {
                 FoodItemDto dto = new FoodItemDto();
                 dto.setFoodId(item.getFoodId());
                 dto.setOutletId(item.getOutlet().getOutletId());
@@ -143,9 +209,27 @@ public class MenuService {
                 dto.setAvailable(item.isAvailable());
                 dto.setVeg(item.isVeg());
                 dto.setSeasonal(item.isSeasonal());
-                dto.setImageUrls(item.getImages().stream().map(FoodImage::getImageUrl).collect(Collectors.toList()));
-                dto.setIngredientIds(item.getIngredients().stream().map(IngredientItem::getIngredientId)
-                                .collect(Collectors.toList()));
+                dto.setImageUrls(imageUrls);
+                dto.setIngredientIds(ingredientIds);
                 return dto;
         }
+
+        // The menu as objects, for the owner screens, and as the bytes served to customers
+        public static final class CachedMenu {
+                private final List<FoodItemDto> items;
+                private final JsonPayload payload;
+
+                CachedMenu(List<FoodItemDto> items, JsonPayload payload) {
+                        this.items = items;
+                        this.payload = payload;
+                }
+
+                public List<FoodItemDto> getItems() {
+                        return items;
+                }
+
+                public JsonPayload getPayload() {
+                        return payload;
+                }
+        }
 }
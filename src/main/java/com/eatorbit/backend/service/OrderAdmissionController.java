@@ -0,0 +1,201 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.AdmissionStatusDto;
+import com.eatorbit.backend.event.OrderChangeEvent;
+import com.eatorbit.backend.exception.OutletBusyException;
+import com.eatorbit.backend.model.OrderStatus;
+import com.eatorbit.backend.model.Outlet;
+import com.eatorbit.backend.repository.OrderRepository;
+import com.eatorbit.backend.repository.OutletRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-outlet backpressure for order placement. Each outlet has a cap on orders still waiting for the
+ * kitchen (PLACED or PREPARING) and an orders-per-minute budget; either can be off. Both are plain
+ * atomics: the open count is reserved with one increment and released when the order leaves the
+ * kitchen, and the rate budget is a GCRA timestamp advanced by one compare-and-set. Counts are loaded
+ * once at startup and kept current from OrderChangeEvent, so admitting an order never queries the
+ * database.
+ */
+@Service
+public class OrderAdmissionController implements SmartInitializingSingleton {
+
+    public static final Set<OrderStatus> KITCHEN_STATUSES = EnumSet.of(OrderStatus.PLACED, OrderStatus.PREPARING);
+
+    private final OrderRepository orderRepository;
+    private final OutletRepository outletRepository;
+    private final EtaService etaService;
+    private final int defaultMaxOpenOrders;
+    private final int defaultOrdersPerMinute;
+    private final int burst;
+
+    private final Map<Long, Gate> gates = new ConcurrentHashMap<>();
+
+    public OrderAdmissionController(OrderRepository orderRepository, OutletRepository outletRepository,
+            EtaService etaService,
+            @Value("${eatorbit.admission.max-open-orders:0}") int defaultMaxOpenOrders,
+            @Value("${eatorbit.admission.orders-per-minute:0}") int defaultOrdersPerMinute,
+            @Value("${eatorbit.admission.burst:5}") int burst) {
+        this.orderRepository = orderRepository;
+        this.outletRepository = outletRepository;
+        this.etaService = etaService;
+        this.defaultMaxOpenOrders = Math.max(0, defaultMaxOpenOrders);
+        this.defaultOrdersPerMinute = Math.max(0, defaultOrdersPerMinute);
+        this.burst = Math.max(1, burst);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Outlet outlet : outletRepository.findWithAdmissionLimits()) {
+            configure(outlet.getOutletId(), outlet.getMaxOpenOrders(), outlet.getOrdersPerMinute());
+        }
+        List<Object[]> counts = orderRepository.countByOutletAndStatusIn(KITCHEN_STATUSES);
+        for (Object[] row : counts) {
+            gate((Long) row[0]).open.set(((Number) row[1]).intValue());
+        }
+        System.out.println("Admission counters loaded for " + counts.size() + " outlets");
+    }
+
+    // Null falls back to the platform default, 0 turns the limit off
+    public void configure(Long outletId, Integer maxOpenOrders, Integer ordersPerMinute) {
+        gate(outletId).limit(
+                maxOpenOrders != null ? Math.max(0, maxOpenOrders) : defaultMaxOpenOrders,
+                ordersPerMinute != null ? Math.max(0, ordersPerMinute) : defaultOrdersPerMinute,
+                burst);
+    }
+
+    /**
+     * Reserves a kitchen slot for an order about to be placed, or throws OutletBusyException with an
+     * estimated wait. Call inside the placement transaction: a rollback hands the slot back.
+     */
+    public void admit(Long outletId) {
+        Gate gate = gate(outletId);
+
+        int open = gate.open.incrementAndGet();
+        int maxOpen = gate.maxOpenOrders;
+        if (maxOpen > 0 && open > maxOpen) {
+            gate.release();
+            gate.rejectedAtCapacity.incrementAndGet();
+            // Wait for the kitchen to finish enough orders to bring this one under the cap
+            long waitSeconds = etaService.queueWait(outletId, open - maxOpen).toSeconds();
+            throw busy(Math.max(1, waitSeconds));
+        }
+
+        long rateWaitMillis = gate.takeRateSlot(System.currentTimeMillis());
+        if (rateWaitMillis > 0) {
+            gate.release();
+            gate.rejectedOverRate.incrementAndGet();
+            throw busy(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(rateWaitMillis + 999)));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        gate.release();
+                    }
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChange(OrderChangeEvent event) {
+        // Placements were counted by admit(); only leaving the kitchen releases a slot
+        if (event.getType() == OrderChangeEvent.Type.STATUS_CHANGED
+                && KITCHEN_STATUSES.contains(event.getPreviousStatus())
+                && !KITCHEN_STATUSES.contains(event.getStatus())) {
+            gate(event.getOutletId()).release();
+        }
+    }
+
+    // Live view for the outlet owner; the configured limits come from the outlet row
+    public AdmissionStatusDto getStatus(Outlet outlet) {
+        Gate gate = gate(outlet.getOutletId());
+        AdmissionStatusDto dto = new AdmissionStatusDto();
+        dto.setOutletId(outlet.getOutletId());
+        dto.setMaxOpenOrders(outlet.getMaxOpenOrders());
+        dto.setOrdersPerMinute(outlet.getOrdersPerMinute());
+        dto.setEffectiveMaxOpenOrders(gate.maxOpenOrders);
+        dto.setEffectiveOrdersPerMinute(gate.ordersPerMinute);
+        dto.setOpenOrders(gate.open.get());
+        dto.setRejectedAtCapacity(gate.rejectedAtCapacity.get());
+        dto.setRejectedOverRate(gate.rejectedOverRate.get());
+        return dto;
+    }
+
+    private Gate gate(Long outletId) {
+        return gates.computeIfAbsent(outletId,
+                id -> new Gate(defaultMaxOpenOrders, defaultOrdersPerMinute, burst));
+    }
+
+    private static OutletBusyException busy(long waitSeconds) {
+        long minutes = (waitSeconds + 59) / 60;
+        String estimate = waitSeconds < 60 ? waitSeconds + " seconds"
+                : minutes + (minutes == 1 ? " minute" : " minutes");
+        return new OutletBusyException(
+                "This outlet is at capacity right now. Please try again in about " + estimate + ".", waitSeconds);
+    }
+
+    private static final class Gate {
+        private final AtomicInteger open = new AtomicInteger();
+        // GCRA theoretical arrival time in epoch millis; the budget is spent when it runs ahead of now
+        private final AtomicLong nextSlotMillis = new AtomicLong();
+        private final AtomicLong rejectedAtCapacity = new AtomicLong();
+        private final AtomicLong rejectedOverRate = new AtomicLong();
+        private volatile int maxOpenOrders;
+        private volatile int ordersPerMinute;
+        private volatile long intervalMillis;
+        private volatile long toleranceMillis;
+
+        Gate(int maxOpenOrders, int ordersPerMinute, int burst) {
+            limit(maxOpenOrders, ordersPerMinute, burst);
+        }
+
+        void limit(int maxOpenOrders, int ordersPerMinute, int burst) {
+            this.maxOpenOrders = maxOpenOrders;
+            this.ordersPerMinute = ordersPerMinute;
+            this.intervalMillis = ordersPerMinute == 0 ? 0 : TimeUnit.MINUTES.toMillis(1) / ordersPerMinute;
+            this.toleranceMillis = intervalMillis * (burst - 1);
+        }
+
+        // 0 when a slot was taken, else how long until the next one frees up
+        long takeRateSlot(long nowMillis) {
+            long interval = intervalMillis;
+            if (interval == 0) {
+                return 0;
+            }
+            while (true) {
+                long next = nextSlotMillis.get();
+                long start = Math.max(next, nowMillis);
+                long wait = start - nowMillis - toleranceMillis;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (nextSlotMillis.compareAndSet(next, start + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        // Never below zero, in case a release races the startup load
+        void release() {
+            open.updateAndGet(count -> count > 0 ? count - 1 : 0);
+        }
+    }
+}
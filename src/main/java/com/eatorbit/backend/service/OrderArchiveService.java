@@ -0,0 +1,159 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.ArchiveStatsDto;
+import com.eatorbit.backend.exception.ApiException;
+import com.eatorbit.backend.model.OrderStatus;
+import com.eatorbit.backend.repository.ArchivedOrderRepository;
+import com.eatorbit.backend.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves DELIVERED/CANCELLED orders older than retention-days from the hot tables into the *_archive tables.
+ * Each chunk is copied and deleted in its own short transaction, so a crash leaves every order in exactly
+ * one place and live traffic never waits behind one long delete.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final List<String> TERMINAL_STATUSES =
+            List.of(OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name());
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong ordersArchived = new AtomicLong();
+    private final AtomicLong itemsArchived = new AtomicLong();
+    private volatile LastRun lastRun;
+
+    public OrderArchiveService(ArchivedOrderRepository archivedOrderRepository, OrderRepository orderRepository,
+            PlatformTransactionManager txManager,
+            @Value("${eatorbit.order-archive.enabled:true}") boolean enabled,
+            @Value("${eatorbit.order-archive.retention-days:30}") int retentionDays,
+            @Value("${eatorbit.order-archive.chunk-size:500}") int chunkSize,
+            @Value("${eatorbit.order-archive.max-chunks-per-run:200}") int maxChunksPerRun) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderRepository = orderRepository;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.retentionDays = Math.max(0, retentionDays);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxChunksPerRun = Math.max(1, maxChunksPerRun);
+    }
+
+    @Scheduled(initialDelayString = "${eatorbit.order-archive.initial-delay-ms:60000}",
+            fixedDelayString = "${eatorbit.order-archive.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (enabled && running.compareAndSet(false, true)) {
+            try {
+                archive();
+            } catch (RuntimeException e) {
+                System.err.println("WARNING: Order archival failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    // Manual trigger for admins; refuses to overlap with the scheduled run
+    public ArchiveStatsDto runNow() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ApiException("Order archival is already running");
+        }
+        try {
+            archive();
+        } finally {
+            running.set(false);
+        }
+        return getStats();
+    }
+
+    public ArchiveStatsDto getStats() {
+        ArchiveStatsDto stats = new ArchiveStatsDto();
+        stats.setRuns(runs.get());
+        stats.setOrdersArchived(ordersArchived.get());
+        stats.setItemsArchived(itemsArchived.get());
+        LastRun run = lastRun;
+        if (run != null) {
+            stats.setLastRunAt(run.startedAt);
+            stats.setLastRunMillis(run.millis);
+            stats.setLastRunOrders(run.orders);
+            stats.setHotOrdersBeforeLastRun(run.hotBefore);
+            stats.setHotOrdersAfterLastRun(run.hotAfter);
+        }
+        stats.setHotOrders(orderRepository.count());
+        stats.setArchivedOrders(archivedOrderRepository.count());
+        return stats;
+    }
+
+    private void archive() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime cutoff = startedAt.minusDays(retentionDays);
+        long started = System.nanoTime();
+        long hotBefore = orderRepository.count();
+
+        long moved = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int[] counts = tx.execute(status -> moveChunk(cutoff, startedAt));
+            // Counted only after the chunk committed
+            ordersArchived.addAndGet(counts[0]);
+            itemsArchived.addAndGet(counts[1]);
+            moved += counts[0];
+            if (counts[0] < chunkSize) {
+                break;
+            }
+        }
+
+        long hotAfter = orderRepository.count();
+        runs.incrementAndGet();
+        lastRun = new LastRun(startedAt, (System.nanoTime() - started) / 1_000_000, moved, hotBefore, hotAfter);
+        if (moved > 0) {
+            System.out.println("DEBUG: Archived " + moved + " orders, hot table " + hotBefore + " -> " + hotAfter);
+        }
+    }
+
+    // Returns {orders, items} moved; ingredient selections travel inside the item rows
+    private int[] moveChunk(LocalDateTime cutoff, LocalDateTime archivedAt) {
+        List<Long> ids = archivedOrderRepository.findArchivableIds(TERMINAL_STATUSES, cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return new int[2];
+        }
+        // Parents first on insert, children first on delete, so foreign keys hold at every step
+        int orders = archivedOrderRepository.copyOrders(ids, archivedAt);
+        int items = archivedOrderRepository.copyItems(ids);
+        archivedOrderRepository.deleteHotItems(ids);
+        archivedOrderRepository.deleteHotOrders(ids);
+        return new int[]{orders, items};
+    }
+
+    private static class LastRun {
+        private final LocalDateTime startedAt;
+        private final long millis;
+        private final long orders;
+        private final long hotBefore;
+        private final long hotAfter;
+
+        LastRun(LocalDateTime startedAt, long millis, long orders, long hotBefore, long hotAfter) {
+            this.startedAt = startedAt;
+            this.millis = millis;
+            this.orders = orders;
+            this.hotBefore = hotBefore;
+            this.hotAfter = hotAfter;
+        }
+    }
+}
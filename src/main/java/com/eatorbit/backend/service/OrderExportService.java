@@ -0,0 +1,164 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.OrderExportFilter;
+import com.eatorbit.backend.dto.OrderExportRow;
+import com.eatorbit.backend.exception.ApiException;
+import com.eatorbit.backend.repository.ArchivedOrderRepository;
+import com.eatorbit.backend.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders straight from a forward-only result set to the response as JSON lines or CSV.
+ * Rows are projections written and dropped one at a time, so memory stays flat however many match.
+ */
+@Service
+public class OrderExportService {
+
+    public static final String FORMAT_JSONL = "jsonl";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String CSV_HEADER = "orderId,tokenNumber,outletId,outletName,customerId,customerEmail,"
+            + "status,paymentStatus,paymentMethod,totalAmount,createdAt\n";
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTx;
+
+    public OrderExportService(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+            ObjectMapper objectMapper, PlatformTransactionManager txManager) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.objectMapper = objectMapper;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    // Validates up front so a bad request still gets a normal 400 before any bytes are written
+    public StreamingResponseBody export(OrderExportFilter filter) {
+        String format = filter.getFormat() == null ? FORMAT_JSONL : filter.getFormat().toLowerCase();
+        if (!FORMAT_JSONL.equals(format) && !FORMAT_CSV.equals(format)) {
+            throw new ApiException("format must be jsonl or csv");
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new ApiException("from must not be after to");
+        }
+        if (filter.getLimit() != null && filter.getLimit() < 1) {
+            throw new ApiException("limit must be positive");
+        }
+        boolean csv = FORMAT_CSV.equals(format);
+        LocalDateTime from = filter.getFrom() == null ? null : filter.getFrom().atStartOfDay();
+        LocalDateTime to = filter.getTo() == null ? null : filter.getTo().plusDays(1).atStartOfDay();
+        long limit = filter.getLimit() == null ? Long.MAX_VALUE : filter.getLimit();
+        Sort sort = filter.isNewestFirst() ? Sort.by("orderId").descending() : Sort.by("orderId");
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            long[] written = {0};
+            try {
+                // Archived orders are the older ones, so the archive goes first oldest-first and last newest-first
+                boolean history = filter.isIncludeHistory();
+                if (history && !filter.isNewestFirst()) {
+                    writeArchived(filter, from, to, sort, writer, csv, written, limit);
+                }
+                if (written[0] < limit) {
+                    readTx.executeWithoutResult(status -> {
+                        try (Stream<OrderExportRow> rows = orderRepository.streamForExport(filter.getOutletId(),
+                                filter.getStatus(), filter.getPaymentStatus(), from, to, sort)) {
+                            writeRows(rows, writer, csv, written, limit);
+                        }
+                    });
+                }
+                if (history && filter.isNewestFirst() && written[0] < limit) {
+                    writeArchived(filter, from, to, sort, writer, csv, written, limit);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Client went away; let the container close the response
+            }
+            writer.flush();
+        };
+    }
+
+    private void writeArchived(OrderExportFilter filter, LocalDateTime from, LocalDateTime to, Sort sort,
+            Writer writer, boolean csv, long[] written, long limit) {
+        readTx.executeWithoutResult(status -> {
+            try (Stream<OrderExportRow> rows = archivedOrderRepository.streamForExport(filter.getOutletId(),
+                    filter.getStatus(), filter.getPaymentStatus(), from, to, sort)) {
+                writeRows(rows, writer, csv, written, limit);
+            }
+        });
+    }
+
+    private void writeRows(Stream<OrderExportRow> rows, Writer writer, boolean csv, long[] written, long limit) {
+        rows.limit(limit - written[0]).forEach(row -> {
+            try {
+                if (csv) {
+                    writeCsv(row, writer);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeCsv(OrderExportRow row, Writer writer) throws IOException {
+        writer.write(String.valueOf(row.getOrderId()));
+        writer.write(',');
+        writer.write(csvField(row.getTokenNumber()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getOutletId()));
+        writer.write(',');
+        writer.write(csvField(row.getOutletName()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getCustomerId()));
+        writer.write(',');
+        writer.write(csvField(row.getCustomerEmail()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getStatus()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getPaymentStatus()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getPaymentMethod()));
+        writer.write(',');
+        writer.write(row.getTotalAmount() == null ? "" : row.getTotalAmount().toPlainString());
+        writer.write(',');
+        writer.write(row.getCreatedAt() == null ? "" : row.getCreatedAt().toString());
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralised so spreadsheets don't evaluate it
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String safe = "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (safe.indexOf(',') >= 0 || safe.indexOf('"') >= 0 || safe.indexOf('\n') >= 0 || safe.indexOf('\r') >= 0) {
+            return '"' + safe.replace("\"", "\"\"") + '"';
+        }
+        return safe;
+    }
+}
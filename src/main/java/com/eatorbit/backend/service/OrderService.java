@@ -1,75 +1,126 @@
 package com.eatorbit.backend.service;
 
 import com.eatorbit.backend.dto.OrderItemDto;
+import com.eatorbit.backend.dto.StatusTransitionRequest;
+import com.eatorbit.backend.dto.StatusTransitionResult;
+import com.eatorbit.backend.dto.OrderPage;
+import com.eatorbit.backend.dto.OrderStatusSnapshot;
 import com.eatorbit.backend.dto.OrderRequest;
 import com.eatorbit.backend.dto.OrderResponse;
+import com.eatorbit.backend.event.OrderChangeEvent;
 import com.eatorbit.backend.exception.ApiException;
 import com.eatorbit.backend.exception.ResourceNotFoundException;
 import com.eatorbit.backend.model.*;
-import com.eatorbit.backend.repository.CartRepository;
+import com.eatorbit.backend.repository.ArchivedOrderRepository;
+import com.eatorbit.backend.repository.FoodItemRepository;
+import com.eatorbit.backend.repository.IdempotencyRecordRepository;
 import com.eatorbit.backend.repository.OrderRepository;
 import com.eatorbit.backend.repository.OutletRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    public static final int DEFAULT_FEED_LIMIT = 50;
+    public static final int MAX_FEED_LIMIT = 100;
+    public static final int MAX_BULK_TRANSITIONS = 200;
+
     private final OrderRepository orderRepository;//Save & fetch orders
-    private final CartRepository cartRepository; //Get customer cart
-    private final CartService cartService;//Clear cart after order
+    private final CartStore cartStore;//Read and clear the customer's cart
+    private final FoodItemRepository foodItemRepository;//Foods of the cart lines
     private final OutletRepository outletRepository;//Validate outlet
     private final EmailService emailService;//Send confirmation email
+    private final ApplicationEventPublisher eventPublisher;//Notify live order listeners
+    private final TokenAllocator tokenAllocator;//Per-outlet daily pickup tokens
+    private final IdempotencyRecordRepository idempotencyRecordRepository;//Retry-safe order placement
+    private final ArchivedOrderRepository archivedOrderRepository;//Cold history, read only on request
+    private final OutletStatsService outletStatsService;//Dashboard rollups
+    private final EtaService etaService;//Predicted ready times
+    private final OrderAdmissionController orderAdmissionController;//Per-outlet backpressure
+    private final IngredientCatalogService ingredientCatalog;//Ingredient names for order lines
 
-    public OrderService(OrderRepository orderRepository, CartRepository cartRepository, CartService cartService,
-            OutletRepository outletRepository, EmailService emailService) {
+    public OrderService(OrderRepository orderRepository, CartStore cartStore, FoodItemRepository foodItemRepository,
+            OutletRepository outletRepository, EmailService emailService, ApplicationEventPublisher eventPublisher,
+            TokenAllocator tokenAllocator, IdempotencyRecordRepository idempotencyRecordRepository,
+            ArchivedOrderRepository archivedOrderRepository, OutletStatsService outletStatsService,
+            EtaService etaService, OrderAdmissionController orderAdmissionController,
+            IngredientCatalogService ingredientCatalog) {
         this.orderRepository = orderRepository;
-        this.cartRepository = cartRepository;
-        this.cartService = cartService;
+        this.cartStore = cartStore;
+        this.foodItemRepository = foodItemRepository;
         this.outletRepository = outletRepository;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.tokenAllocator = tokenAllocator;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.outletStatsService = outletStatsService;
+        this.etaService = etaService;
+        this.orderAdmissionController = orderAdmissionController;
+        this.ingredientCatalog = ingredientCatalog;
     }
 
     @Transactional
-    public OrderResponse placeOrder(OrderRequest request, User customer) {
+    public OrderResponse placeOrder(OrderRequest request, User customer, String idempotencyKey) {
         System.out.println("DEBUG: Placing order for customer: " + customer.getEmail());
-        Cart cart = cartRepository.findByCustomer(customer)
-                .orElseThrow(() -> new ApiException("Cart is empty"));
+        // Held until this transaction ends, so the cart cannot change under the order built from it
+        ActiveCart cart = cartStore.lockForCheckout(customer);
 
-        if (cart.getItems().isEmpty()) {
+        if (cart.isEmpty()) {
             throw new ApiException("Cart is empty");
         }
 
-        if (cart.getOutlet() == null) {
+        if (cart.getOutletId() == null) {
             throw new ApiException("Cart outlet information is missing. Please clear your cart and try again.");
         }
 
+        Map<Long, FoodItem> foods = new HashMap<>();
+        for (FoodItem food : foodItemRepository.findAllById(cart.getLines().stream()
+                .map(ActiveCart.Line::getFoodId).collect(Collectors.toList()))) {
+            foods.put(food.getFoodId(), food);
+        }
+        if (foods.size() < cart.getLines().size()) {
+            throw new ApiException("An item in your cart is no longer on the menu. Please remove it and try again.");
+        }
+
+        // 429 before a token is spent; the slot is handed back if this transaction rolls back
+        orderAdmissionController.admit(cart.getOutletId());
+
         Order order = new Order();
         order.setCustomer(customer);
-        order.setOutlet(cart.getOutlet());
-        order.setTokenNumber(generateToken());
-        order.setStatus(OrderStatus.PLACED);
+        order.setOutlet(outletRepository.getReferenceById(cart.getOutletId()));
+        order.setTokenNumber(tokenAllocator.nextToken(cart.getOutletId()));
+        order.changeStatus(OrderStatus.PLACED, LocalDateTime.now());
         order.setTotalAmount(cart.getTotalAmount());
         order.setPaymentStatus(PaymentStatus.PENDING);
         order.setPaymentMethod(request.getPaymentMethod() != null ? request.getPaymentMethod() : PaymentMethod.UPI);
 
-        System.out.println("DEBUG: Created order shell. Items in cart: " + cart.getItems().size());
+        System.out.println("DEBUG: Created order shell. Items in cart: " + cart.getLines().size());
 
-        List<OrderItem> orderItems = cart.getItems().stream().map(cartItem -> {
+        List<OrderItem> orderItems = cart.getLines().stream().map(line -> {
             OrderItem item = new OrderItem();
             item.setOrder(order);
-            item.setFood(cartItem.getFood());
-            item.setQuantity(cartItem.getQuantity());
-            // Create a new list for ingredients to avoid sharing reference with CartItem
-            if (cartItem.getSelectedIngredients() != null) {
-                item.setSelectedIngredients(new ArrayList<>(cartItem.getSelectedIngredients()));
-            }
-            item.setTotalPrice(cartItem.getTotalPrice());
+            item.setFood(foods.get(line.getFoodId()));
+            item.setQuantity(line.getQuantity());
+            // Packed id arrays are never modified in place, so the order line can share the cart line's
+            item.setSelectedIngredientIds(line.getIngredientIds());
+            item.setTotalPrice(line.getTotalPrice());
             return item;
         }).collect(Collectors.toList());
 
@@ -78,17 +129,23 @@ public class OrderService {
         try {
             Order savedOrder = orderRepository.saveAndFlush(order);
             System.out.println("DEBUG: Order saved with ID: " + savedOrder.getOrderId());
-
-            // Send email confirmation asynchronously
-            try {
-                emailService.sendOrderConfirmation(savedOrder);
-            } catch (Exception e) {
-                System.err.println("WARNING: Failed to trigger email service: " + e.getMessage());
-                // Don't fail the order if email fails
+            if (idempotencyKey != null) {
+                idempotencyRecordRepository.save(
+                        new IdempotencyRecord(customer.getUserId(), idempotencyKey, savedOrder.getOrderId()));
             }
 
-            cartService.clearCart(cart);
-            return mapToDto(savedOrder);
+            outletStatsService.apply(outletStatsService.newBatch().placed(savedOrder.getOutlet().getOutletId(),
+                    savedOrder.getCreatedAt(), savedOrder.getTotalAmount(), savedOrder.getStatus()));
+
+            // Queued in this transaction; EmailOutboxDispatcher sends it after commit
+            emailService.queueOrderConfirmation(savedOrder);
+
+            cartStore.clearAtCheckout(cart);
+            OrderResponse response = mapToDto(savedOrder);
+            response.setPredictedReadyAt(etaService.predictForNewOrder(savedOrder.getOutlet().getOutletId(),
+                    foodIdsOf(savedOrder)));
+            eventPublisher.publishEvent(OrderChangeEvent.placed(response, savedOrder.getOutlet().getOutletId()));
+            return response;
         } catch (Exception e) {
             System.err.println("ERROR: Failed to save order: " + e.getMessage());
             e.printStackTrace();
@@ -97,57 +154,280 @@ public class OrderService {
     }
 
     public OrderResponse getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsByOrderId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-        return mapToDto(order);
+        return withPrediction(order);
     }
 
     public OrderResponse trackOrderByToken(String token) {
         Order order = orderRepository.findByTokenNumber(token)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-        return mapToDto(order);
+        return withPrediction(order);
     }
 
-    public List<OrderResponse> getOrdersByOutlet(Long outletId) {
-        Outlet outlet = outletRepository.findById(outletId)
-                .orElseThrow(() -> new ResourceNotFoundException("Outlet not found"));
-        return orderRepository.findByOutlet(outlet).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());//Outlet Owner dashboard
+    private OrderResponse withPrediction(Order order) {
+        OrderResponse response = mapToDto(order);
+        response.setPredictedReadyAt(etaService.predict(order.getOrderId(), order.getOutlet().getOutletId(),
+                order.getStatus(), order.getStatusSince(), order.getReadyAt(), foodIdsOf(order)));
+        return response;
+    }
+
+    private static List<Long> foodIdsOf(Order order) {
+        return order.getItems().stream().map(item -> item.getFood().getFoodId()).distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrdersByOutlet(Long outletId, boolean includeHistory) {
+        // Walks the keyset feed so every page stays N+1 free; oldest first like before
+        List<OrderResponse> orders = new ArrayList<>();
+        if (includeHistory) {
+            archivedOrderRepository.findHistoryByOutlet(outletId).forEach(a -> orders.add(mapArchivedToDto(a)));
+        }
+        List<OrderResponse> hot = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderPage page = getOrderFeed(outletId, cursor, null, MAX_FEED_LIMIT);
+            hot.addAll(page.getOrders());
+            cursor = page.isHasMore() ? page.getNextCursor() : null;
+        } while (cursor != null);
+        Collections.reverse(hot);
+        orders.addAll(hot); // Archived orders are always older than the hot ones
+        return orders;//Outlet Owner dashboard
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage getOrderFeed(Long outletId, String cursor, OrderStatus status, Integer limit) {
+        if (!outletRepository.existsById(outletId)) {
+            throw new ResourceNotFoundException("Outlet not found");
+        }
+        int pageSize = limit == null ? DEFAULT_FEED_LIMIT : Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        // Fetch one extra row to know whether another page exists
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findFeedPage(outletId, status, window);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            orders = orderRepository.findFeedPageAfter(outletId, status, after.createdAt, after.orderId, window);
+        }
+
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = new ArrayList<>(orders.subList(0, pageSize));
+        }
+        if (!orders.isEmpty()) {
+            orderRepository.fetchItems(orders);
+        }
+
+        List<OrderResponse> dtos = orders.stream().map(this::mapToDto).collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getOrderId()).encode();
+        }
+        return new OrderPage(dtos, nextCursor, hasMore);
     }
   
+    @Transactional
     public OrderResponse updateOrderStatus(Long orderId, OrderStatus status) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-        order.setStatus(status);
-        return mapToDto(orderRepository.save(order));//Changes status like PREPARING, READY, COMPLETED
+        OrderStatus previousStatus = order.getStatus();
+        if (previousStatus == status) {
+            return mapToDto(order);
+        }
+        if (!OrderStatusTransitions.isAllowed(previousStatus, status)) {
+            throw new ApiException("Cannot move order from " + previousStatus + " to " + status);
+        }
+        LocalDateTime previousSince = order.getStatusSince();
+        LocalDateTime changedAt = LocalDateTime.now();
+        order.changeStatus(status, changedAt);
+        Order saved = orderRepository.saveAndFlush(order); // Flush so the bumped version is visible
+        outletStatsService.apply(outletStatsService.newBatch().moved(saved.getOutlet().getOutletId(),
+                saved.getCreatedAt(), saved.getTotalAmount(), previousStatus, status));
+        eventPublisher.publishEvent(OrderChangeEvent.statusChanged(saved.getOrderId(),
+                saved.getOutlet().getOutletId(), saved.getTokenNumber(), previousStatus, status,
+                saved.getCreatedAt(), changedAt, previousSince, saved.getVersion()));
+        return mapToDto(saved);//Changes status like PREPARING, READY, COMPLETED
+    }
+
+    /**
+     * Applies many status moves for one outlet with few statements: one locking snapshot read and one
+     * version-guarded UPDATE per distinct (from, to, version) group. An order counts as moved only when its
+     * group's UPDATE matched every row; the lock means a concurrent single move either finished before the
+     * snapshot (and shows up in it) or waits until this transaction commits.
+     */
+    @Transactional
+    public List<StatusTransitionResult> bulkUpdateStatus(Long outletId, List<StatusTransitionRequest> transitions) {
+        if (outletId == null || transitions == null || transitions.isEmpty()) {
+            throw new ApiException("outletId and at least one transition are required");
+        }
+        if (transitions.size() > MAX_BULK_TRANSITIONS) {
+            throw new ApiException("At most " + MAX_BULK_TRANSITIONS + " transitions per request");
+        }
+
+        Map<Long, OrderStatus> requested = new LinkedHashMap<>();
+        for (StatusTransitionRequest transition : transitions) {
+            if (transition.getOrderId() == null || transition.getStatus() == null) {
+                throw new ApiException("Each transition needs an orderId and a status");
+            }
+            requested.put(transition.getOrderId(), transition.getStatus()); // Last one wins for duplicates
+        }
+
+        Map<Long, OrderStatusSnapshot> before = new LinkedHashMap<>();
+        orderRepository.lockStatusSnapshots(requested.keySet()).forEach(s -> before.put(s.getOrderId(), s));
+
+        Map<Long, StatusTransitionResult> results = new LinkedHashMap<>();
+        Map<OrderStatus, Map<OrderStatus, Map<Long, List<Long>>>> groups = new LinkedHashMap<>();
+        requested.forEach((orderId, to) -> {
+            OrderStatusSnapshot current = before.get(orderId);
+            if (current == null || !outletId.equals(current.getOutletId())) {
+                results.put(orderId, StatusTransitionResult.rejected(orderId, null, "Order not found"));
+            } else if (current.getStatus() == to) {
+                results.put(orderId, StatusTransitionResult.rejected(orderId, to, "Order is already " + to));
+            } else if (!OrderStatusTransitions.isAllowed(current.getStatus(), to)) {
+                results.put(orderId, StatusTransitionResult.rejected(orderId, current.getStatus(),
+                        "Cannot move order from " + current.getStatus() + " to " + to));
+            } else {
+                groups.computeIfAbsent(current.getStatus(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(to, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(current.getVersion(), k -> new ArrayList<>()).add(orderId);
+            }
+        });
+        if (groups.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+
+        List<Long> moved = new ArrayList<>();
+        LocalDateTime changedAt = LocalDateTime.now();
+        groups.forEach((from, byTarget) -> byTarget.forEach((to, byVersion) -> byVersion.forEach((version, ids) -> {
+            int updated = orderRepository.transitionStatus(ids, outletId, version, from, to, changedAt,
+                    to == OrderStatus.PREPARING ? changedAt : null, to == OrderStatus.READY ? changedAt : null,
+                    to == OrderStatus.DELIVERED ? changedAt : null, to == OrderStatus.CANCELLED ? changedAt : null);
+            if (updated == ids.size()) {
+                moved.addAll(ids);
+            } else if (updated == 0) {
+                ids.forEach(orderId -> results.put(orderId, StatusTransitionResult.rejected(orderId, from,
+                        "Order was changed concurrently")));
+            } else {
+                // Some rows of the group moved and there is no telling which; roll the whole batch back
+                throw new ConcurrencyFailureException("Orders of outlet " + outletId + " changed during a bulk move");
+            }
+        })));
+
+        Map<Long, BigDecimal> amounts = new HashMap<>();
+        if (!moved.isEmpty() && requested.containsValue(OrderStatus.CANCELLED)) {
+            // Only cancellations change revenue, so only they need the order total
+            for (Object[] row : orderRepository.findTotalAmounts(moved)) {
+                amounts.put((Long) row[0], (BigDecimal) row[1]);
+            }
+        }
+
+        OutletStatsService.Batch stats = outletStatsService.newBatch();
+        for (Long orderId : moved) {
+            OrderStatusSnapshot previous = before.get(orderId);
+            OrderStatus target = requested.get(orderId);
+            long version = previous.getVersion() + 1;
+            results.put(orderId, StatusTransitionResult.applied(orderId, target, version));
+            stats.moved(outletId, previous.getCreatedAt(), amounts.get(orderId), previous.getStatus(), target);
+            eventPublisher.publishEvent(OrderChangeEvent.statusChanged(orderId, outletId,
+                    previous.getTokenNumber(), previous.getStatus(), target, previous.getCreatedAt(), changedAt,
+                    previous.getStatusSince(), version));
+        }
+
+        outletStatsService.apply(stats);
+
+        List<StatusTransitionResult> ordered = new ArrayList<>();
+        requested.keySet().forEach(orderId -> ordered.add(results.get(orderId)));
+        return ordered;
     }
 
-    public List<OrderResponse> getOrdersByCustomer(User customer) {
-        return orderRepository.findByCustomer(customer).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());//Customer dashboard
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrdersByCustomer(User customer, boolean includeHistory) {
+        List<OrderResponse> orders = new ArrayList<>();
+        if (includeHistory) {
+            archivedOrderRepository.findHistoryByCustomer(customer.getUserId())
+                    .forEach(a -> orders.add(mapArchivedToDto(a)));
+        }
+        orderRepository.findByCustomer(customer).forEach(o -> orders.add(mapToDto(o)));
+        return orders;//Customer dashboard
     }
 
-    private String generateToken() {
-        return "TKN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();//generated random token
+    // Opaque position in the outlet feed: created_at + order_id of the last row served
+    private static class FeedCursor {
+        private final LocalDateTime createdAt;
+        private final Long orderId;
+
+        FeedCursor(LocalDateTime createdAt, Long orderId) {
+            this.createdAt = createdAt;
+            this.orderId = orderId;
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + orderId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static FeedCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int split = raw.lastIndexOf('|');
+                return new FeedCursor(LocalDateTime.parse(raw.substring(0, split)),
+                        Long.parseLong(raw.substring(split + 1)));
+            } catch (RuntimeException e) {
+                throw new ApiException("Invalid cursor");
+            }
+        }
     }
 
     private OrderResponse mapToDto(Order order) {
         OrderResponse response = new OrderResponse();
         response.setOrderId(order.getOrderId());
         response.setTokenNumber(order.getTokenNumber());
+        response.setPickupCode(TokenAllocator.pickupCode(order.getTokenNumber()));
+        response.setOutletName(order.getOutlet().getOutletName());
+        response.setStatus(order.getStatus());
+        response.setTotalAmount(order.getTotalAmount());
+        response.setPaymentStatus(order.getPaymentStatus());
+        response.setCreatedAt(order.getCreatedAt());
+        response.setStatusVersion(order.getVersion());
+
+        Long outletId = order.getOutlet().getOutletId();
+        List<OrderItemDto> itemDtos = order.getItems().stream().map(item -> {
+            OrderItemDto itemDto = new OrderItemDto();
+            itemDto.setFoodId(item.getFood().getFoodId());
+            itemDto.setFoodName(item.getFood().getFoodName());
+            itemDto.setQuantity(item.getQuantity());
+            itemDto.setSelectedIngredients(ingredientCatalog.namesOf(outletId, item.getSelectedIngredientIds()));
+            itemDto.setTotalPrice(item.getTotalPrice());
+            return itemDto;
+        }).collect(Collectors.toList());
+
+        response.setItems(itemDtos);
+        return response;
+    }
+
+    private OrderResponse mapArchivedToDto(ArchivedOrder order) {
+        OrderResponse response = new OrderResponse();
+        response.setOrderId(order.getOrderId());
+        response.setTokenNumber(order.getTokenNumber());
+        response.setPickupCode(TokenAllocator.pickupCode(order.getTokenNumber()));
         response.setOutletName(order.getOutlet().getOutletName());
         response.setStatus(order.getStatus());
         response.setTotalAmount(order.getTotalAmount());
         response.setPaymentStatus(order.getPaymentStatus());
         response.setCreatedAt(order.getCreatedAt());
+        response.setStatusVersion(order.getVersion());
 
+        Long outletId = order.getOutlet().getOutletId();
         List<OrderItemDto> itemDtos = order.getItems().stream().map(item -> {
             OrderItemDto itemDto = new OrderItemDto();
+            itemDto.setFoodId(item.getFood().getFoodId());
             itemDto.setFoodName(item.getFood().getFoodName());
             itemDto.setQuantity(item.getQuantity());
-            itemDto.setSelectedIngredients(item.getSelectedIngredients());
+            itemDto.setSelectedIngredients(ingredientCatalog.namesOf(outletId, item.getSelectedIngredientIds()));
             itemDto.setTotalPrice(item.getTotalPrice());
             return itemDto;
         }).collect(Collectors.toList());
@@ -0,0 +1,33 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.model.OrderStatus;
+
+/**
+ * Legal order status moves, compiled once into a lookup table indexed by enum ordinal.
+ * DELIVERED and CANCELLED are final.
+ */
+public final class OrderStatusTransitions {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final boolean[][] ALLOWED = new boolean[STATUSES.length][STATUSES.length];
+
+    static {
+        allow(OrderStatus.PENDING, OrderStatus.PLACED, OrderStatus.CANCELLED);
+        allow(OrderStatus.PLACED, OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.CANCELLED);
+        allow(OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.CANCELLED);
+        allow(OrderStatus.READY, OrderStatus.DELIVERED);
+    }
+
+    private OrderStatusTransitions() {
+    }
+
+    public static boolean isAllowed(OrderStatus from, OrderStatus to) {
+        return from != null && to != null && ALLOWED[from.ordinal()][to.ordinal()];
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... targets) {
+        for (OrderStatus to : targets) {
+            ALLOWED[from.ordinal()][to.ordinal()] = true;
+        }
+    }
+}
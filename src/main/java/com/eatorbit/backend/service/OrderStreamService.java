@@ -0,0 +1,242 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.OrderStreamEvent;
+import com.eatorbit.backend.event.OrderChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes order deltas to vendor dashboards over Server-Sent Events.
+ * Each outlet keeps a short replay log so a reconnecting client can resume from its Last-Event-ID.
+ */
+@Service
+public class OrderStreamService {
+
+    private final ObjectMapper objectMapper;
+    private final int replaySize;
+    private final int subscriberBuffer;
+    private final long timeoutMillis;
+
+    private final Map<Long, OutletChannel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newFixedThreadPool(2, daemon("order-stream-sender"));
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            daemon("order-stream-heartbeat"));
+
+    public OrderStreamService(ObjectMapper objectMapper,
+            @Value("${eatorbit.order-stream.replay-size:256}") int replaySize,
+            @Value("${eatorbit.order-stream.subscriber-buffer:64}") int subscriberBuffer,
+            @Value("${eatorbit.order-stream.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${eatorbit.order-stream.timeout-minutes:30}") long timeoutMinutes) {
+        this.objectMapper = objectMapper;
+        this.replaySize = replaySize;
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    public SseEmitter subscribe(Long outletId, String lastEventId) {
+        OutletChannel channel = channels.computeIfAbsent(outletId, id -> new OutletChannel());
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscriber.enqueue(SseEmitter.event().reconnectTime(3000).comment("connected"));
+        channel.attach(subscriber, parseEventId(lastEventId));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChange(OrderChangeEvent event) {
+        OrderStreamEvent delta = new OrderStreamEvent();
+        delta.setType(event.getType().name());
+        delta.setOrderId(event.getOrderId());
+        delta.setTokenNumber(event.getTokenNumber());
+        delta.setPreviousStatus(event.getPreviousStatus());
+        delta.setStatus(event.getStatus());
+        delta.setOrder(event.getOrder());
+        channels.computeIfAbsent(event.getOutletId(), id -> new OutletChannel()).publish(delta);
+    }
+
+    public int getSubscriberCount(Long outletId) {
+        OutletChannel channel = channels.get(outletId);
+        return channel == null ? 0 : channel.subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close));
+        senders.shutdownNow();
+    }
+
+    private void sendHeartbeats() {
+        for (OutletChannel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                if (subscriber.queue.isEmpty()) {
+                    subscriber.enqueue(SseEmitter.event().comment("hb"));
+                }
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(OrderStreamEvent delta, String json) {
+        return SseEmitter.event().id(Long.toString(delta.getEventId())).name(delta.getType()).data(json);
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1L; // Unknown id forces a resync
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class OutletChannel {
+        private final ArrayDeque<OrderStreamEvent> replay = new ArrayDeque<>();
+        private final ArrayDeque<String> replayJson = new ArrayDeque<>();
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private long lastEventId;
+
+        synchronized void publish(OrderStreamEvent delta) {
+            delta.setEventId(++lastEventId);
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(delta);
+            } catch (JsonProcessingException e) {
+                System.err.println("WARNING: Could not serialize order event: " + e.getMessage());
+                return;
+            }
+            replay.addLast(delta);
+            replayJson.addLast(json);
+            while (replay.size() > replaySize) {
+                replay.removeFirst();
+                replayJson.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(toSse(delta, json));
+            }
+        }
+
+        // Registers under the channel lock so no event is missed or sent twice between replay and live
+        synchronized void attach(Subscriber subscriber, Long afterEventId) {
+            if (afterEventId != null) {
+                long oldestAvailable = replay.isEmpty() ? lastEventId + 1 : replay.peekFirst().getEventId();
+                // A replay that cannot fit the subscriber's queue would overflow it and drop the client on every
+                // reconnect, so a client that far behind reloads instead
+                boolean tooFarBehind = lastEventId - afterEventId > subscriber.queue.remainingCapacity();
+                if (afterEventId < oldestAvailable - 1 || afterEventId > lastEventId || tooFarBehind) {
+                    // Gap is no longer in the log or the queue (or the server restarted): client must reload its list
+                    subscriber.enqueue(SseEmitter.event().id(Long.toString(lastEventId)).name("RESYNC").data("{}"));
+                } else {
+                    List<OrderStreamEvent> events = new ArrayList<>(replay);
+                    List<String> payloads = new ArrayList<>(replayJson);
+                    for (int i = 0; i < events.size(); i++) {
+                        if (events.get(i).getEventId() > afterEventId) {
+                            subscriber.enqueue(toSse(events.get(i), payloads.get(i)));
+                        }
+                    }
+                }
+            }
+            if (!subscriber.closed) {
+                subscribers.add(subscriber);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final OutletChannel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(OutletChannel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Slow consumer: drop it, the client reconnects and replays from its Last-Event-ID
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed && !queue.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        void detach() {
+            closed = true;
+            channel.subscribers.remove(this);
+            queue.clear();
+        }
+
+        void close() {
+            detach();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // Already completed
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.OrderResponse;
+import com.eatorbit.backend.event.OrderChangeEvent;
+import com.eatorbit.backend.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Long-poll support for customer order tracking.
+ * Keeps the latest known snapshot per token and parks waiting requests until its version moves past
+ * the one the client already has, so repeated polls do not hit the database.
+ */
+@Service
+public class OrderTrackingService {
+
+    private final OrderService orderService;
+    private final EtaService etaService;
+    private final int maxTrackedOrders;
+
+    private final Map<String, TrackedOrder> tracked = new ConcurrentHashMap<>();
+
+    public OrderTrackingService(OrderService orderService, EtaService etaService,
+            @Value("${eatorbit.order-tracking.max-tracked-orders:20000}") int maxTrackedOrders) {
+        this.orderService = orderService;
+        this.etaService = etaService;
+        this.maxTrackedOrders = maxTrackedOrders;
+    }
+
+    public DeferredResult<ResponseEntity<OrderResponse>> poll(String token, long knownVersion, long timeoutMillis) {
+        DeferredResult<ResponseEntity<OrderResponse>> result = new DeferredResult<>(timeoutMillis);
+        TrackedOrder watched;
+        while (true) {
+            // Register before reading, so a change committed during the read reaches the entry
+            TrackedOrder entry = tracked.get(token);
+            if (entry == null) {
+                evictIfFull();
+                TrackedOrder fresh = new TrackedOrder(null);
+                entry = tracked.putIfAbsent(token, fresh);
+                if (entry == null) {
+                    entry = fresh;
+                }
+            }
+            load(token, entry);
+            synchronized (entry) {
+                if (entry.evicted) {
+                    continue; // Dropped between lookup and parking; events now go to a new entry
+                }
+                if (entry.snapshot.getStatusVersion() > knownVersion) {
+                    result.setResult(ResponseEntity.ok(entry.snapshot));
+                    return result;
+                }
+                entry.waiters.add(result);
+            }
+            watched = entry;
+            break;
+        }
+        result.onTimeout(() -> result.setResult(ResponseEntity.noContent()
+                .header("X-Order-Version", String.valueOf(knownVersion)).build()));
+        result.onCompletion(() -> {
+            synchronized (watched) {
+                watched.waiters.remove(result);
+            }
+        });
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChange(OrderChangeEvent event) {
+        if (event.getType() == OrderChangeEvent.Type.PLACED) {
+            // The customer usually starts tracking right after checkout; seed so that costs no query
+            evictIfFull();
+            tracked.putIfAbsent(event.getTokenNumber(), new TrackedOrder(event.getOrder()));
+            return;
+        }
+
+        TrackedOrder entry = tracked.get(event.getTokenNumber());
+        if (entry == null) {
+            return; // Nobody is watching this order
+        }
+        List<DeferredResult<ResponseEntity<OrderResponse>>> toWake;
+        OrderResponse snapshot;
+        synchronized (entry) {
+            if (entry.snapshot == null) {
+                entry.missedVersion = Math.max(entry.missedVersion, event.getVersion()); // Loader re-reads
+                return;
+            }
+            if (event.getVersion() <= entry.snapshot.getStatusVersion()) {
+                return;
+            }
+            // DELIVERED keeps the READY time already in the snapshot
+            LocalDateTime predictedReadyAt = event.getStatus() == OrderStatus.DELIVERED
+                    ? entry.snapshot.getPredictedReadyAt()
+                    : etaService.predict(event.getOrderId(), event.getOutletId(), event.getStatus(),
+                            event.getChangedAt(), null, null);
+            entry.snapshot = withStatus(entry.snapshot, event.getStatus(), event.getVersion(), predictedReadyAt);
+            snapshot = entry.snapshot;
+            toWake = new ArrayList<>(entry.waiters);
+            entry.waiters.clear();
+            if (isFinal(event.getStatus())) {
+                tracked.remove(event.getTokenNumber(), entry);
+            }
+        }
+        toWake.forEach(waiter -> waiter.setResult(ResponseEntity.ok(snapshot)));
+    }
+
+    public int getTrackedCount() {
+        return tracked.size();
+    }
+
+    // Reads the snapshot for an entry still being loaded, again if a newer change arrived meanwhile
+    private void load(String token, TrackedOrder entry) {
+        for (int attempt = 0; ; attempt++) {
+            synchronized (entry) {
+                // Changes are published after commit, so one re-read normally catches up; never spin on it
+                if (entry.snapshot != null
+                        && (entry.missedVersion <= entry.snapshot.getStatusVersion() || attempt >= 3)) {
+                    break;
+                }
+            }
+            OrderResponse loaded;
+            try {
+                loaded = orderService.trackOrderByToken(token); // 404 for unknown tokens
+            } catch (RuntimeException e) {
+                tracked.remove(token, entry);
+                throw e;
+            }
+            synchronized (entry) {
+                if (entry.snapshot == null || loaded.getStatusVersion() > entry.snapshot.getStatusVersion()) {
+                    entry.snapshot = loaded;
+                }
+            }
+        }
+        if (isFinal(entry.snapshot.getStatus())) {
+            tracked.remove(token, entry); // Nothing will change any more; answer from it but don't keep it
+        }
+    }
+
+    // Drops idle entries (no parked requests) once the registry reaches its cap
+    private void evictIfFull() {
+        if (tracked.size() < maxTrackedOrders) {
+            return;
+        }
+        Iterator<Map.Entry<String, TrackedOrder>> it = tracked.entrySet().iterator();
+        int toDrop = Math.max(1, maxTrackedOrders / 10);
+        while (it.hasNext() && toDrop > 0) {
+            TrackedOrder entry = it.next().getValue();
+            synchronized (entry) {
+                if (entry.waiters.isEmpty() && entry.snapshot != null) {
+                    entry.evicted = true;
+                    it.remove();
+                    toDrop--;
+                }
+            }
+        }
+    }
+
+    private static boolean isFinal(OrderStatus status) {
+        return status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED;
+    }
+
+    private static OrderResponse withStatus(OrderResponse source, OrderStatus status, long version,
+            LocalDateTime predictedReadyAt) {
+        OrderResponse copy = new OrderResponse();
+        copy.setOrderId(source.getOrderId());
+        copy.setTokenNumber(source.getTokenNumber());
+        copy.setPickupCode(source.getPickupCode());
+        copy.setOutletName(source.getOutletName());
+        copy.setStatus(status);
+        copy.setTotalAmount(source.getTotalAmount());
+        copy.setPaymentStatus(source.getPaymentStatus());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setStatusVersion(version);
+        copy.setPredictedReadyAt(predictedReadyAt);
+        copy.setItems(source.getItems());
+        return copy;
+    }
+
+    private static final class TrackedOrder {
+        private OrderResponse snapshot; // null until the first load finishes
+        private long missedVersion; // Highest change seen while snapshot was still null
+        private boolean evicted;
+        private final List<DeferredResult<ResponseEntity<OrderResponse>>> waiters = new ArrayList<>();
+
+        TrackedOrder(OrderResponse snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
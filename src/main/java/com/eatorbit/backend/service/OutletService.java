@@ -1,6 +1,9 @@
 package com.eatorbit.backend.service;
 
+import com.eatorbit.backend.dto.AdmissionStatusDto;
 import com.eatorbit.backend.dto.OutletDto;
+import com.eatorbit.backend.event.MenuChangeEvent;
+import com.eatorbit.backend.event.OutletChangeEvent;
 import com.eatorbit.backend.exception.ApiException;
 import com.eatorbit.backend.exception.ResourceNotFoundException;
 import com.eatorbit.backend.model.Outlet;
@@ -12,8 +15,13 @@ import com.eatorbit.backend.model.Cart;
 import com.eatorbit.backend.model.IngredientCategory;
 import com.eatorbit.backend.model.Event;
 import com.eatorbit.backend.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,25 +29,47 @@ import java.util.stream.Collectors;
 @Service
 public class OutletService {
 
+    private static final Long ALL_OUTLETS = 0L;
+
     private final OutletRepository outletRepository;
     private final FoodItemRepository foodItemRepository;
     private final FoodCategoryRepository categoryRepository;
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final CartRepository cartRepository;
     private final IngredientCategoryRepository ingredientCategoryRepository;
     private final EventRepository eventRepository;
+    private final OrderAdmissionController orderAdmissionController;
+    private final IngredientCatalogService ingredientCatalog;
+    private final CartStore cartStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTx;
+
+    // The public outlet list, serialized once per change to any outlet
+    private final SharedLoadCache<Long, JsonPayload> outletList = new SharedLoadCache<>("outlet list");
 
     public OutletService(OutletRepository outletRepository, FoodItemRepository foodItemRepository,
             FoodCategoryRepository categoryRepository, OrderRepository orderRepository,
-            CartRepository cartRepository, IngredientCategoryRepository ingredientCategoryRepository,
-            EventRepository eventRepository) {
+            ArchivedOrderRepository archivedOrderRepository, CartRepository cartRepository, IngredientCategoryRepository ingredientCategoryRepository,
+            EventRepository eventRepository, OrderAdmissionController orderAdmissionController,
+            IngredientCatalogService ingredientCatalog, CartStore cartStore,
+            ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper, PlatformTransactionManager txManager) {
         this.outletRepository = outletRepository;
         this.foodItemRepository = foodItemRepository;
         this.categoryRepository = categoryRepository;
         this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
         this.cartRepository = cartRepository;
         this.ingredientCategoryRepository = ingredientCategoryRepository;
         this.eventRepository = eventRepository;
+        this.orderAdmissionController = orderAdmissionController;
+        this.ingredientCatalog = ingredientCatalog;
+        this.cartStore = cartStore;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
     }
 
     public OutletDto createOutlet(OutletDto dto, User owner) {
@@ -53,6 +83,7 @@ public class OutletService {
         outlet.setImageUrl(dto.getImageUrl());
 
         outlet = outletRepository.save(outlet);
+        eventPublisher.publishEvent(new OutletChangeEvent(outlet.getOutletId()));
         return mapToDto(outlet);
     }
 
@@ -63,19 +94,30 @@ public class OutletService {
     }
 
     public List<OutletDto> getAllOutlets() {
-        return outletRepository.findAll().stream()
+        return outletRepository.findAllWithOwner().stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
+    public JsonPayload getAllOutletsPayload() {
+        return outletList.get(ALL_OUTLETS,
+                () -> readTx.execute(status -> JsonPayload.of(objectMapper, getAllOutlets())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutletChange(OutletChangeEvent event) {
+        outletList.invalidateAll();
+    }
+
     public OutletDto getOutletById(Long id) {
-        Outlet outlet = outletRepository.findById(id)
+        Outlet outlet = outletRepository.findWithOwnerByOutletId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Outlet not found"));
         return mapToDto(outlet);
     }
 
+    @Transactional
     public OutletDto updateOutlet(Long id, OutletDto dto, User owner) {
-        Outlet outlet = outletRepository.findById(id)
+        Outlet outlet = outletRepository.findWithOwnerByOutletId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Outlet not found"));
 
         if (!outlet.getOwner().getUserId().equals(owner.getUserId())) {
@@ -90,9 +132,11 @@ public class OutletService {
         outlet.setImageUrl(dto.getImageUrl());
 
         outlet = outletRepository.save(outlet);
+        eventPublisher.publishEvent(new OutletChangeEvent(id));
         return mapToDto(outlet);
     }
 
+    @Transactional
     public OutletDto updateOutletByAdmin(Long id, OutletDto dto, User owner) {
         Outlet outlet = outletRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Outlet not found"));
@@ -106,14 +150,45 @@ public class OutletService {
         outlet.setImageUrl(dto.getImageUrl());
 
         outlet = outletRepository.save(outlet);
+        eventPublisher.publishEvent(new OutletChangeEvent(id));
         return mapToDto(outlet);
     }
 
+    public AdmissionStatusDto getAdmissionStatus(Long id, User owner) {
+        return orderAdmissionController.getStatus(getOwnedOutlet(id, owner));
+    }
+
+    // Limits live on the outlet row; the in-memory gate picks them up once the save has committed
+    public AdmissionStatusDto updateAdmissionLimits(Long id, AdmissionStatusDto dto, User owner) {
+        Outlet outlet = getOwnedOutlet(id, owner);
+        if ((dto.getMaxOpenOrders() != null && dto.getMaxOpenOrders() < 0)
+                || (dto.getOrdersPerMinute() != null && dto.getOrdersPerMinute() < 0)) {
+            throw new ApiException("Limits must be zero (unlimited) or positive");
+        }
+        outlet.setMaxOpenOrders(dto.getMaxOpenOrders());
+        outlet.setOrdersPerMinute(dto.getOrdersPerMinute());
+        outlet = outletRepository.save(outlet);
+        eventPublisher.publishEvent(new OutletChangeEvent(id));
+        orderAdmissionController.configure(outlet.getOutletId(), outlet.getMaxOpenOrders(),
+                outlet.getOrdersPerMinute());
+        return orderAdmissionController.getStatus(outlet);
+    }
+
+    private Outlet getOwnedOutlet(Long id, User owner) {
+        Outlet outlet = outletRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Outlet not found"));
+        if (!outlet.getOwner().getUserId().equals(owner.getUserId())) {
+            throw new ApiException("You don't own this outlet");
+        }
+        return outlet;
+    }
+
     public void updateQrCode(Long outletId, String qrUrl) {
         Outlet outlet = outletRepository.findById(outletId)
                 .orElseThrow(() -> new ResourceNotFoundException("Outlet not found"));
         outlet.setQrImageUrl(qrUrl);
         outletRepository.save(outlet);
+        eventPublisher.publishEvent(new OutletChangeEvent(outletId));
     }
 
     @Transactional
@@ -121,13 +196,17 @@ public class OutletService {
         Outlet outlet = outletRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Outlet not found"));
 
-        // 1. Delete Carts related to this outlet
+        // 1. Delete Carts related to this outlet, in memory first so a pending flush cannot write them back
+        cartStore.evictOutlet(id);
         List<Cart> carts = cartRepository.findByOutlet(outlet);
         cartRepository.deleteAll(carts);
 
         // 2. Delete Orders related to this outlet (Cascades to OrderItems)
         List<Order> orders = orderRepository.findByOutlet(outlet);
         orderRepository.deleteAll(orders);
+        // Archived orders still reference the outlet and its foods
+        archivedOrderRepository.deleteItemsByOutletId(id);
+        archivedOrderRepository.deleteByOutletId(id);
 
         // 3. Delete FoodItems (Cascades to FoodImages and food_ingredient join table)
         List<FoodItem> items = foodItemRepository.findByOutlet(outlet);
@@ -140,6 +219,7 @@ public class OutletService {
         // 5. Delete IngredientCategories (Cascades to IngredientItems)
         List<IngredientCategory> ingredientCategories = ingredientCategoryRepository.findByOutlet(outlet);
         ingredientCategoryRepository.deleteAll(ingredientCategories);
+        ingredientCatalog.evict(id);
 
         // 6. Delete Events
         List<Event> events = eventRepository.findByOutlet(outlet);
@@ -147,6 +227,8 @@ public class OutletService {
 
         // 7. Finally delete the outlet
         outletRepository.delete(outlet);
+        eventPublisher.publishEvent(new MenuChangeEvent(id));
+        eventPublisher.publishEvent(new OutletChangeEvent(id));
     }
 
     private OutletDto mapToDto(Outlet outlet) {
@@ -159,6 +241,8 @@ public class OutletService {
         dto.setOpen(outlet.isOpen());
         dto.setImageUrl(outlet.getImageUrl());
         dto.setQrImageUrl(outlet.getQrImageUrl());
+        dto.setMaxOpenOrders(outlet.getMaxOpenOrders());
+        dto.setOrdersPerMinute(outlet.getOrdersPerMinute());
         if (outlet.getOwner() != null) {
             dto.setOwnerId(outlet.getOwner().getUserId());
             dto.setOwnerName(outlet.getOwner().getFullName());
@@ -0,0 +1,266 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.DailyStatsDto;
+import com.eatorbit.backend.dto.DashboardSummaryDto;
+import com.eatorbit.backend.model.OrderStatus;
+import com.eatorbit.backend.model.OutletDailyStats;
+import com.eatorbit.backend.repository.OrderRepository;
+import com.eatorbit.backend.repository.OutletDailyStatsRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps outlet_daily_stats in step with orders. OrderService reports every placement and status move
+ * inside its own transaction, so a rollup row commits or rolls back together with the order it describes.
+ * Orders are bucketed by the day they were created in eatorbit.tokens.zone, the same business day tokens use.
+ * The last rebuild-days are rebuilt nightly and everything on first start, one outlet and at most
+ * REBUILD_CHUNK_DAYS per transaction so live deltas never wait long behind a rebuild.
+ */
+@Service
+public class OutletStatsService implements SmartInitializingSingleton {
+
+    public static final int MAX_SUMMARY_DAYS = 31;
+
+    private static final int REBUILD_CHUNK_DAYS = 31;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OutletDailyStatsRepository statsRepository;
+    private final OrderRepository orderRepository;
+    private final KitchenQueueService kitchenQueueService;
+    private final TransactionTemplate tx;
+    private final ZoneId zone;
+    private final int rebuildDays;
+
+    public OutletStatsService(OutletDailyStatsRepository statsRepository, OrderRepository orderRepository,
+            KitchenQueueService kitchenQueueService, PlatformTransactionManager txManager,
+            @Value("${eatorbit.tokens.zone:}") String zone,
+            @Value("${eatorbit.dashboard.rebuild-days:7}") int rebuildDays) {
+        this.statsRepository = statsRepository;
+        this.orderRepository = orderRepository;
+        this.kitchenQueueService = kitchenQueueService;
+        this.tx = new TransactionTemplate(txManager);
+        this.zone = zone == null || zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.rebuildDays = Math.max(1, rebuildDays);
+    }
+
+    // Backfill for deployments that had orders before the rollup existed
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (statsRepository.count() == 0 && orderRepository.count() > 0) {
+            System.out.println("DEBUG: outlet_daily_stats is empty, rebuilding from orders");
+            rebuild();
+        }
+    }
+
+    // Nightly reconcile of the recent days, which repairs drift such as orders placed while a rebuild was
+    // running; older days are closed and left as they are
+    @Scheduled(cron = "${eatorbit.dashboard.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        try {
+            LocalDate today = LocalDate.now(zone);
+            LocalDate from = today.minusDays(rebuildDays - 1L);
+            int rows = 0;
+            for (Long outletId : statsRepository.findOutletIds()) {
+                rows += rebuild(outletId, from, today);
+            }
+            System.out.println("DEBUG: Rebuilt " + rows + " outlet_daily_stats rows since " + from);
+        } catch (RuntimeException e) {
+            System.err.println("WARNING: Rebuilding outlet_daily_stats failed: " + e.getMessage());
+        }
+    }
+
+    // Full rebuild from each outlet's first order
+    public int rebuild() {
+        tx.executeWithoutResult(status -> statsRepository.deleteOrphanRows());
+        LocalDate today = LocalDate.now(zone);
+        int rows = 0;
+        for (Long outletId : statsRepository.findOutletIds()) {
+            LocalDateTime hot = statsRepository.findFirstOrderTime(outletId);
+            LocalDateTime archived = statsRepository.findFirstArchivedOrderTime(outletId);
+            LocalDateTime first = hot == null || (archived != null && archived.isBefore(hot)) ? archived : hot;
+            LocalDate from = first == null ? today : businessDay(first, zone);
+            tx.executeWithoutResult(status -> statsRepository.deleteBefore(outletId, from));
+            rows += rebuild(outletId, from, today);
+        }
+        return rows;
+    }
+
+    private int rebuild(Long outletId, LocalDate from, LocalDate to) {
+        int rows = 0;
+        for (LocalDate chunk = from; !chunk.isAfter(to); chunk = chunk.plusDays(REBUILD_CHUNK_DAYS)) {
+            LocalDate start = chunk;
+            LocalDate end = chunk.plusDays(REBUILD_CHUNK_DAYS - 1L).isBefore(to)
+                    ? chunk.plusDays(REBUILD_CHUNK_DAYS - 1L) : to;
+            Integer inserted = tx.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                statsRepository.deleteRange(outletId, start, end);
+                int n = 0;
+                for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                    n += statsRepository.rebuildDay(outletId, day, localStartOf(day), localStartOf(day.plusDays(1)),
+                            now);
+                }
+                return n;
+            });
+            rows += inserted == null ? 0 : inserted;
+        }
+        return rows;
+    }
+
+    public Batch newBatch() {
+        return new Batch(zone);
+    }
+
+    // created_at holds JVM-local time; each day is converted on its own so DST changes land on the right day
+    private LocalDateTime localStartOf(LocalDate day) {
+        return day.atStartOfDay(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private static LocalDate businessDay(LocalDateTime createdAt, ZoneId zone) {
+        return createdAt.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone).toLocalDate();
+    }
+
+    // Must run inside the caller's order transaction
+    public void apply(Batch batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Delta delta : batch.deltas.values()) {
+            long[] c = delta.statusCounts;
+            statsRepository.applyDelta(delta.outletId, delta.day, delta.orders, delta.revenue,
+                    c[OrderStatus.PENDING.ordinal()], c[OrderStatus.PLACED.ordinal()],
+                    c[OrderStatus.PREPARING.ordinal()], c[OrderStatus.READY.ordinal()],
+                    c[OrderStatus.DELIVERED.ordinal()], c[OrderStatus.CANCELLED.ordinal()], now);
+        }
+    }
+
+    public DashboardSummaryDto getSummary(Long outletId, int days) {
+        int span = Math.max(1, Math.min(days, MAX_SUMMARY_DAYS));
+        LocalDate to = LocalDate.now(zone);
+        LocalDate from = to.minusDays(span - 1L);
+
+        Map<LocalDate, OutletDailyStats> rows = new LinkedHashMap<>();
+        statsRepository.findRange(outletId, from, to).forEach(r -> rows.put(r.getBusinessDate(), r));
+
+        List<DailyStatsDto> series = new ArrayList<>(span);
+        long periodOrders = 0;
+        BigDecimal periodRevenue = BigDecimal.ZERO;
+        long[] periodCounts = new long[STATUSES.length];
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            OutletDailyStats row = rows.get(day);
+            long[] counts = new long[STATUSES.length];
+            long orders = 0;
+            BigDecimal revenue = BigDecimal.ZERO;
+            if (row != null) {
+                orders = row.getOrderCount();
+                revenue = row.getRevenue();
+                for (OrderStatus status : STATUSES) {
+                    counts[status.ordinal()] = row.getCount(status);
+                    periodCounts[status.ordinal()] += counts[status.ordinal()];
+                }
+            }
+            periodOrders += orders;
+            periodRevenue = periodRevenue.add(revenue);
+            series.add(toDto(day, orders, revenue, counts));
+        }
+
+        DashboardSummaryDto summary = new DashboardSummaryDto();
+        summary.setOutletId(outletId);
+        summary.setActiveOrders(kitchenQueueService.getQueueLength(outletId));
+        summary.setToday(series.get(series.size() - 1));
+        summary.setPeriodFrom(from);
+        summary.setPeriodTo(to);
+        summary.setPeriod(toDto(null, periodOrders, periodRevenue, periodCounts));
+        summary.setDays(series);
+        return summary;
+    }
+
+    private DailyStatsDto toDto(LocalDate day, long orders, BigDecimal revenue, long[] counts) {
+        DailyStatsDto dto = new DailyStatsDto();
+        dto.setDate(day);
+        dto.setOrderCount(orders);
+        dto.setRevenue(revenue);
+        long paid = orders - counts[OrderStatus.CANCELLED.ordinal()];
+        dto.setAverageTicket(paid > 0
+                ? revenue.divide(BigDecimal.valueOf(paid), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        Map<OrderStatus, Long> statusCounts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            statusCounts.put(status, counts[status.ordinal()]);
+        }
+        dto.setStatusCounts(statusCounts);
+        return dto;
+    }
+
+    /**
+     * Collects changes per (outlet, day) so a bulk status update still costs one upsert per touched row.
+     */
+    public static class Batch {
+        private final Map<String, Delta> deltas = new LinkedHashMap<>();
+        private final ZoneId zone;
+
+        Batch(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        public Batch placed(Long outletId, LocalDateTime createdAt, BigDecimal amount, OrderStatus status) {
+            Delta delta = deltaFor(outletId, createdAt);
+            delta.orders++;
+            delta.statusCounts[status.ordinal()]++;
+            if (status != OrderStatus.CANCELLED) {
+                delta.revenue = delta.revenue.add(amount);
+            }
+            return this;
+        }
+
+        // amount is only needed when the order moves into or out of CANCELLED
+        public Batch moved(Long outletId, LocalDateTime createdAt, BigDecimal amount, OrderStatus from,
+                OrderStatus to) {
+            Delta delta = deltaFor(outletId, createdAt);
+            delta.statusCounts[from.ordinal()]--;
+            delta.statusCounts[to.ordinal()]++;
+            if (to == OrderStatus.CANCELLED && from != OrderStatus.CANCELLED) {
+                delta.revenue = delta.revenue.subtract(Objects.requireNonNull(amount));
+            } else if (from == OrderStatus.CANCELLED && to != OrderStatus.CANCELLED) {
+                delta.revenue = delta.revenue.add(Objects.requireNonNull(amount));
+            }
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+
+        private Delta deltaFor(Long outletId, LocalDateTime createdAt) {
+            LocalDate day = createdAt == null ? LocalDate.now(zone) : businessDay(createdAt, zone);
+            return deltas.computeIfAbsent(outletId + ":" + day, k -> new Delta(outletId, day));
+        }
+    }
+
+    private static class Delta {
+        private final Long outletId;
+        private final LocalDate day;
+        private final long[] statusCounts = new long[STATUSES.length];
+        private long orders;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        Delta(Long outletId, LocalDate day) {
+            this.outletId = outletId;
+            this.day = day;
+        }
+    }
+}
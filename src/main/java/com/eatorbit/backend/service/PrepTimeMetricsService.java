@@ -0,0 +1,128 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.LatencySummaryDto;
+import com.eatorbit.backend.dto.PrepTimeStatsDto;
+import com.eatorbit.backend.event.OrderChangeEvent;
+import com.eatorbit.backend.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-outlet latency histograms for each kitchen stage, fed from committed status changes.
+ * In-memory and windowed (default: the last hour in 5 minute slots); the per-status timestamps on
+ * order_table remain the durable record for longer-range analysis.
+ */
+@Service
+public class PrepTimeMetricsService {
+
+    public enum Stage {
+        QUEUED,          // PLACED until the kitchen picks it up
+        PREPARING,       // PREPARING until READY
+        AWAITING_PICKUP, // READY until DELIVERED
+        PLACED_TO_READY  // End to end kitchen time
+    }
+
+    private final long slotMillis;
+    private final int slots;
+    private final Map<Long, Map<Stage, SlidingLatencyHistogram>> outlets = new ConcurrentHashMap<>();
+
+    public PrepTimeMetricsService(@Value("${eatorbit.prep-metrics.slot-minutes:5}") int slotMinutes,
+            @Value("${eatorbit.prep-metrics.slots:12}") int slots) {
+        this.slotMillis = TimeUnit.MINUTES.toMillis(Math.max(1, slotMinutes));
+        this.slots = Math.max(1, slots);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChange(OrderChangeEvent event) {
+        if (event.getType() != OrderChangeEvent.Type.STATUS_CHANGED || event.getPreviousStatusSince() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Stage stage = stageOf(event.getPreviousStatus());
+        if (stage != null) {
+            record(event.getOutletId(), stage, event.getPreviousStatusSince(), event.getChangedAt(), now);
+        }
+        if (event.getStatus() == OrderStatus.READY) {
+            record(event.getOutletId(), Stage.PLACED_TO_READY, event.getCreatedAt(), event.getChangedAt(), now);
+        }
+    }
+
+    public PrepTimeStatsDto getStats(Long outletId, int windowMinutes) {
+        int windowSlots = windowSlots(windowMinutes);
+        Map<Stage, SlidingLatencyHistogram> stages = outlets.get(outletId);
+        Map<String, LatencySummaryDto> summaries = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        for (Stage stage : Stage.values()) {
+            summaries.put(stage.name(), stages == null
+                    ? new LatencySummaryDto(0, 0, 0, 0)
+                    : summarize(stages.get(stage).snapshot(windowSlots, now)));
+        }
+        return new PrepTimeStatsDto(outletId, (int) (windowSlots * TimeUnit.MILLISECONDS.toMinutes(slotMillis)),
+                summaries);
+    }
+
+    public List<PrepTimeStatsDto> getAllStats(int windowMinutes) {
+        List<PrepTimeStatsDto> all = new ArrayList<>();
+        for (Long outletId : outlets.keySet()) {
+            all.add(getStats(outletId, windowMinutes));
+        }
+        return all;
+    }
+
+    private void record(Long outletId, Stage stage, LocalDateTime from, LocalDateTime to, long now) {
+        if (from == null || to == null) {
+            return;
+        }
+        long millis = Math.max(0, Duration.between(from, to).toMillis());
+        outlets.computeIfAbsent(outletId, id -> newStageMap()).get(stage).record(millis, now);
+    }
+
+    private Map<Stage, SlidingLatencyHistogram> newStageMap() {
+        Map<Stage, SlidingLatencyHistogram> stages = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new SlidingLatencyHistogram(slotMillis, slots));
+        }
+        return stages;
+    }
+
+    private int windowSlots(int windowMinutes) {
+        long requested = TimeUnit.MINUTES.toMillis(Math.max(1, windowMinutes));
+        return (int) Math.max(1, Math.min(slots, (requested + slotMillis - 1) / slotMillis));
+    }
+
+    private static Stage stageOf(OrderStatus status) {
+        switch (status) {
+            case PLACED:
+                return Stage.QUEUED;
+            case PREPARING:
+                return Stage.PREPARING;
+            case READY:
+                return Stage.AWAITING_PICKUP;
+            default:
+                return null;
+        }
+    }
+
+    private static LatencySummaryDto summarize(long[] merged) {
+        long total = SlidingLatencyHistogram.total(merged);
+        return new LatencySummaryDto(total,
+                round(SlidingLatencyHistogram.quantileSeconds(merged, total, 0.50)),
+                round(SlidingLatencyHistogram.quantileSeconds(merged, total, 0.95)),
+                round(SlidingLatencyHistogram.quantileSeconds(merged, total, 0.99)));
+    }
+
+    private static double round(double seconds) {
+        return Math.round(seconds * 10) / 10.0;
+    }
+}
@@ -0,0 +1,414 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.dto.FoodSearchHitDto;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the searchable text of every food: its name, description, category and outlet cuisine.
+ * Each term maps to the foods containing it with the weight of the best field it appears in. A query token
+ * matches terms exactly, as a prefix, or within one edit (insert, delete, substitute or swap adjacent letters);
+ * typo candidates come from a table of one-deletion variants, so no query scans the whole dictionary.
+ *
+ * Foods live in reusable int slots so postings and per-query scores are primitive arrays.
+ * Not thread-safe; MenuSearchService serialises writers against readers.
+ */
+class SearchIndex {
+
+    static final float NAME_WEIGHT = 3f;
+    static final float CATEGORY_WEIGHT = 2f;
+    static final float CUISINE_WEIGHT = 1.5f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float PREFIX_FACTOR = 0.7f;
+    private static final float TYPO_FACTOR = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int MAX_PREFIX_TERMS = 200;
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final List<Doc> slots = new ArrayList<>(); // Null where a food was removed
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<Long, Set<Long>> foodsByOutlet = new HashMap<>();
+    private final TreeMap<String, Posting> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByVariant = new HashMap<>();
+
+    int size() {
+        return docs.size();
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    // A food with its terms and their field weights; built without touching the index, so outside its lock
+    static Entry entry(FoodSearchHitDto food) {
+        Map<String, Float> terms = new HashMap<>();
+        collect(terms, food.getFoodName(), NAME_WEIGHT);
+        collect(terms, food.getCategoryName(), CATEGORY_WEIGHT);
+        collect(terms, food.getCuisineType(), CUISINE_WEIGHT);
+        collect(terms, food.getDescription(), DESCRIPTION_WEIGHT);
+        return new Entry(food, terms);
+    }
+
+    // Swaps an outlet's foods for the given ones; an empty list drops the outlet
+    void replaceOutlet(Long outletId, List<Entry> entries) {
+        Set<Long> previous = foodsByOutlet.remove(outletId);
+        if (previous != null) {
+            for (Long foodId : previous) {
+                remove(foodId);
+            }
+        }
+        for (Entry entry : entries) {
+            add(entry);
+        }
+    }
+
+    void add(Entry entry) {
+        FoodSearchHitDto food = entry.food;
+        Map<String, Float> terms = entry.terms;
+        remove(food.getFoodId());
+        int slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+        Doc doc = new Doc(food, slot, terms.keySet().toArray(new String[0]));
+        if (slot == slots.size()) {
+            slots.add(doc);
+        } else {
+            slots.set(slot, doc);
+        }
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            Posting posting = postings.get(term.getKey());
+            if (posting == null) {
+                posting = new Posting();
+                postings.put(term.getKey(), posting);
+                for (String variant : variants(term.getKey())) {
+                    termsByVariant.computeIfAbsent(variant, k -> new HashSet<>()).add(term.getKey());
+                }
+            }
+            posting.add(slot, term.getValue());
+        }
+        docs.put(food.getFoodId(), doc);
+        foodsByOutlet.computeIfAbsent(food.getOutletId(), k -> new HashSet<>()).add(food.getFoodId());
+    }
+
+    void remove(Long foodId) {
+        Doc doc = docs.remove(foodId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms) {
+            Posting posting = postings.get(term);
+            posting.remove(doc.slot);
+            if (posting.size == 0) {
+                postings.remove(term);
+                for (String variant : variants(term)) {
+                    Set<String> terms = termsByVariant.get(variant);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        termsByVariant.remove(variant);
+                    }
+                }
+            }
+        }
+        slots.set(doc.slot, null);
+        freeSlots.push(doc.slot);
+        Set<Long> outletFoods = foodsByOutlet.get(doc.food.getOutletId());
+        if (outletFoods != null && outletFoods.remove(foodId) && outletFoods.isEmpty()) {
+            foodsByOutlet.remove(doc.food.getOutletId());
+        }
+    }
+
+    /**
+     * Foods matching every token, best first. A token scores each food by the best of its matching terms:
+     * field weight x match factor x idf of the term. Ties go to available foods, then to open outlets.
+     */
+    List<FoodSearchHitDto> search(List<String> tokens, int limit) {
+        if (tokens.isEmpty() || docs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        float[] total = null;
+        int[] candidates = null;
+        int count = 0;
+        float[] best = new float[slots.size()];
+        for (String token : tokens) {
+            Arrays.fill(best, 0f);
+            if (!match(token, best)) {
+                return new ArrayList<>();
+            }
+            if (total == null) {
+                total = best.clone();
+                candidates = new int[best.length];
+                for (int slot = 0; slot < best.length; slot++) {
+                    if (best[slot] > 0) {
+                        candidates[count++] = slot;
+                    }
+                }
+            } else {
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    int slot = candidates[i];
+                    if (best[slot] > 0) {
+                        total[slot] += best[slot];
+                        candidates[kept++] = slot;
+                    }
+                }
+                count = kept;
+            }
+            if (count == 0) {
+                return new ArrayList<>();
+            }
+        }
+
+        // Keep the best `limit` in a min-heap whose root is the weakest of them
+        int[] heap = new int[Math.min(limit, count)];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = candidates[i];
+            if (size < heap.length) {
+                heap[size] = slot;
+                siftUp(heap, size++, total);
+            } else if (compare(slot, heap[0], total) > 0) {
+                heap[0] = slot;
+                siftDown(heap, size, total);
+            }
+        }
+        FoodSearchHitDto[] hits = new FoodSearchHitDto[size];
+        while (size > 0) {
+            hits[size - 1] = slots.get(heap[0]).food;
+            heap[0] = heap[--size];
+            siftDown(heap, size, total);
+        }
+        return new ArrayList<>(Arrays.asList(hits));
+    }
+
+    // Positive when slot a ranks above slot b
+    private int compare(int a, int b, float[] scores) {
+        int cmp = Float.compare(scores[a], scores[b]);
+        if (cmp != 0) {
+            return cmp;
+        }
+        FoodSearchHitDto fa = slots.get(a).food;
+        FoodSearchHitDto fb = slots.get(b).food;
+        cmp = Boolean.compare(fa.isAvailable(), fb.isAvailable());
+        if (cmp == 0) {
+            cmp = Boolean.compare(fa.isOutletOpen(), fb.isOutletOpen());
+        }
+        return cmp != 0 ? cmp : Long.compare(fb.getFoodId(), fa.getFoodId());
+    }
+
+    private void siftUp(int[] heap, int i, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(heap[i], heap[parent], scores) >= 0) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, float[] scores) {
+        int i = 0;
+        while (true) {
+            int weakest = i;
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                if (compare(heap[child], heap[weakest], scores) < 0) {
+                    weakest = child;
+                }
+            }
+            if (weakest == i) {
+                return;
+            }
+            swap(heap, i, weakest);
+            i = weakest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int slot = heap[i];
+        heap[i] = heap[j];
+        heap[j] = slot;
+    }
+
+    // False when no term matched the token at all
+    private boolean match(String token, float[] best) {
+        boolean matched = score(best, postings.get(token), 1f);
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (Posting posting : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                if (expanded++ == MAX_PREFIX_TERMS) {
+                    break;
+                }
+                matched |= score(best, posting, PREFIX_FACTOR);
+            }
+        }
+        if (token.length() >= MIN_TYPO_LENGTH) {
+            Set<String> candidates = new HashSet<>();
+            for (String variant : variants(token)) {
+                Set<String> terms = termsByVariant.get(variant);
+                if (terms != null) {
+                    candidates.addAll(terms);
+                }
+            }
+            for (String term : candidates) {
+                if (!term.equals(token) && withinOneEdit(token, term)) {
+                    matched |= score(best, postings.get(term), TYPO_FACTOR);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private boolean score(float[] best, Posting posting, float factor) {
+        if (posting == null) {
+            return false;
+        }
+        float idf = (float) Math.log(1 + (double) docs.size() / posting.size);
+        for (int i = 0; i < posting.size; i++) {
+            float score = posting.weights[i] * factor * idf;
+            if (score > best[posting.slots[i]]) {
+                best[posting.slots[i]] = score;
+            }
+        }
+        return true;
+    }
+
+    private static void collect(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    // Lower-cased, accent-free words of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = isAscii(text) ? text
+                : MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        folded = folded.toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The word itself and every form of it with one letter deleted; two words within one edit share one of these
+    private static Collection<String> variants(String term) {
+        Set<String> variants = new HashSet<>();
+        variants.add(term);
+        if (term.length() >= MIN_TYPO_LENGTH) {
+            for (int i = 0; i < term.length(); i++) {
+                variants.add(term.substring(0, i) + term.substring(i + 1));
+            }
+        }
+        return variants;
+    }
+
+    // Optimal string alignment distance <= 1: one insertion, deletion, substitution or adjacent swap
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (la == lb) {
+            if (i == la) {
+                return true;
+            }
+            if (a.regionMatches(i + 1, b, i + 1, la - i - 1)) {
+                return true; // Substitution
+            }
+            return i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, la - i - 2); // Adjacent swap
+        }
+        return la < lb ? a.regionMatches(i, b, i + 1, la - i) : b.regionMatches(i, a, i + 1, lb - i);
+    }
+
+    // Slots of the foods containing one term, with that term's field weight in each
+    private static final class Posting {
+        private int[] slots = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void add(int slot, float weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+
+        // Order within a posting does not matter, so the last entry fills the gap
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    static final class Entry {
+        private final FoodSearchHitDto food;
+        private final Map<String, Float> terms;
+
+        private Entry(FoodSearchHitDto food, Map<String, Float> terms) {
+            this.food = food;
+            this.terms = terms;
+        }
+
+        FoodSearchHitDto getFood() {
+            return food;
+        }
+    }
+
+    private static final class Doc {
+        private final FoodSearchHitDto food;
+        private final int slot;
+        private final String[] terms;
+
+        private Doc(FoodSearchHitDto food, int slot, String[] terms) {
+            this.food = food;
+            this.slot = slot;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.exception.ApiException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Values loaded on first use and kept until invalidated. Concurrent misses for a key wait on one load.
+ * Invalidating a key whose load is still running lets that load answer the requests already waiting on it,
+ * but its result is not kept, so the next request loads again. Failed loads are never kept.
+ */
+public class SharedLoadCache<K, V> {
+
+    private final String name;
+    private final Map<K, CompletableFuture<V>> entries = new ConcurrentHashMap<>();
+
+    public SharedLoadCache(String name) {
+        this.name = name;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = entries.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            entries.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private V await(CompletableFuture<V> value) {
+        try {
+            return value.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ApiException("Could not load " + name + ": " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for " + name);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.eatorbit.backend.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram over a sliding time window.
+ * Values land in log-scaled buckets (each 15% wider than the last, 1s up to about 20h), so a quantile is
+ * off by at most half a bucket. The window is a ring of time slots; a slot is cleared when the clock
+ * comes back around to it, so recording is one array increment and memory is fixed.
+ */
+class SlidingLatencyHistogram {
+
+    static final double GROWTH = 1.15;
+    static final int BUCKETS = 80;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    private final long slotMillis;
+    private final int slots;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray slotEpochs; // Which slot number (now / slotMillis) each ring entry holds
+
+    SlidingLatencyHistogram(long slotMillis, int slots) {
+        this.slotMillis = slotMillis;
+        this.slots = slots;
+        this.counts = new AtomicLongArray(slots * BUCKETS);
+        this.slotEpochs = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            slotEpochs.set(i, -1);
+        }
+    }
+
+    void record(long latencyMillis, long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        int slot = (int) (epoch % slots);
+        if (slotEpochs.get(slot) != epoch) {
+            synchronized (this) {
+                if (slotEpochs.get(slot) != epoch) {
+                    for (int b = 0; b < BUCKETS; b++) {
+                        counts.set(slot * BUCKETS + b, 0);
+                    }
+                    slotEpochs.set(slot, epoch);
+                }
+            }
+        }
+        counts.incrementAndGet(slot * BUCKETS + bucketOf(latencyMillis));
+    }
+
+    // Merged bucket counts of the last windowSlots slots, including the current one
+    long[] snapshot(int windowSlots, long nowMillis) {
+        long current = nowMillis / slotMillis;
+        long oldest = current - Math.min(windowSlots, slots) + 1;
+        long[] merged = new long[BUCKETS];
+        for (int slot = 0; slot < slots; slot++) {
+            long epoch = slotEpochs.get(slot);
+            if (epoch >= oldest && epoch <= current) {
+                for (int b = 0; b < BUCKETS; b++) {
+                    merged[b] += counts.get(slot * BUCKETS + b);
+                }
+            }
+        }
+        return merged;
+    }
+
+    long getSlotMillis() {
+        return slotMillis;
+    }
+
+    int getSlots() {
+        return slots;
+    }
+
+    // Bucket 0 is [0, 1s); bucket i is [GROWTH^(i-1), GROWTH^i) seconds
+    static int bucketOf(long latencyMillis) {
+        double seconds = latencyMillis / 1000.0;
+        if (seconds < 1) {
+            return 0;
+        }
+        int bucket = 1 + (int) (Math.log(seconds) / LOG_GROWTH);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    // Geometric middle of a bucket, in seconds
+    static double representativeSeconds(int bucket) {
+        if (bucket == 0) {
+            return 0.5;
+        }
+        return Math.pow(GROWTH, bucket - 0.5);
+    }
+
+    static long total(long[] merged) {
+        long total = 0;
+        for (long count : merged) {
+            total += count;
+        }
+        return total;
+    }
+
+    static double quantileSeconds(long[] merged, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int b = 0; b < merged.length; b++) {
+            seen += merged[b];
+            if (seen >= rank) {
+                return representativeSeconds(b);
+            }
+        }
+        return representativeSeconds(merged.length - 1);
+    }
+}
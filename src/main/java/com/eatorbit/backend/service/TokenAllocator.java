@@ -0,0 +1,121 @@
+package com.eatorbit.backend.service;
+
+import com.eatorbit.backend.model.TokenSequence;
+import com.eatorbit.backend.repository.TokenSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Hands out short pickup tokens such as "A-042-261017": outlet code, that outlet's running number for the
+ * day, and the business date that keeps the token globally unique.
+ * Numbers come from per-outlet in-memory blocks; a block is reserved from token_sequences in its own
+ * short transaction, so most orders need no round trip and a restart only skips the unused tail of a block.
+ */
+@Service
+public class TokenAllocator {
+
+    private static final DateTimeFormatter DAY_KEY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter DAY_SUFFIX = DateTimeFormatter.ofPattern("yyMMdd");
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("^[A-Z]+-\\d{3,}-\\d{6}$");
+
+    private final TokenSequenceRepository tokenSequenceRepository;
+    private final TransactionTemplate reserveTx;
+    private final int blockSize;
+    private final ZoneId zone;
+
+    // One stripe per outlet and day; contention is limited to orders for the same outlet
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public TokenAllocator(TokenSequenceRepository tokenSequenceRepository, PlatformTransactionManager txManager,
+            @Value("${eatorbit.tokens.block-size:20}") int blockSize,
+            @Value("${eatorbit.tokens.zone:}") String zone) {
+        this.tokenSequenceRepository = tokenSequenceRepository;
+        this.reserveTx = new TransactionTemplate(txManager);
+        this.reserveTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+        this.zone = zone == null || zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+    }
+
+    public String nextToken(Long outletId) {
+        LocalDate day = LocalDate.now(zone);
+        String key = outletId + ":" + day.format(DAY_KEY);
+        Block block = blocks.get(key);
+        if (block == null) {
+            blocks.values().removeIf(b -> !b.day.equals(day)); // Yesterday's stripes are done
+            block = blocks.computeIfAbsent(key, k -> new Block(outletId, day));
+        }
+        long number = block.next();
+        return outletCode(outletId) + "-" + String.format("%03d", number) + "-" + day.format(DAY_SUFFIX);
+    }
+
+    // The part called out at the counter, e.g. "A-042"
+    public static String pickupCode(String tokenNumber) {
+        if (tokenNumber == null || !TOKEN_PATTERN.matcher(tokenNumber).matches()) {
+            return tokenNumber;
+        }
+        return tokenNumber.substring(0, tokenNumber.lastIndexOf('-'));
+    }
+
+    // 1 -> A, 26 -> Z, 27 -> AA ...
+    static String outletCode(long outletId) {
+        StringBuilder code = new StringBuilder();
+        long n = outletId;
+        while (n > 0) {
+            n--;
+            code.insert(0, (char) ('A' + (n % 26)));
+            n /= 26;
+        }
+        return code.length() == 0 ? "A" : code.toString();
+    }
+
+    private long[] reserve(String key, Long outletId, LocalDate day) {
+        try {
+            return reserveTx.execute(status -> reserveBlock(key, outletId, day));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created today's row first; its row lock now serialises us
+            return reserveTx.execute(status -> reserveBlock(key, outletId, day));
+        }
+    }
+
+    private long[] reserveBlock(String key, Long outletId, LocalDate day) {
+        TokenSequence sequence = tokenSequenceRepository.findForUpdate(key).orElse(null);
+        if (sequence == null) {
+            sequence = tokenSequenceRepository.saveAndFlush(new TokenSequence(key, outletId, day));
+        }
+        long start = sequence.getReservedUpTo() + 1;
+        sequence.setReservedUpTo(sequence.getReservedUpTo() + blockSize);
+        return new long[] { start, sequence.getReservedUpTo() };
+    }
+
+    private final class Block {
+        private final Long outletId;
+        private final LocalDate day;
+        private long next = 1;
+        private long limit = 0;
+
+        Block(Long outletId, LocalDate day) {
+            this.outletId = outletId;
+            this.day = day;
+        }
+
+        synchronized long next() {
+            if (next > limit) {
+                long[] range = reserve(outletId + ":" + day.format(DAY_KEY), outletId, day);
+                next = range[0];
+                limit = range[1];
+            }
+            return next++;
+        }
+    }
+}